@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.KalmanFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DistanceModelType;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of distance calculation from rssi (per sample, exact and lookup
+ * table distance models)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceBenchmark {
+
+    /**
+     * Number of samples per benchmark invocation
+     */
+    private static final int SAMPLES = 1024;
+
+    private double[] rssi;
+    private NetworkEntity networkEntity;
+    private NetworkEntity lookupNetworkEntity;
+
+    @Setup
+    public void setUp() {
+        this.rssi = new KalmanFilter().applyAsDouble(SampleGenerator.generateRssi(SAMPLES));
+        this.networkEntity = this.createNetworkEntity(DistanceModelType.EXACT);
+        this.lookupNetworkEntity = this.createNetworkEntity(DistanceModelType.LOOKUP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void calculateDistanceFromRssi(final Blackhole blackhole) {
+        this.calculateDistance(this.networkEntity, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void calculateDistanceByLookupTable(final Blackhole blackhole) {
+        this.calculateDistance(this.lookupNetworkEntity, blackhole);
+    }
+
+    private void calculateDistance(final NetworkEntity entity, final Blackhole blackhole) {
+        for (final double value : this.rssi) {
+            entity.setFilteredRssi(value);
+            blackhole.consume(entity.getDistance());
+        }
+    }
+
+    private NetworkEntity createNetworkEntity(final DistanceModelType distanceModelType) {
+        final NetworkEntity entity = new NetworkEntity("46:0a64:b1:df:51", -59);
+        entity.setDeviceMetrics(new EmbeddedAntennaMetrics());
+        entity.setDistanceModel(distanceModelType.newInstance(entity.getDeviceMetrics(), entity.getTxPower()));
+        return entity;
+    }
+}
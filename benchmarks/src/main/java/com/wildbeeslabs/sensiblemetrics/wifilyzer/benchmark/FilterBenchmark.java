@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.ArmaFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.KalmanFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseDoubleFilter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of rssi filters (boxed, per-sample and bulk paths)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int samples;
+
+    private double[] rssi;
+    private double[] filteredRssi;
+
+    @Setup
+    public void setUp() {
+        this.rssi = SampleGenerator.generateRssi(this.samples);
+        this.filteredRssi = new double[this.samples];
+    }
+
+    @Benchmark
+    public void kalmanBoxed(final Blackhole blackhole) {
+        final KalmanFilter filter = new KalmanFilter();
+        for (final double value : this.rssi) {
+            blackhole.consume(filter.applyFilter(value));
+        }
+    }
+
+    @Benchmark
+    public double[] kalmanPerSample() {
+        return this.applyPerSample(new KalmanFilter());
+    }
+
+    @Benchmark
+    public double[] kalmanBulk() {
+        new KalmanFilter().applyAsDouble(this.rssi, 0, this.filteredRssi, 0, this.samples);
+        return this.filteredRssi;
+    }
+
+    @Benchmark
+    public double[] armaPerSample() {
+        return this.applyPerSample(ArmaFilter.getInstance());
+    }
+
+    private double[] applyPerSample(final IBaseDoubleFilter filter) {
+        for (int i = 0; i < this.samples; i++) {
+            this.filteredRssi[i] = filter.applyAsDouble(this.rssi[i]);
+        }
+        return this.filteredRssi;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.KalmanFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.NumberUtils;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.RowWriter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of output number formatting (per value)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    /**
+     * Number of values per benchmark invocation
+     */
+    private static final int SAMPLES = 1024;
+
+    private double[] rssi;
+    private double[] filteredRssi;
+    private RowWriter writer;
+
+    @Setup
+    public void setUp() {
+        this.rssi = SampleGenerator.generateRssi(SAMPLES);
+        this.filteredRssi = new KalmanFilter().applyAsDouble(this.rssi);
+        this.writer = new RowWriter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void format(final Blackhole blackhole) {
+        for (final double value : this.filteredRssi) {
+            blackhole.consume(NumberUtils.format(value * -1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void appendDecimal(final Blackhole blackhole) {
+        this.writer.reset();
+        for (final double value : this.filteredRssi) {
+            this.writer.appendDecimal(value * -1);
+        }
+        blackhole.consume(this.writer.length());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void formatRow(final Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) {
+            blackhole.consume(this.rssi[i] * -1 + "," + NumberUtils.format(this.filteredRssi[i] * -1) + "," + (int) this.rssi[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void writeRow(final Blackhole blackhole) {
+        this.writer.reset();
+        for (int i = 0; i < SAMPLES; i++) {
+            this.writer.appendDouble(this.rssi[i] * -1).separator()
+                    .appendDecimal(this.filteredRssi[i] * -1).separator()
+                    .appendInt((int) this.rssi[i]).endRow();
+        }
+        blackhole.consume(this.writer.length());
+    }
+}
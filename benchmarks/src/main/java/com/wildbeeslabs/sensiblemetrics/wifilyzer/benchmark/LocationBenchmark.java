@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.LocalProjection;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.MultilaterationEngine;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.PositionFix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of per fix latency of multilateration engine for a client moving
+ * along a path (warm start from previous fix) and for independent fixes (cold
+ * start from weighted centroid)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocationBenchmark {
+
+    /**
+     * Number of access points per fix
+     */
+    private static final int NETWORKS = 8;
+    /**
+     * Number of fixes (power of two)
+     */
+    private static final int FIXES = 1024;
+
+    private MultilaterationEngine engine;
+    private int[] accessPoints;
+    private double[][] distances;
+    private PositionFix fix;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(17);
+        this.engine = new MultilaterationEngine(new LocalProjection(55.75, 37.61));
+        this.accessPoints = new int[NETWORKS];
+        final double[] east = new double[NETWORKS];
+        final double[] north = new double[NETWORKS];
+        for (int i = 0; i < NETWORKS; i++) {
+            east[i] = 50 * random.nextDouble();
+            north[i] = 30 * random.nextDouble();
+            this.accessPoints[i] = this.engine.addAccessPoint(String.format("46:0a:64:b1:df:%02x", i), east[i], north[i]);
+        }
+        this.distances = new double[FIXES][NETWORKS];
+        for (int j = 0; j < FIXES; j++) {
+            final double t = 2 * Math.PI * j / FIXES;
+            final double x = 25 + 15 * Math.cos(t);
+            final double y = 15 + 10 * Math.sin(t);
+            for (int i = 0; i < NETWORKS; i++) {
+                this.distances[j][i] = Math.max(0, Math.hypot(x - east[i], y - north[i]) + random.nextGaussian());
+            }
+        }
+        this.fix = new PositionFix();
+    }
+
+    @Benchmark
+    public PositionFix locateWarm() {
+        final int j = (this.index++) & (FIXES - 1);
+        return this.engine.locate(this.accessPoints, this.distances[j], NETWORKS, this.fix);
+    }
+
+    @Benchmark
+    public PositionFix locateCold() {
+        final int j = (this.index++) & (FIXES - 1);
+        this.fix.reset();
+        return this.engine.locate(this.accessPoints, this.distances[j], NETWORKS, this.fix);
+    }
+}
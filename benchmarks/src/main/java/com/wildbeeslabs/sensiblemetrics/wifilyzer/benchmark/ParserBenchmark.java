@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.BaseNetworkAnalyzer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.RssiTokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of rssi input parsing (regex split stream vs. tokenizer over
+ * decoded characters and over raw ASCII bytes)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    @Param({"1000", "100000"})
+    private int samples;
+
+    private String capture;
+    private ByteBuffer bytes;
+    private StreamAnalyzer analyzer;
+    private RssiTokenizer tokenizer;
+
+    @Setup
+    public void setUp() {
+        this.capture = SampleGenerator.generateCapture(this.samples);
+        this.analyzer = new StreamAnalyzer();
+        this.tokenizer = new RssiTokenizer();
+        final byte[] encoded = this.capture.getBytes(StandardCharsets.US_ASCII);
+        this.bytes = ByteBuffer.allocateDirect(encoded.length);
+        this.bytes.put(encoded);
+    }
+
+    @Benchmark
+    public List<Double> filteredStream() {
+        return this.analyzer.parse(Collections.singletonList(this.capture));
+    }
+
+    @Benchmark
+    public void tokenizer(final Blackhole blackhole) {
+        this.tokenizer.tokenize(this.capture, blackhole::consume);
+    }
+
+    @Benchmark
+    public void byteTokenizer(final Blackhole blackhole) {
+        this.bytes.rewind();
+        this.tokenizer.tokenize(this.bytes, blackhole::consume);
+        this.tokenizer.flush(blackhole::consume);
+    }
+
+    /**
+     * Network analyzer exposing regex based stream parsing
+     */
+    private static final class StreamAnalyzer extends BaseNetworkAnalyzer {
+
+        StreamAnalyzer() {
+            super(new CmdLineProcessor("--bssid", "46:0a64:b1:df:51", "--input-source", "input.txt", "--output-source", "output.txt"));
+        }
+
+        List<Double> parse(final List<String> input) {
+            return this.<String>getFilteredStream(input.stream(), this.getDefaultFilter(), DEFAULT_TOKEN_DELIMITER).mapToDouble(Double::parseDouble).boxed().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.BaseNetworkAnalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of network analyzer processing on synthetic captures
+ * (batch mode on the largest captures needs a heap of several gigabytes, use
+ * -jvmArgs or -p to adjust)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ProcessBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    private long samples;
+
+    @Param({"false", "true"})
+    private boolean streamMode;
+
+    private File inputFile;
+    private File outputFile;
+    private BaseNetworkAnalyzer analyzer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.inputFile = SampleGenerator.generateCaptureFile(this.samples);
+        this.outputFile = File.createTempFile("wifilyzer-output-", ".txt");
+        this.outputFile.deleteOnExit();
+        this.analyzer = new BaseNetworkAnalyzer(new CmdLineProcessor(
+                "--bssid", "46:0a64:b1:df:51",
+                "--input-source", this.inputFile.getPath(),
+                "--output-source", this.outputFile.getPath(),
+                "--stream-mode", String.valueOf(this.streamMode)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.inputFile.delete();
+        this.outputFile.delete();
+    }
+
+    @Benchmark
+    public void process() {
+        this.analyzer.process(-59);
+    }
+}
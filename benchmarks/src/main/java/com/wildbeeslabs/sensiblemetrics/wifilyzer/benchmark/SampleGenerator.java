@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+/**
+ * Helper class to generate synthetic RSSI captures
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public final class SampleGenerator {
+
+    /**
+     * Default random seed (captures are reproducible between runs)
+     */
+    public static final long DEFAULT_SEED = 20171212L;
+    /**
+     * Default number of samples per capture line
+     */
+    public static final int DEFAULT_SAMPLES_PER_LINE = 1000;
+
+    private SampleGenerator() {
+        // PRIVATE EMPTY CONSTRUCTOR
+    }
+
+    /**
+     * Returns random walk of integer RSSI values in range [-100, -30] dBm
+     *
+     * @param size - number of samples
+     * @return array of samples
+     */
+    public static double[] generateRssi(int size) {
+        final SplittableRandom random = new SplittableRandom(DEFAULT_SEED);
+        final double[] result = new double[size];
+        int level = -70;
+        for (int i = 0; i < size; i++) {
+            level = Math.max(-100, Math.min(-30, level + random.nextInt(-3, 4)));
+            result[i] = level + random.nextInt(-6, 7);
+        }
+        return result;
+    }
+
+    public static String generateCapture(int size) {
+        final StringBuilder builder = new StringBuilder(size * 5);
+        final double[] rssi = generateRssi(size);
+        for (int i = 0; i < rssi.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append((int) rssi[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes synthetic capture file in the format of input.txt (comma
+     * separated dBm values)
+     *
+     * @param size - number of samples
+     * @return capture file
+     * @throws IOException on write error
+     */
+    public static File generateCaptureFile(long size) throws IOException {
+        final File file = File.createTempFile("wifilyzer-capture-" + size + "-", ".txt");
+        file.deleteOnExit();
+        final SplittableRandom random = new SplittableRandom(DEFAULT_SEED);
+        try (final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            int level = -70;
+            for (long i = 0; i < size; i++) {
+                level = Math.max(-100, Math.min(-30, level + random.nextInt(-3, 4)));
+                writer.write(Integer.toString(level + random.nextInt(-6, 7)));
+                if ((i + 1) % DEFAULT_SAMPLES_PER_LINE == 0) {
+                    writer.newLine();
+                } else if (i + 1 < size) {
+                    writer.write(", ");
+                }
+            }
+        }
+        return file;
+    }
+}
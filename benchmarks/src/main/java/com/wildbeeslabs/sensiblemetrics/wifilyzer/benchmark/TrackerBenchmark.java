@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.NetworkChannel;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.NetworkSample;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.NetworkTracker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of per measurement latency of network tracker (sampled, so that
+ * latency percentiles are reported), by bssid lookup and by kept channel
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrackerBenchmark {
+
+    /**
+     * Number of access points
+     */
+    private static final int NETWORKS = 64;
+    /**
+     * Number of samples (power of two)
+     */
+    private static final int SAMPLES = 1024;
+
+    private double[] rssi;
+    private String[] bssid;
+    private NetworkTracker tracker;
+    private NetworkChannel channel;
+    private NetworkSample sample;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.rssi = SampleGenerator.generateRssi(SAMPLES);
+        this.bssid = new String[SAMPLES];
+        this.tracker = new NetworkTracker(-59);
+        for (int i = 0; i < SAMPLES; i++) {
+            this.bssid[i] = String.format("46:0a:64:b1:df:%02x", i % NETWORKS);
+            this.tracker.getChannel(this.bssid[i]);
+        }
+        this.channel = this.tracker.getChannel(this.bssid[0]);
+        this.sample = new NetworkSample();
+    }
+
+    @Benchmark
+    public NetworkSample updateByBssid() {
+        final int i = (this.index++) & (SAMPLES - 1);
+        return this.tracker.update(this.bssid[i], this.rssi[i], i, this.sample);
+    }
+
+    @Benchmark
+    public NetworkSample updateByChannel() {
+        final int i = (this.index++) & (SAMPLES - 1);
+        return this.channel.update(this.rssi[i], i, this.sample);
+    }
+}
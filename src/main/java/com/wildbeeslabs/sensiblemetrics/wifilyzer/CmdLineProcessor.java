@@ -23,12 +23,27 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer;
 
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.FilterType;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.FingerprintIndex;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsProfile;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsRegistry;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DistanceModelType;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.OuiProfileRegistry;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.SamplePipeline;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.AsyncOutputStream;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CaptureFormat;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.LocationRecordWriter;
+
 import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.validator.routines.InetAddressValidator;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -56,15 +71,102 @@ public final class CmdLineProcessor {
      * Default logger instance
      */
     private static final Logger LOGGER = LogManager.getLogger(CmdLineProcessor.class);
+    /**
+     * Default sliding window percentiles
+     */
+    public static final String DEFAULT_WINDOW_PERCENTILES = "50,90";
 
-    @Option(name = "-b", aliases = {"--bssid"}, required = true, usage = "sets access point bssid", metaVar = "BSSID")
+    @Option(name = "-b", aliases = {"--bssid"}, required = false, usage = "sets access point bssid (required unless multi bssid mode is enabled)", metaVar = "BSSID")
     private String bssid;
-    @Option(name = "-in", aliases = {"--input-source"}, required = true, usage = "sets input source", metaVar = "INPUT SOURCE")
+    @Option(name = "-in", aliases = {"--input-source"}, required = true, usage = "sets input source (\"-\" - standard input)", metaVar = "INPUT SOURCE")
     private File inputSource;
-    @Option(name = "-out", aliases = {"--output-source"}, required = true, usage = "sets output source", metaVar = "OUTPUT SOURCE")
+    @Option(name = "-out", aliases = {"--output-source"}, required = true, usage = "sets output source (\"-\" - standard output)", metaVar = "OUTPUT SOURCE")
     private File outputSource;
     @Option(name = "-i", aliases = {"--ignore-case"}, required = false, usage = "enables/disables ignore case mode", metaVar = "IGNORE CASE MODE", handler = ExplicitBooleanOptionHandler.class)
     private boolean ignoreCase;
+    @Option(name = "-s", aliases = {"--stream-mode"}, required = false, usage = "enables/disables streaming mode", metaVar = "STREAM MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean streamMode;
+    @Option(name = "-f", aliases = {"--filter"}, required = false, usage = "sets rssi filter type", metaVar = "FILTER")
+    private FilterType filterType = FilterType.KALMAN;
+    @Option(name = "-ar", aliases = {"--ar-coefficients"}, required = false, usage = "sets comma separated autoregressive coefficients a[1..p] of ARMA filter (requires --ma-coefficients)", metaVar = "AR COEFFICIENTS")
+    private String arCoefficients;
+    @Option(name = "-ma", aliases = {"--ma-coefficients"}, required = false, usage = "sets comma separated moving average coefficients b[0..q] of ARMA filter (default ARMA(1,0) with speed 0.5)", metaVar = "MA COEFFICIENTS")
+    private String maCoefficients;
+    @Option(name = "-dm", aliases = {"--distance-model"}, required = false, usage = "sets distance model type", metaVar = "DISTANCE MODEL")
+    private DistanceModelType distanceModelType = DistanceModelType.EXACT;
+    @Option(name = "-m", aliases = {"--multi-bssid"}, required = false, usage = "enables/disables multi bssid mode (input rows: bssid,rssi[,timestamp])", metaVar = "MULTI BSSID MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean multiBssid;
+    @Option(name = "-t", aliases = {"--threads"}, required = false, usage = "sets number of worker threads in multi bssid mode or mapped input mode", metaVar = "THREADS")
+    private int threads = 1;
+    @Option(name = "-mi", aliases = {"--mapped-input"}, required = false, usage = "enables/disables memory-mapped input parsing (ASCII input, single bssid mode)", metaVar = "MAPPED INPUT MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean mappedInput;
+    @Option(name = "-if", aliases = {"--input-format"}, required = false, usage = "sets input source format", metaVar = "INPUT FORMAT")
+    private CaptureFormat inputFormat = CaptureFormat.CSV;
+    @Option(name = "-of", aliases = {"--output-format"}, required = false, usage = "sets output source format", metaVar = "OUTPUT FORMAT")
+    private CaptureFormat outputFormat = CaptureFormat.CSV;
+    @Option(name = "-F", aliases = {"--follow"}, required = false, usage = "enables/disables follow mode (input source is processed as it grows)", metaVar = "FOLLOW MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean followMode;
+    @Option(name = "-pi", aliases = {"--poll-interval"}, required = false, usage = "sets follow mode poll interval in milliseconds", metaVar = "POLL INTERVAL")
+    private long pollInterval = 1000;
+    @Option(name = "-it", aliases = {"--idle-timeout"}, required = false, usage = "sets follow mode idle timeout in milliseconds (0 - follow until interrupted)", metaVar = "IDLE TIMEOUT")
+    private long idleTimeout;
+    @Option(name = "-P", aliases = {"--pipeline"}, required = false, usage = "enables/disables pipeline mode (filtering, distance calculation and output run in separate threads)", metaVar = "PIPELINE MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean pipelineMode;
+    @Option(name = "-qc", aliases = {"--queue-capacity"}, required = false, usage = "sets number of sample batches in flight in pipeline mode", metaVar = "QUEUE CAPACITY")
+    private int queueCapacity = SamplePipeline.DEFAULT_CAPACITY;
+    @Option(name = "-ao", aliases = {"--async-output"}, required = false, usage = "enables/disables asynchronous output (output is written on a background thread)", metaVar = "ASYNC OUTPUT MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean asyncOutput;
+    @Option(name = "-ob", aliases = {"--output-buffer-size"}, required = false, usage = "sets asynchronous output buffer size in bytes", metaVar = "OUTPUT BUFFER SIZE")
+    private int outputBufferSize = AsyncOutputStream.DEFAULT_BUFFER_SIZE;
+    @Option(name = "-fi", aliases = {"--flush-interval"}, required = false, usage = "sets asynchronous output flush interval in milliseconds (0 - flush on full buffer only)", metaVar = "FLUSH INTERVAL")
+    private long flushInterval = AsyncOutputStream.DEFAULT_FLUSH_INTERVAL;
+    @Option(name = "-ws", aliases = {"--window-size"}, required = false, usage = "sets number of samples of sliding window statistics per access point (0 - not bounded by size)", metaVar = "WINDOW SIZE")
+    private int windowSize;
+    @Option(name = "-wd", aliases = {"--window-duration"}, required = false, usage = "sets duration of sliding window statistics in milliseconds (in samples for input rows without timestamp, 0 - not bounded by time)", metaVar = "WINDOW DURATION")
+    private long windowDuration;
+    @Option(name = "-wp", aliases = {"--window-percentiles"}, required = false, usage = "sets comma separated percentiles of sliding window statistics", metaVar = "WINDOW PERCENTILES")
+    private String windowPercentiles = DEFAULT_WINDOW_PERCENTILES;
+    @Option(name = "-so", aliases = {"--summary-source"}, required = false, usage = "sets summary source of p50 / p90 / p99 filtered rssi and distance per access point (\"-\" - standard output)", metaVar = "SUMMARY SOURCE")
+    private File summarySource;
+    @Option(name = "-C", aliases = {"--calibrate"}, required = false, usage = "enables/disables calibration mode (input rows: device,distance,rssi, output rows: device,A,B,C,txPower)", metaVar = "CALIBRATION MODE", handler = ExplicitBooleanOptionHandler.class)
+    private boolean calibrate;
+    @Option(name = "-ps", aliases = {"--profile-source"}, required = false, usage = "sets device metrics profiles source (rows: device,A,B,C,txPower)", metaVar = "PROFILE SOURCE")
+    private File profileSource;
+    @Option(name = "-d", aliases = {"--device"}, required = false, usage = "sets device of device metrics profile (default embedded antenna metrics and txPower -59)", metaVar = "DEVICE")
+    private String device;
+    @Option(name = "-os", aliases = {"--oui-source"}, required = false, usage = "sets device metrics profiles source by bssid vendor prefix (rows: prefix,A,B,C,txPower; longest prefix wins over --device)", metaVar = "OUI SOURCE")
+    private File ouiSource;
+    @Option(name = "-rm", aliases = {"--radio-map"}, required = false, usage = "sets radio map source of fingerprint localization in multi bssid mode (rows: latitude,longitude,bssid,rssi[,bssid,rssi...])", metaVar = "RADIO MAP")
+    private File radioMapSource;
+    @Option(name = "-ls", aliases = {"--location-source"}, required = false, usage = "sets location source of position fixes per location window (rows: windowStart,latitude,longitude,accessPoints,residual; \"-\" - standard output)", metaVar = "LOCATION SOURCE")
+    private File locationSource;
+    @Option(name = "-lw", aliases = {"--location-window"}, required = false, usage = "sets location window in milliseconds (in samples for input rows without timestamp)", metaVar = "LOCATION WINDOW")
+    private long locationWindow = LocationRecordWriter.DEFAULT_LOCATION_WINDOW;
+    /**
+     * Parsed sliding window percentiles
+     */
+    private double[] windowPercentileValues;
+    /**
+     * Parsed ARMA filter coefficients (null if not set)
+     */
+    private double[] arCoefficientValues;
+    private double[] maCoefficientValues;
+    /**
+     * Loaded device metrics profiles
+     */
+    private DeviceMetricsRegistry deviceRegistry;
+    /**
+     * Device metrics profile of access points
+     */
+    private DeviceMetricsProfile deviceProfile;
+    /**
+     * Device metrics profiles by bssid vendor prefix (null if not set)
+     */
+    private OuiProfileRegistry ouiRegistry;
+    /**
+     * Fingerprint index of radio map (null if not set)
+     */
+    private FingerprintIndex radioMap;
     /**
      * Error status flag
      */
@@ -75,7 +177,82 @@ public final class CmdLineProcessor {
         try {
             parser.parseArgument(args);
 
-            if (InetAddressValidator.getInstance().isValid(this.getBssid())) {
+            if (!this.isMultiBssid() && !this.isCalibrate() && Objects.isNull(this.getBssid())) {
+                throw new CmdLineException(parser, "Invalid argument: --bssid is required unless --multi-bssid mode is enabled.", null);
+            }
+            if (this.getThreads() < 1) {
+                throw new CmdLineException(parser, "Invalid argument: --threads must be a positive number.", null);
+            }
+            if (this.isMultiBssid() && this.isMappedInput()) {
+                throw new CmdLineException(parser, "Invalid argument: --mapped-input is not supported in --multi-bssid mode.", null);
+            }
+            if (this.isMappedInput() && CaptureFormat.CSV != this.getInputFormat()) {
+                throw new CmdLineException(parser, "Invalid argument: --mapped-input requires CSV --input-format.", null);
+            }
+            if (this.isFollowMode() && (this.isMappedInput() || CaptureFormat.CSV != this.getInputFormat())) {
+                throw new CmdLineException(parser, "Invalid argument: --follow requires CSV --input-format without --mapped-input.", null);
+            }
+            if (FileUtils.isStandardStream(this.getInputSource()) && (this.isFollowMode() || this.isMappedInput())) {
+                throw new CmdLineException(parser, "Invalid argument: standard input cannot be used with --follow or --mapped-input.", null);
+            }
+            if (this.getPollInterval() < 1 || this.getIdleTimeout() < 0) {
+                throw new CmdLineException(parser, "Invalid argument: --poll-interval must be positive and --idle-timeout must not be negative.", null);
+            }
+            if (this.isPipelineMode() && this.isFollowMode()) {
+                throw new CmdLineException(parser, "Invalid argument: --pipeline cannot be used with --follow.", null);
+            }
+            if (this.getQueueCapacity() < 1) {
+                throw new CmdLineException(parser, "Invalid argument: --queue-capacity must be a positive number.", null);
+            }
+            if (this.getOutputBufferSize() < 1 || this.getFlushInterval() < 0) {
+                throw new CmdLineException(parser, "Invalid argument: --output-buffer-size must be positive and --flush-interval must not be negative.", null);
+            }
+            if (this.getWindowSize() < 0 || this.getWindowDuration() < 0) {
+                throw new CmdLineException(parser, "Invalid argument: --window-size and --window-duration must not be negative.", null);
+            }
+            if (this.isWindowStatistics() && CaptureFormat.CSV != this.getOutputFormat()) {
+                throw new CmdLineException(parser, "Invalid argument: sliding window statistics require CSV --output-format.", null);
+            }
+            if (this.isCalibrate() && (this.isFollowMode() || this.isPipelineMode() || this.isMappedInput() || CaptureFormat.CSV != this.getInputFormat())) {
+                throw new CmdLineException(parser, "Invalid argument: --calibrate requires CSV --input-format without --follow, --pipeline or --mapped-input.", null);
+            }
+            if (Objects.isNull(this.getRadioMapSource()) != Objects.isNull(this.getLocationSource())) {
+                throw new CmdLineException(parser, "Invalid argument: --radio-map and --location-source must be set together.", null);
+            }
+            if (Objects.nonNull(this.getRadioMapSource()) && (!this.isMultiBssid() || this.getThreads() > 1 || this.isCalibrate())) {
+                throw new CmdLineException(parser, "Invalid argument: --radio-map requires --multi-bssid mode with a single thread.", null);
+            }
+            if (this.getLocationWindow() < 1) {
+                throw new CmdLineException(parser, "Invalid argument: --location-window must be a positive number.", null);
+            }
+            if (Objects.nonNull(this.getDevice()) && Objects.isNull(this.getProfileSource())) {
+                throw new CmdLineException(parser, "Invalid argument: --device requires --profile-source.", null);
+            }
+            if ((Objects.nonNull(this.getArCoefficients()) || Objects.nonNull(this.getMaCoefficients())) && FilterType.ARMA != this.getFilterType()) {
+                throw new CmdLineException(parser, "Invalid argument: --ar-coefficients and --ma-coefficients require ARMA --filter.", null);
+            }
+            if (Objects.nonNull(this.getArCoefficients()) && Objects.isNull(this.getMaCoefficients())) {
+                throw new CmdLineException(parser, "Invalid argument: --ar-coefficients requires --ma-coefficients.", null);
+            }
+            this.windowPercentileValues = this.parsePercentiles(parser, this.getWindowPercentiles());
+            this.arCoefficientValues = this.parseCoefficients(parser, "--ar-coefficients", this.getArCoefficients());
+            this.maCoefficientValues = this.parseCoefficients(parser, "--ma-coefficients", this.getMaCoefficients());
+            if (Objects.nonNull(this.maCoefficientValues)) {
+                if (0 == this.maCoefficientValues.length) {
+                    throw new CmdLineException(parser, "Invalid argument: --ma-coefficients must contain at least coefficient b[0].", null);
+                }
+                if (Objects.isNull(this.arCoefficientValues)) {
+                    this.arCoefficientValues = new double[0];
+                }
+            }
+            this.deviceRegistry = this.loadProfiles(parser, this.getProfileSource());
+            this.deviceProfile = this.deviceRegistry.getOrDefault(this.getDevice());
+            this.ouiRegistry = this.loadPrefixes(parser, this.getOuiSource());
+            this.radioMap = this.loadRadioMap(parser, this.getRadioMapSource());
+            if (Objects.nonNull(this.getDevice()) && !this.deviceRegistry.contains(this.getDevice())) {
+                LOGGER.warn(String.format("WARN: unknown device=(%s), default device metrics profile is used", this.getDevice()));
+            }
+            if (Objects.nonNull(this.getBssid()) && InetAddressValidator.getInstance().isValid(this.getBssid())) {
                 throw new CmdLineException(parser, "Invalid argument: --bssid is not a valid access point bssid.", null);
             }
 //            if (null == getOutputSource() || !getOutputSource().isFile()) {
@@ -87,4 +264,87 @@ public final class CmdLineProcessor {
             LOGGER.error(String.format("Example: java -jar %s %s", "wifilyzer.jar", parser.printExample(OptionHandlerFilter.ALL)));
         }
     }
+
+    /**
+     * Checks whether sliding window statistics are written or not
+     *
+     * @return true - if window size or duration is set, false - otherwise
+     */
+    public boolean isWindowStatistics() {
+        return this.getWindowSize() > 0 || this.getWindowDuration() > 0;
+    }
+
+    private DeviceMetricsRegistry loadProfiles(final CmdLineParser parser, final File profiles) throws CmdLineException {
+        if (Objects.isNull(profiles)) {
+            return new DeviceMetricsRegistry();
+        }
+        try {
+            return DeviceMetricsRegistry.load(profiles);
+        } catch (IOException ex) {
+            throw new CmdLineException(parser, String.format("Invalid argument: --profile-source cannot be read, message=(%s).", ex.getMessage()), ex);
+        }
+    }
+
+    private FingerprintIndex loadRadioMap(final CmdLineParser parser, final File radioMap) throws CmdLineException {
+        if (Objects.isNull(radioMap)) {
+            return null;
+        }
+        try {
+            return FingerprintIndex.load(radioMap);
+        } catch (IOException ex) {
+            throw new CmdLineException(parser, String.format("Invalid argument: --radio-map cannot be read, message=(%s).", ex.getMessage()), ex);
+        }
+    }
+
+    private OuiProfileRegistry loadPrefixes(final CmdLineParser parser, final File prefixes) throws CmdLineException {
+        if (Objects.isNull(prefixes)) {
+            return null;
+        }
+        try {
+            return OuiProfileRegistry.load(prefixes);
+        } catch (IOException ex) {
+            throw new CmdLineException(parser, String.format("Invalid argument: --oui-source cannot be read, message=(%s).", ex.getMessage()), ex);
+        }
+    }
+
+    private double[] parseCoefficients(final CmdLineParser parser, final String option, final String coefficients) throws CmdLineException {
+        if (Objects.isNull(coefficients)) {
+            return null;
+        }
+        if (StringUtils.isBlank(coefficients)) {
+            return new double[0];
+        }
+        final String[] tokens = coefficients.split(",");
+        final double[] values = new double[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            try {
+                values[i] = Double.parseDouble(tokens[i].trim());
+            } catch (NumberFormatException ex) {
+                values[i] = Double.NaN;
+            }
+            if (!Double.isFinite(values[i])) {
+                throw new CmdLineException(parser, String.format("Invalid argument: %s value=(%s) must be a finite number.", option, tokens[i].trim()), null);
+            }
+        }
+        return values;
+    }
+
+    private double[] parsePercentiles(final CmdLineParser parser, final String percentiles) throws CmdLineException {
+        if (StringUtils.isBlank(percentiles)) {
+            return new double[0];
+        }
+        final String[] tokens = percentiles.split(",");
+        final double[] values = new double[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            try {
+                values[i] = Double.parseDouble(tokens[i].trim());
+            } catch (NumberFormatException ex) {
+                values[i] = Double.NaN;
+            }
+            if (!(values[i] > 0 && values[i] <= 100)) {
+                throw new CmdLineException(parser, String.format("Invalid argument: --window-percentiles value=(%s) must be in range (0, 100].", tokens[i].trim()), null);
+            }
+        }
+        return values;
+    }
 }
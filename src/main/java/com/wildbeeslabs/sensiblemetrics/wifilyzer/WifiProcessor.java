@@ -24,7 +24,16 @@
 package com.wildbeeslabs.sensiblemetrics.wifilyzer;
 
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.BaseNetworkAnalyzer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.MultiNetworkAnalyzer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.ParallelNetworkAnalyzer;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.interfaces.IBaseNetworkAnalyzer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.calibration.CalibrationResult;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.calibration.DeviceCalibrator;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsRegistry;
+
+import java.io.IOException;
+import java.util.Map;
+
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -46,9 +55,47 @@ public class WifiProcessor {
     public void init(final String... args) {
         LOGGER.info("Initializing command line processor...");
         final CmdLineProcessor cmdProcessor = new CmdLineProcessor(args);
+        if (cmdProcessor.isErrorFlag()) {
+            return;
+        }
+        if (cmdProcessor.isCalibrate()) {
+            this.calibrate(cmdProcessor);
+            return;
+        }
         LOGGER.info("Initializing wifi analyzer...");
 
-        final IBaseNetworkAnalyzer analyzer = new BaseNetworkAnalyzer(cmdProcessor);
-        analyzer.process(-59);
+        final IBaseNetworkAnalyzer analyzer;
+        if (cmdProcessor.isMultiBssid()) {
+            analyzer = (cmdProcessor.getThreads() > 1) ? new ParallelNetworkAnalyzer(cmdProcessor) : new MultiNetworkAnalyzer(cmdProcessor);
+        } else {
+            analyzer = new BaseNetworkAnalyzer(cmdProcessor);
+        }
+        analyzer.process(cmdProcessor.getDeviceProfile().getTxPower());
+    }
+
+    /**
+     * Fits device metrics profiles of captured devices and writes them to
+     * output source (merged with loaded profiles)
+     *
+     * @param cmdProcessor - command line processor
+     */
+    protected void calibrate(final CmdLineProcessor cmdProcessor) {
+        LOGGER.info("Initializing device calibration...");
+        final DeviceMetricsRegistry registry = cmdProcessor.getDeviceRegistry();
+        try {
+            for (final Map.Entry<String, DeviceCalibrator> entry : DeviceCalibrator.load(cmdProcessor.getInputSource()).entrySet()) {
+                try {
+                    final CalibrationResult result = entry.getValue().calibrate();
+                    registry.put(entry.getKey(), result.getProfile());
+                    LOGGER.info(String.format("Calibrated device=(%s), profile=(%s), rmse=(%s), samples=(%d), iterations=(%d)",
+                            entry.getKey(), result.getProfile(), result.getRmse(), result.getSamples(), result.getIterations()));
+                } catch (IllegalStateException ex) {
+                    LOGGER.error(String.format("ERROR: cannot calibrate device=(%s), message=%s", entry.getKey(), ex.getMessage()));
+                }
+            }
+            registry.save(cmdProcessor.getOutputSource());
+        } catch (IOException ex) {
+            LOGGER.error(String.format("ERROR: cannot process calibration input file=%s, message=%s", String.valueOf(cmdProcessor.getInputSource()), ex.getMessage()));
+        }
     }
 }
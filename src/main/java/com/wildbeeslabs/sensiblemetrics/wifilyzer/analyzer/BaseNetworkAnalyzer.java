@@ -26,17 +26,46 @@ package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.interfaces.IBaseNetworkAnalyzer;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.KalmanFilter;
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.ArmaFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseDoubleFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.FingerprintMatcher;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsProfile;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.OuiProfileRegistry;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IDistanceModel;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.MappedRssiReader;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.RssiChunkParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.RssiTokenizer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IBaseTokenizer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IChunkParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.SampleBatch;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.SamplePipeline;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.interfaces.IPipelineStage;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.BinaryCaptureReader;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.BinaryCaptureWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CaptureFormat;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CsvRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileTailer;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.NumberUtils;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.LocationRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.RowWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.SummaryRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.WindowStatisticsRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
+import java.util.function.DoubleConsumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
 import lombok.Data;
@@ -68,6 +97,10 @@ public class BaseNetworkAnalyzer implements IBaseNetworkAnalyzer {
      * Default data delimiter
      */
     public static final String DEFAULT_TOKEN_DELIMITER = "[,./?;:!-\"\\s]+?";
+    /**
+     * Default stream buffer size
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
 
     private final CmdLineProcessor processor;
 
@@ -84,29 +117,447 @@ public class BaseNetworkAnalyzer implements IBaseNetworkAnalyzer {
     }
 
     @Override
-    public void process(int i) {
-        final KalmanFilter kalmanFilter = new KalmanFilter();
-        final List<String> input = FileUtils.readAllLines(this.processor.getInputSource());
-        final List<Double> list = getFilteredStream(input.stream(), this.getDefaultFilter(), DEFAULT_TOKEN_DELIMITER).mapToDouble(Double::parseDouble).boxed().collect(Collectors.toList());
-        //list.forEach(d -> System.out.println(d * -1 + "," + (int) kalmanFilter.applyFilter(d) * -1));
-
-        final NetworkEntity networkEntity = new NetworkEntity(this.processor.getBssid(), -59);
-        networkEntity.setDeviceMetrics(new EmbeddedAntennaMetrics());
-        networkEntity.setRssiFilter(new KalmanFilter());
-        final List<String> result = new ArrayList<>();
-        list.forEach(d -> {
-            networkEntity.setRssi(d);
-            result.add(d * -1 + "," + NumberUtils.format(kalmanFilter.applyFilter(d) * -1) + "," + (int) networkEntity.getDistance());
+    public void process(int txPower) {
+        if (this.processor.isFollowMode()) {
+            this.processFollow(txPower);
+            return;
+        }
+        if (this.processor.isPipelineMode()) {
+            this.processPipeline(txPower);
+            return;
+        }
+        if (this.isPipeInput()) {
+            this.processPipe(txPower);
+            return;
+        }
+        if (this.processor.isStreamMode()) {
+            this.processStream(txPower);
+            return;
+        }
+        final DoubleStream.Builder samples = DoubleStream.builder();
+        try {
+            this.readSamples(samples);
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot read from input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getMessage()));
+            return;
+        }
+
+        final NetworkEntity networkEntity = this.createNetworkEntity(txPower);
+        final double[] rssi = samples.build().toArray();
+        final double[] filteredRssi = networkEntity.getRssiFilter().applyAsDouble(rssi);
+
+        if (Objects.isNull(this.processor.getOutputSource())) {
+            return;
+        }
+        try (final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            for (int i = 0; i < rssi.length; i++) {
+                networkEntity.setFilteredRssi(filteredRssi[i]);
+                writer.write(networkEntity.getBssid(), rssi[i], filteredRssi[i], networkEntity.getDistance(), NetworkRecordParser.NO_TIMESTAMP);
+            }
+            if (writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(this.processor.getOutputSource())));
+            }
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot create output file=%s, message=%s", String.valueOf(this.processor.getOutputSource()), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Processes input source in a single pass: every value is parsed,
+     * filtered, converted to distance and written to the output source before
+     * the next one is read, so memory usage does not depend on the input size
+     *
+     * @param txPower - access point transmission power
+     */
+    protected void processStream(int txPower) {
+        if (Objects.isNull(this.processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in streaming mode");
+            return;
+        }
+        final NetworkEntity networkEntity = this.createNetworkEntity(txPower);
+        try (final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            final DoubleConsumer consumer = rssi -> {
+                networkEntity.setRssi(rssi);
+                writer.write(networkEntity.getBssid(), rssi, networkEntity.getRssi(), networkEntity.getDistance(), NetworkRecordParser.NO_TIMESTAMP);
+            };
+            this.readSamples(consumer);
+            if (writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(this.processor.getOutputSource())));
+            }
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Processes input source by a staged pipeline: input is parsed by the
+     * calling thread while filtering, distance calculation and output are run
+     * by pipeline stages in their own threads. Number of sample batches in
+     * flight is bounded by queue capacity, so a slow output source holds back
+     * parsing instead of queuing samples without limit.
+     *
+     * @param txPower - access point transmission power
+     */
+    protected void processPipeline(int txPower) {
+        if (Objects.isNull(this.processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in pipeline mode");
+            return;
+        }
+        try (final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            try (final SamplePipeline pipeline = this.createPipeline(txPower, writer)) {
+                this.readSamples(pipeline);
+            }
+            if (writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(this.processor.getOutputSource())));
+            }
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getMessage()));
+        } catch (UncheckedIOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getCause().getMessage()));
+        }
+    }
+
+    /**
+     * Processes input source as it grows: appended bytes are polled every
+     * poll interval and passed to the chunk parser, whose tokenizer and filter
+     * state is kept between polls. Output is flushed whenever no new input is
+     * available. Processing stops when the thread is interrupted or no input
+     * arrives within idle timeout (if set).
+     *
+     * @param txPower - access point transmission power
+     */
+    protected void processFollow(int txPower) {
+        if (Objects.isNull(this.processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in follow mode");
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        try (final FileTailer tailer = new FileTailer(this.processor.getInputSource());
+                final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            final IChunkParser parser = this.createChunkParser(txPower, writer);
+            long lastInputTime = System.currentTimeMillis();
+            while (!Thread.currentThread().isInterrupted()) {
+                if (tailer.read(buffer) > 0) {
+                    buffer.flip();
+                    parser.parse(buffer);
+                    buffer.clear();
+                    lastInputTime = System.currentTimeMillis();
+                    continue;
+                }
+                if (tailer.checkRestarted()) {
+                    getLogger().warn(String.format("WARN: input file=%s is truncated or replaced, reading from the beginning", String.valueOf(this.processor.getInputSource())));
+                    parser.reset();
+                    continue;
+                }
+                if (writer.checkError()) {
+                    getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(this.processor.getOutputSource())));
+                    return;
+                }
+                if (this.processor.getIdleTimeout() > 0 && System.currentTimeMillis() - lastInputTime >= this.processor.getIdleTimeout()) {
+                    break;
+                }
+                try {
+                    Thread.sleep(this.processor.getPollInterval());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            parser.flush();
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Processes CSV input of standard input stream as it arrives: every read
+     * chunk (at most DEFAULT_BUFFER_SIZE bytes) is parsed right away and
+     * output is flushed after it, so samples pass the pipe without waiting
+     * for a full buffer. Reading stops as soon as output fails (e.g. the
+     * reading end of the output pipe is closed).
+     *
+     * @param txPower - access point transmission power
+     */
+    protected void processPipe(int txPower) {
+        if (Objects.isNull(this.processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in pipe mode");
+            return;
+        }
+        final byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        try (final InputStream input = FileUtils.newInputStream(this.processor.getInputSource());
+                final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            final IChunkParser parser = this.createChunkParser(txPower, writer);
+            int length;
+            boolean error = false;
+            while (!error && (length = input.read(buffer)) != -1) {
+                parser.parse(ByteBuffer.wrap(buffer, 0, length));
+                error = writer.checkError();
+            }
+            if (!error) {
+                parser.flush();
+            }
+            if (error || writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(this.processor.getOutputSource())));
+            }
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(this.processor.getInputSource()), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Checks whether CSV input is read from standard input stream or not
+     *
+     * @return true - if input is processed in pipe mode, false - otherwise
+     */
+    protected boolean isPipeInput() {
+        return FileUtils.isStandardStream(this.processor.getInputSource()) && CaptureFormat.CSV == this.processor.getInputFormat();
+    }
+
+    /**
+     * Creates chunk parser to process input of follow or pipe mode
+     *
+     * @param txPower - access point transmission power
+     * @param writer - output record writer
+     * @return chunk parser
+     */
+    protected IChunkParser createChunkParser(int txPower, final IRecordWriter writer) {
+        final NetworkEntity networkEntity = this.createNetworkEntity(txPower);
+        return new RssiChunkParser(this.getDefaultTokenizer(), rssi -> {
+            networkEntity.setRssi(rssi);
+            writer.write(networkEntity.getBssid(), rssi, networkEntity.getRssi(), networkEntity.getDistance(), NetworkRecordParser.NO_TIMESTAMP);
         });
-        if (Objects.nonNull(this.processor.getOutputSource())) {
-            FileUtils.writeFile(this.processor.getOutputSource(), result);
+    }
+
+    /**
+     * Reads rssi values of input source (binary capture samples of all access
+     * points are read)
+     *
+     * @param consumer - consumer of rssi values
+     * @throws IOException - if input source cannot be read
+     */
+    protected void readSamples(final DoubleConsumer consumer) throws IOException {
+        if (CaptureFormat.BINARY == this.processor.getInputFormat()) {
+            try (final BinaryCaptureReader reader = this.createCaptureReader()) {
+                while (reader.next()) {
+                    consumer.accept(reader.getRssi());
+                }
+            }
+            return;
+        }
+        if (this.processor.isMappedInput()) {
+            this.createMappedReader().read(this.processor.getInputSource(), consumer);
+            return;
+        }
+        final IBaseTokenizer tokenizer = this.getDefaultTokenizer();
+        final char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+        try (final BufferedReader reader = FileUtils.newBufferedReader(this.processor.getInputSource())) {
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                tokenizer.tokenize(buffer, 0, length, consumer);
+            }
+            tokenizer.flush(consumer);
         }
     }
 
+    /**
+     * Creates binary capture reader of input source. Transmission power of
+     * the capture header is not applied (device metrics profile txPower is
+     * used), a warning is logged if they differ.
+     *
+     * @return binary capture reader
+     * @throws IOException - if input source cannot be read or is not a valid
+     * capture
+     */
+    protected BinaryCaptureReader createCaptureReader() throws IOException {
+        final BinaryCaptureReader reader = new BinaryCaptureReader(FileUtils.newInputStream(this.processor.getInputSource()));
+        final int txPower = this.processor.getDeviceProfile().getTxPower();
+        if (reader.getTxPower() != txPower) {
+            getLogger().warn(String.format("WARN: capture txPower=(%d) differs from device metrics profile txPower=(%d), profile txPower is used", reader.getTxPower(), txPower));
+        }
+        return reader;
+    }
+
+    /**
+     * Reads samples of input source into the pipeline
+     *
+     * @param pipeline - sample pipeline
+     * @throws IOException - if input source cannot be read
+     */
+    protected void readSamples(final SamplePipeline pipeline) throws IOException {
+        final String bssid = this.processor.getBssid();
+        this.readSamples(rssi -> offer(pipeline, bssid, rssi, NetworkRecordParser.NO_TIMESTAMP));
+    }
+
+    /**
+     * Creates sample pipeline of filter, distance and output stages
+     *
+     * @param txPower - access point transmission power
+     * @param writer - output record writer
+     * @return sample pipeline
+     */
+    protected SamplePipeline createPipeline(int txPower, final IRecordWriter writer) {
+        final NetworkEntity networkEntity = this.createNetworkEntity(txPower);
+        final IBaseDoubleFilter rssiFilter = networkEntity.getRssiFilter();
+        return new SamplePipeline(SamplePipeline.DEFAULT_BATCH_SIZE, this.processor.getQueueCapacity(),
+                batch -> rssiFilter.applyAsDouble(batch.getRssi(), 0, batch.getFilteredRssi(), 0, batch.size()),
+                this.createDistanceStage(networkEntity.getDistanceModel()),
+                this.createOutputStage(writer));
+    }
+
+    protected IPipelineStage createDistanceStage(final IDistanceModel distanceModel) {
+        return batch -> {
+            final double[] filteredRssi = batch.getFilteredRssi();
+            final double[] distance = batch.getDistance();
+            for (int i = 0; i < batch.size(); i++) {
+                distance[i] = distanceModel.calculateDistance(filteredRssi[i]);
+            }
+        };
+    }
+
+    protected IPipelineStage createOutputStage(final IRecordWriter writer) {
+        return new IPipelineStage() {
+            @Override
+            public void process(final SampleBatch batch) {
+                final String[] bssid = batch.getBssid();
+                final double[] rssi = batch.getRssi();
+                final double[] filteredRssi = batch.getFilteredRssi();
+                final double[] distance = batch.getDistance();
+                final long[] timestamp = batch.getTimestamp();
+                for (int i = 0; i < batch.size(); i++) {
+                    writer.write(bssid[i], rssi[i], filteredRssi[i], distance[i], timestamp[i]);
+                }
+            }
+
+            @Override
+            public void flush() {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Offers sample to the pipeline from a consumer of input samples
+     *
+     * @param pipeline - sample pipeline
+     * @param bssid - access point bssid
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     * @throws UncheckedIOException - if pipeline has failed
+     */
+    protected static void offer(final SamplePipeline pipeline, final String bssid, double rssi, long timestamp) {
+        try {
+            pipeline.offer(bssid, rssi, timestamp);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Creates record writer of output source, position fixes of written
+     * records are written if radio map is set, quantile summary of written
+     * records is collected if summary source is set
+     *
+     * @param txPower - access point transmission power
+     * @return record writer
+     * @throws IOException - if output source cannot be created
+     */
+    protected IRecordWriter createRecordWriter(int txPower) throws IOException {
+        IRecordWriter writer = this.createOutputWriter(txPower);
+        if (Objects.nonNull(this.processor.getRadioMap())) {
+            final Writer locationWriter;
+            try {
+                locationWriter = FileUtils.newBufferedWriter(this.processor.getLocationSource());
+            } catch (IOException ex) {
+                writer.close();
+                throw ex;
+            }
+            writer = new LocationRecordWriter(writer, new FingerprintMatcher(this.processor.getRadioMap()), new RowWriter(locationWriter), this.processor.getLocationWindow());
+        }
+        if (Objects.nonNull(this.processor.getSummarySource())) {
+            return new SummaryRecordWriter(writer, this.processor.getSummarySource());
+        }
+        return writer;
+    }
+
+    /**
+     * Creates record writer of output source by output format (bssid column
+     * of CSV output is written in multi bssid mode, sliding window statistics
+     * columns if window is set), written on a background thread in
+     * asynchronous output mode
+     *
+     * @param txPower - access point transmission power
+     * @return record writer
+     * @throws IOException - if output source cannot be created
+     */
+    protected IRecordWriter createOutputWriter(int txPower) throws IOException {
+        final File outputSource = this.processor.getOutputSource();
+        if (CaptureFormat.BINARY == this.processor.getOutputFormat()) {
+            final OutputStream output = this.processor.isAsyncOutput()
+                    ? FileUtils.newAsyncOutputStream(outputSource, this.processor.getOutputBufferSize(), this.processor.getFlushInterval())
+                    : FileUtils.newOutputStream(outputSource);
+            return new BinaryCaptureWriter(output, txPower, true);
+        }
+        final Writer writer = this.processor.isAsyncOutput()
+                ? FileUtils.newAsyncWriter(outputSource, this.processor.getOutputBufferSize(), this.processor.getFlushInterval())
+                : FileUtils.newBufferedWriter(outputSource);
+        if (this.processor.isWindowStatistics()) {
+            return new WindowStatisticsRecordWriter(new RowWriter(writer), this.processor.isMultiBssid(), this.processor.getWindowSize(), this.processor.getWindowDuration(), this.processor.getWindowPercentileValues());
+        }
+        return new CsvRecordWriter(new RowWriter(writer), this.processor.isMultiBssid());
+    }
+
+    protected MappedRssiReader createMappedReader() {
+        return new MappedRssiReader(this::getDefaultTokenizer, this.processor.getThreads());
+    }
+
+    protected NetworkEntity createNetworkEntity(int txPower) {
+        return this.createNetworkEntity(this.processor.getBssid(), txPower);
+    }
+
+    /**
+     * Creates network entity of access point with device metrics profile of
+     * its vendor prefix (if any) or the device profile and given txPower
+     *
+     * @param bssid - access point bssid
+     * @param txPower - access point transmission power
+     * @return network entity
+     */
+    protected NetworkEntity createNetworkEntity(final String bssid, int txPower) {
+        final DeviceMetricsProfile profile = this.getVendorProfile(bssid);
+        final int power = Objects.isNull(profile) ? txPower : profile.getTxPower();
+        final NetworkEntity networkEntity = new NetworkEntity(bssid, power);
+        networkEntity.setDeviceMetrics(Objects.isNull(profile) ? this.processor.getDeviceProfile() : profile);
+        networkEntity.setDistanceModel(this.processor.getDistanceModelType().newInstance(networkEntity.getDeviceMetrics(), power));
+        networkEntity.setRssiFilter(this.createFilter());
+        return networkEntity;
+    }
+
+    /**
+     * Returns device metrics profile of bssid vendor prefix or null if vendor
+     * prefixes are not set or none matches
+     *
+     * @param bssid - access point bssid
+     * @return device metrics profile
+     */
+    protected DeviceMetricsProfile getVendorProfile(final String bssid) {
+        final OuiProfileRegistry ouiRegistry = this.processor.getOuiRegistry();
+        return Objects.isNull(ouiRegistry) || Objects.isNull(bssid) ? null : ouiRegistry.get(bssid);
+    }
+
+    protected IBaseDoubleFilter createFilter() {
+        if (Objects.nonNull(this.processor.getMaCoefficientValues())) {
+            return ArmaFilter.getInstance(this.processor.getArCoefficientValues(), this.processor.getMaCoefficientValues());
+        }
+        return this.processor.getFilterType().newInstance();
+    }
+
     protected Logger getLogger() {
         return this.LOGGER;
     }
 
+    protected IBaseTokenizer getDefaultTokenizer() {
+        return new RssiTokenizer();
+    }
+
     protected Function<CharSequence, CharSequence> getDefaultFilter() {
         return ((word) -> String.valueOf(word).toLowerCase().trim());
     }
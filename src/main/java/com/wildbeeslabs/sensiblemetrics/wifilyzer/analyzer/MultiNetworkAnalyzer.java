@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordChunkParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IChunkParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.INetworkRecordConsumer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.SamplePipeline;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.interfaces.IPipelineStage;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.BinaryCaptureReader;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CaptureFormat;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Multi network analyzer class to process interleaved samples of several
+ * access points in a single pass. Input rows are of the form
+ * <pre>
+ * bssid,rssi[,timestamp]
+ * </pre>
+ * and every access point keeps its own network entity and rssi filter.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class MultiNetworkAnalyzer extends BaseNetworkAnalyzer {
+
+    public MultiNetworkAnalyzer(final CmdLineProcessor processor) {
+        super(processor);
+    }
+
+    @Override
+    public void process(int txPower) {
+        final CmdLineProcessor processor = this.getProcessor();
+        if (Objects.isNull(processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in multi bssid mode");
+            return;
+        }
+        if (processor.isFollowMode()) {
+            this.processFollow(txPower);
+            return;
+        }
+        if (processor.isPipelineMode()) {
+            this.processPipeline(txPower);
+            return;
+        }
+        if (this.isPipeInput()) {
+            this.processPipe(txPower);
+            return;
+        }
+        final NetworkRegistry registry = this.createNetworkRegistry(txPower);
+        try (final IRecordWriter writer = this.createRecordWriter(txPower)) {
+            final INetworkRecordConsumer consumer = (bssid, rssi, timestamp) -> {
+                final NetworkEntity networkEntity = registry.getNetwork(bssid);
+                networkEntity.setRssi(rssi);
+                writer.write(bssid, rssi, networkEntity.getRssi(), networkEntity.getDistance(), timestamp);
+            };
+            this.readRecords(consumer);
+            if (writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(processor.getOutputSource())));
+            }
+        } catch (IOException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(processor.getInputSource()), ex.getMessage()));
+        }
+        getLogger().info(String.format("Processed access points=(%d)", registry.size()));
+    }
+
+    @Override
+    protected IChunkParser createChunkParser(int txPower, final IRecordWriter writer) {
+        final NetworkRegistry registry = this.createNetworkRegistry(txPower);
+        return new NetworkRecordChunkParser(new NetworkRecordParser(this.getDefaultTokenizer()), (bssid, rssi, timestamp) -> {
+            final NetworkEntity networkEntity = registry.getNetwork(bssid);
+            networkEntity.setRssi(rssi);
+            writer.write(bssid, rssi, networkEntity.getRssi(), networkEntity.getDistance(), timestamp);
+        });
+    }
+
+    @Override
+    protected void readSamples(final SamplePipeline pipeline) throws IOException {
+        this.readRecords((bssid, rssi, timestamp) -> offer(pipeline, bssid, rssi, timestamp));
+    }
+
+    /**
+     * Creates sample pipeline whose filter stage keeps rssi filter per access
+     * point (distance model is the same for all access points unless device
+     * metrics profiles by vendor prefix are set)
+     *
+     * @param txPower - access point transmission power
+     * @param writer - output record writer
+     * @return sample pipeline
+     */
+    @Override
+    protected SamplePipeline createPipeline(int txPower, final IRecordWriter writer) {
+        final NetworkRegistry registry = this.createNetworkRegistry(txPower);
+        final IPipelineStage filterStage = batch -> {
+            final String[] bssid = batch.getBssid();
+            final double[] rssi = batch.getRssi();
+            final double[] filteredRssi = batch.getFilteredRssi();
+            for (int i = 0; i < batch.size(); i++) {
+                filteredRssi[i] = registry.getNetwork(bssid[i]).applyFilter(rssi[i]);
+            }
+        };
+        final IPipelineStage distanceStage;
+        if (Objects.isNull(this.getProcessor().getOuiRegistry())) {
+            distanceStage = this.createDistanceStage(this.createNetworkEntity(txPower).getDistanceModel());
+        } else {
+            distanceStage = batch -> {
+                final String[] bssid = batch.getBssid();
+                final double[] filteredRssi = batch.getFilteredRssi();
+                final double[] distance = batch.getDistance();
+                for (int i = 0; i < batch.size(); i++) {
+                    distance[i] = registry.getNetwork(bssid[i]).getDistanceModel().calculateDistance(filteredRssi[i]);
+                }
+            };
+        }
+        return new SamplePipeline(SamplePipeline.DEFAULT_BATCH_SIZE, this.getProcessor().getQueueCapacity(),
+                filterStage,
+                distanceStage,
+                this.createOutputStage(writer));
+    }
+
+    protected NetworkRegistry createNetworkRegistry(int txPower) {
+        return new NetworkRegistry(bssid -> this.createNetworkEntity(bssid, txPower));
+    }
+
+    /**
+     * Reads samples of input source (invalid CSV rows are skipped)
+     *
+     * @param consumer - consumer of samples
+     * @throws IOException - if input source cannot be read
+     */
+    protected void readRecords(final INetworkRecordConsumer consumer) throws IOException {
+        final CmdLineProcessor processor = this.getProcessor();
+        if (CaptureFormat.BINARY == processor.getInputFormat()) {
+            try (final BinaryCaptureReader reader = this.createCaptureReader()) {
+                while (reader.next()) {
+                    consumer.accept(reader.getBssid(), reader.getRssi(), reader.getTimestamp());
+                }
+            }
+            return;
+        }
+        final NetworkRecordParser parser = new NetworkRecordParser(this.getDefaultTokenizer());
+        try (final BufferedReader reader = FileUtils.newBufferedReader(processor.getInputSource())) {
+            long lineNumber = 0;
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lineNumber++;
+                try {
+                    parser.parse(line, consumer);
+                } catch (NumberFormatException ex) {
+                    getLogger().warn(String.format("WARN: skipping invalid row=(%d), message=%s", lineNumber, ex.getMessage()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Network channel class to process measurements of a single access point:
+ * every update runs the rssi filter and distance model of the underlying
+ * network entity and returns the result synchronously, without allocation.
+ *
+ * Channel is not thread-safe, measurements of the same access point must be
+ * supplied by one thread at a time.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class NetworkChannel {
+
+    private final NetworkEntity network;
+    private double rssi = Double.NaN;
+    private long timestamp = NetworkRecordParser.NO_TIMESTAMP;
+    private long count;
+
+    public NetworkChannel(final NetworkEntity network) {
+        this.network = Objects.requireNonNull(network);
+    }
+
+    /**
+     * Processes measurement and returns filtered rssi, distance is available
+     * by {@link #getDistance()} until the next update
+     *
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     * @return filtered rssi
+     */
+    public double update(double rssi, long timestamp) {
+        this.network.setRssi(rssi);
+        this.rssi = rssi;
+        this.timestamp = timestamp;
+        this.count++;
+        return this.network.getRssi();
+    }
+
+    /**
+     * Processes measurement and stores the result into the given sample
+     *
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     * @param result - sample to store the result into
+     * @return result sample
+     */
+    public NetworkSample update(double rssi, long timestamp, final NetworkSample result) {
+        final double filteredRssi = this.update(rssi, timestamp);
+        return result.set(this.network.getBssid(), rssi, filteredRssi, this.network.getDistance(), timestamp);
+    }
+
+    public String getBssid() {
+        return this.network.getBssid();
+    }
+
+    public double getFilteredRssi() {
+        return (0 == this.count) ? Double.NaN : this.network.getRssi();
+    }
+
+    public double getDistance() {
+        return (0 == this.count) ? Double.NaN : this.network.getDistance();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Network registry class to keep per access point state (network entity with
+ * its own rssi filter) keyed by bssid
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public class NetworkRegistry {
+
+    private final Map<String, NetworkEntity> networks = new ConcurrentHashMap<>();
+    private final Function<String, NetworkEntity> networkFactory;
+
+    public NetworkRegistry(final Function<String, NetworkEntity> networkFactory) {
+        this.networkFactory = Objects.requireNonNull(networkFactory);
+    }
+
+    /**
+     * Returns network entity by bssid (creates new one on first access)
+     *
+     * @param bssid - access point bssid
+     * @return network entity
+     */
+    public NetworkEntity getNetwork(final String bssid) {
+        final NetworkEntity network = this.networks.get(bssid);
+        if (Objects.nonNull(network)) {
+            return network;
+        }
+        return this.networks.computeIfAbsent(bssid, this.networkFactory);
+    }
+
+    public boolean contains(final String bssid) {
+        return this.networks.containsKey(bssid);
+    }
+
+    public Collection<NetworkEntity> getNetworks() {
+        return Collections.unmodifiableCollection(this.networks.values());
+    }
+
+    public int size() {
+        return this.networks.size();
+    }
+
+    public void clear() {
+        this.networks.clear();
+    }
+}
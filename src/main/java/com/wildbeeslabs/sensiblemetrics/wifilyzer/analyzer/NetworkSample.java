@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Network sample class to hold the result of a single processed measurement
+ * (raw rssi, filtered rssi and distance). Instances are mutable and meant to
+ * be reused by the caller between measurements.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public class NetworkSample {
+
+    private String bssid;
+    private double rssi = Double.NaN;
+    private double filteredRssi = Double.NaN;
+    private double distance = Double.NaN;
+    private long timestamp = NetworkRecordParser.NO_TIMESTAMP;
+
+    /**
+     * Updates sample fields in place
+     *
+     * @param bssid - access point bssid
+     * @param rssi - measured rssi
+     * @param filteredRssi - filtered rssi
+     * @param distance - estimated distance
+     * @param timestamp - measurement timestamp
+     * @return this sample
+     */
+    public NetworkSample set(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        this.bssid = bssid;
+        this.rssi = rssi;
+        this.filteredRssi = filteredRssi;
+        this.distance = distance;
+        this.timestamp = timestamp;
+        return this;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.FilterType;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DistanceModelType;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IBaseDeviceMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Network tracker class to process (bssid, rssi, timestamp) measurements in
+ * process: each measurement is filtered and converted to distance
+ * synchronously by the network channel of its access point, without file
+ * I/O and without allocation once the channel exists.
+ *
+ * Channels are created on first access and may be looked up once and kept by
+ * the caller to skip the lookup per measurement. Different access points may
+ * be updated concurrently, the same access point by one thread at a time.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public class NetworkTracker {
+
+    private final Map<String, NetworkChannel> channels = new ConcurrentHashMap<>();
+    private final Function<String, NetworkChannel> channelFactory;
+
+    public NetworkTracker(int txPower) {
+        this(FilterType.KALMAN, DistanceModelType.EXACT, new EmbeddedAntennaMetrics(), txPower);
+    }
+
+    public NetworkTracker(final FilterType filterType, final DistanceModelType distanceModelType, final IBaseDeviceMetrics deviceMetrics, int txPower) {
+        this(bssid -> createNetworkEntity(bssid, filterType, distanceModelType, deviceMetrics, txPower));
+        Objects.requireNonNull(filterType);
+        Objects.requireNonNull(distanceModelType);
+        Objects.requireNonNull(deviceMetrics);
+    }
+
+    public NetworkTracker(final Function<String, NetworkEntity> networkFactory) {
+        Objects.requireNonNull(networkFactory);
+        this.channelFactory = bssid -> new NetworkChannel(networkFactory.apply(bssid));
+    }
+
+    /**
+     * Returns network channel by bssid (creates new one on first access)
+     *
+     * @param bssid - access point bssid
+     * @return network channel
+     */
+    public NetworkChannel getChannel(final String bssid) {
+        final NetworkChannel channel = this.channels.get(bssid);
+        if (Objects.nonNull(channel)) {
+            return channel;
+        }
+        return this.channels.computeIfAbsent(bssid, this.channelFactory);
+    }
+
+    /**
+     * Processes measurement and stores the result into the given sample
+     *
+     * @param bssid - access point bssid
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     * @param result - sample to store the result into
+     * @return result sample
+     */
+    public NetworkSample update(final String bssid, double rssi, long timestamp, final NetworkSample result) {
+        return this.getChannel(bssid).update(rssi, timestamp, result);
+    }
+
+    public boolean contains(final String bssid) {
+        return this.channels.containsKey(bssid);
+    }
+
+    public Collection<NetworkChannel> getChannels() {
+        return Collections.unmodifiableCollection(this.channels.values());
+    }
+
+    public NetworkChannel remove(final String bssid) {
+        return this.channels.remove(bssid);
+    }
+
+    public int size() {
+        return this.channels.size();
+    }
+
+    public void clear() {
+        this.channels.clear();
+    }
+
+    private static NetworkEntity createNetworkEntity(final String bssid, final FilterType filterType, final DistanceModelType distanceModelType, final IBaseDeviceMetrics deviceMetrics, int txPower) {
+        final NetworkEntity networkEntity = new NetworkEntity(bssid, txPower);
+        networkEntity.setDeviceMetrics(deviceMetrics);
+        networkEntity.setDistanceModel(distanceModelType.newInstance(deviceMetrics, txPower));
+        networkEntity.setRssiFilter(filterType.newInstance());
+        return networkEntity;
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.INetworkRecordConsumer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics.QuantileSummary;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CaptureFormat;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CsvRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.RowWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.SummaryRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Parallel network analyzer class to process interleaved samples of several
+ * access points on a fork-join pool.
+ *
+ * Input is read in chunks of rows, every row is assigned to a shard by bssid
+ * hash and shards of a chunk are processed concurrently. Network entities
+ * (and their stateful filters) of a bssid are only touched by its own shard,
+ * so no filter state is shared between workers. Chunks are processed one
+ * after another and results are written in input order, so output is the
+ * same as in sequential multi bssid mode.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ParallelNetworkAnalyzer extends MultiNetworkAnalyzer {
+
+    /**
+     * Default number of rows per chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    /**
+     * Default number of shards per worker thread (evens out skewed bssid
+     * distributions)
+     */
+    public static final int DEFAULT_SHARDS_PER_THREAD = 4;
+
+    public ParallelNetworkAnalyzer(final CmdLineProcessor processor) {
+        super(processor);
+    }
+
+    @Override
+    public void process(int txPower) {
+        final CmdLineProcessor processor = this.getProcessor();
+        if (Objects.isNull(processor.getOutputSource())) {
+            getLogger().error("ERROR: output source must be set in multi bssid mode");
+            return;
+        }
+        if (CaptureFormat.BINARY == processor.getInputFormat() || processor.isFollowMode() || processor.isPipelineMode() || this.isPipeInput()) {
+            getLogger().info("Binary input, follow mode, pipeline mode or pipe input is processed sequentially");
+            super.process(txPower);
+            return;
+        }
+        final int parallelism = processor.getThreads();
+        final NetworkRegistry registry = this.createNetworkRegistry(txPower);
+        final String[] lines = new String[DEFAULT_CHUNK_SIZE];
+        final int[] lineShards = new int[DEFAULT_CHUNK_SIZE];
+        final int[] rowStarts = new int[DEFAULT_CHUNK_SIZE];
+        final int[] rowEnds = new int[DEFAULT_CHUNK_SIZE];
+        final NetworkShard[] shards = new NetworkShard[parallelism * DEFAULT_SHARDS_PER_THREAD];
+        final List<Callable<Void>> tasks = new ArrayList<>(shards.length);
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (final BufferedReader reader = FileUtils.newBufferedReader(processor.getInputSource());
+                final IRecordWriter target = this.createRecordWriter(txPower)) {
+            final QuantileSummary summary = (target instanceof SummaryRecordWriter) ? ((SummaryRecordWriter) target).getSummary() : null;
+            final IRecordWriter writer = Objects.nonNull(summary) ? ((SummaryRecordWriter) target).getWriter() : target;
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new NetworkShard(registry, lines, rowStarts, rowEnds, createShardBuffer(writer), Objects.nonNull(summary) ? summary.createEmpty() : null);
+            }
+            long lineNumber = 0;
+            int count;
+            while ((count = readChunk(reader, lines)) > 0) {
+                for (final NetworkShard shard : shards) {
+                    shard.reset(lineNumber);
+                }
+                for (int i = 0; i < count; i++) {
+                    lineShards[i] = getShardIndex(lines[i], shards.length);
+                    shards[lineShards[i]].add(i);
+                }
+                tasks.clear();
+                for (final NetworkShard shard : shards) {
+                    if (!shard.isEmpty()) {
+                        tasks.add(shard);
+                    }
+                }
+                for (final Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+                for (int i = 0; i < count; i++) {
+                    shards[lineShards[i]].writeTo(writer, i);
+                    lines[i] = null;
+                }
+                lineNumber += count;
+            }
+            if (Objects.nonNull(summary)) {
+                for (final NetworkShard shard : shards) {
+                    summary.merge(shard.summary);
+                }
+            }
+            if (writer.checkError()) {
+                getLogger().error(String.format("ERROR: cannot write to output file=%s", String.valueOf(processor.getOutputSource())));
+            }
+        } catch (IOException | ExecutionException ex) {
+            getLogger().error(String.format("ERROR: cannot process input file=%s, message=%s", String.valueOf(processor.getInputSource()), ex.getMessage()));
+        } catch (InterruptedException ex) {
+            getLogger().error(String.format("ERROR: processing of input file=%s is interrupted", String.valueOf(processor.getInputSource())));
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+        }
+        getLogger().info(String.format("Processed access points=(%d), threads=(%d)", registry.size(), parallelism));
+    }
+
+    /**
+     * Creates shard output buffer for the target writer (CSV rows are
+     * formatted by shards, other output formats are buffered as records)
+     *
+     * @param writer - target record writer
+     * @return shard output buffer
+     */
+    private static IShardBuffer createShardBuffer(final IRecordWriter writer) {
+        if (writer instanceof CsvRecordWriter) {
+            return new TextShardBuffer((CsvRecordWriter) writer);
+        }
+        return new RecordShardBuffer();
+    }
+
+    private static int readChunk(final BufferedReader reader, final String[] lines) throws IOException {
+        int count = 0;
+        String line;
+        while (count < lines.length && Objects.nonNull(line = reader.readLine())) {
+            lines[count++] = line;
+        }
+        return count;
+    }
+
+    /**
+     * Returns shard index by bssid field of input row (hash is calculated over
+     * the same trimmed characters that NetworkRecordParser returns as bssid)
+     *
+     * @param line - input row
+     * @param shardCount - number of shards
+     * @return shard index
+     */
+    protected static int getShardIndex(final String line, int shardCount) {
+        int hash = 0;
+        int trimmedHash = 0;
+        boolean isStarted = false;
+        for (int i = 0, length = line.length(); i < length; i++) {
+            final char ch = line.charAt(i);
+            if (NetworkRecordParser.DEFAULT_FIELD_DELIMITER == ch) {
+                break;
+            }
+            if (Character.isWhitespace(ch)) {
+                if (!isStarted) {
+                    continue;
+                }
+            } else {
+                isStarted = true;
+            }
+            hash = 31 * hash + ch;
+            if (!Character.isWhitespace(ch)) {
+                trimmedHash = hash;
+            }
+        }
+        trimmedHash ^= (trimmedHash >>> 16);
+        return (trimmedHash & Integer.MAX_VALUE) % shardCount;
+    }
+
+    /**
+     * Network shard class to process rows of its own access points (output
+     * rows are kept in shard buffer, buffer offsets are indexed by input row)
+     */
+    private final class NetworkShard implements Callable<Void>, INetworkRecordConsumer {
+
+        private final NetworkRegistry registry;
+        private final NetworkRecordParser parser;
+        private final String[] lines;
+        private final int[] rowStarts;
+        private final int[] rowEnds;
+        private final IShardBuffer rows;
+        private final QuantileSummary summary;
+        private int[] indexes = new int[64];
+        private int count;
+        private int currentIndex;
+        private long firstLineNumber;
+
+        NetworkShard(final NetworkRegistry registry, final String[] lines, final int[] rowStarts, final int[] rowEnds, final IShardBuffer rows, final QuantileSummary summary) {
+            this.registry = registry;
+            this.parser = new NetworkRecordParser(getDefaultTokenizer());
+            this.lines = lines;
+            this.rowStarts = rowStarts;
+            this.rowEnds = rowEnds;
+            this.rows = rows;
+            this.summary = summary;
+        }
+
+        void reset(long firstLineNumber) {
+            this.count = 0;
+            this.rows.reset();
+            this.firstLineNumber = firstLineNumber;
+        }
+
+        void add(int index) {
+            if (this.count == this.indexes.length) {
+                this.indexes = Arrays.copyOf(this.indexes, this.count << 1);
+            }
+            this.indexes[this.count++] = index;
+        }
+
+        boolean isEmpty() {
+            return 0 == this.count;
+        }
+
+        @Override
+        public Void call() {
+            for (int i = 0; i < this.count; i++) {
+                this.currentIndex = this.indexes[i];
+                this.rowStarts[this.currentIndex] = this.rows.length();
+                try {
+                    this.parser.parse(this.lines[this.currentIndex], this);
+                } catch (NumberFormatException ex) {
+                    getLogger().warn(String.format("WARN: skipping invalid row=(%d), message=%s", this.firstLineNumber + this.currentIndex + 1, ex.getMessage()));
+                }
+                this.rowEnds[this.currentIndex] = this.rows.length();
+            }
+            return null;
+        }
+
+        void writeTo(final IRecordWriter writer, int index) {
+            this.rows.writeTo(writer, this.rowStarts[index], this.rowEnds[index]);
+        }
+
+        @Override
+        public void accept(final String bssid, double rssi, long timestamp) {
+            final NetworkEntity networkEntity = this.registry.getNetwork(bssid);
+            networkEntity.setRssi(rssi);
+            this.rows.write(bssid, rssi, networkEntity.getRssi(), networkEntity.getDistance(), timestamp);
+            if (Objects.nonNull(this.summary)) {
+                this.summary.add(bssid, networkEntity.getRssi(), networkEntity.getDistance());
+            }
+        }
+    }
+
+    /**
+     * Shard buffer interface declaration to keep output of a chunk until it is
+     * written in input order
+     */
+    private interface IShardBuffer {
+
+        void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp);
+
+        int length();
+
+        void writeTo(final IRecordWriter writer, int from, int to);
+
+        void reset();
+    }
+
+    /**
+     * Shard buffer class to keep formatted CSV rows
+     */
+    private static final class TextShardBuffer implements IShardBuffer {
+
+        private final RowWriter rows = new RowWriter();
+        private final CsvRecordWriter writer;
+
+        TextShardBuffer(final CsvRecordWriter target) {
+            this.writer = target.createWriter(this.rows);
+        }
+
+        @Override
+        public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+            this.writer.write(bssid, rssi, filteredRssi, distance, timestamp);
+        }
+
+        @Override
+        public int length() {
+            return this.rows.length();
+        }
+
+        @Override
+        public void writeTo(final IRecordWriter writer, int from, int to) {
+            this.rows.writeTo(((CsvRecordWriter) writer).getRowWriter(), from, to);
+        }
+
+        @Override
+        public void reset() {
+            this.rows.reset();
+        }
+    }
+
+    /**
+     * Shard buffer class to keep output records in columns
+     */
+    private static final class RecordShardBuffer implements IShardBuffer {
+
+        private String[] bssids = new String[64];
+        private double[] rssi = new double[64];
+        private double[] filteredRssi = new double[64];
+        private double[] distances = new double[64];
+        private long[] timestamps = new long[64];
+        private int count;
+
+        @Override
+        public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+            if (this.count == this.bssids.length) {
+                final int capacity = this.count << 1;
+                this.bssids = Arrays.copyOf(this.bssids, capacity);
+                this.rssi = Arrays.copyOf(this.rssi, capacity);
+                this.filteredRssi = Arrays.copyOf(this.filteredRssi, capacity);
+                this.distances = Arrays.copyOf(this.distances, capacity);
+                this.timestamps = Arrays.copyOf(this.timestamps, capacity);
+            }
+            this.bssids[this.count] = bssid;
+            this.rssi[this.count] = rssi;
+            this.filteredRssi[this.count] = filteredRssi;
+            this.distances[this.count] = distance;
+            this.timestamps[this.count] = timestamp;
+            this.count++;
+        }
+
+        @Override
+        public int length() {
+            return this.count;
+        }
+
+        @Override
+        public void writeTo(final IRecordWriter writer, int from, int to) {
+            for (int i = from; i < to; i++) {
+                writer.write(this.bssids[i], this.rssi[i], this.filteredRssi[i], this.distances[i], this.timestamps[i]);
+            }
+        }
+
+        @Override
+        public void reset() {
+            Arrays.fill(this.bssids, 0, this.count, null);
+            this.count = 0;
+        }
+    }
+}
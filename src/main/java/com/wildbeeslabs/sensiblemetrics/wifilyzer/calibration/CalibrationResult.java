@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.calibration;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsProfile;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Calibration result class to hold fitted device metrics profile with fit
+ * statistics
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class CalibrationResult {
+
+    private final DeviceMetricsProfile profile;
+    /**
+     * Root mean square distance error of fitted samples (meters)
+     */
+    private final double rmse;
+    /**
+     * Number of samples on the fitted branch of path loss curve
+     */
+    private final int samples;
+    private final int iterations;
+    private final boolean converged;
+
+    public CalibrationResult(final DeviceMetricsProfile profile, double rmse, int samples, int iterations, boolean converged) {
+        this.profile = profile;
+        this.rmse = rmse;
+        this.samples = samples;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.calibration;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsProfile;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.Getter;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Device calibrator class to fit device metrics profile from captures with
+ * known ground truth distances.
+ *
+ * Transmission power is the rssi at 1 m of the log-distance regression
+ * rssi = txPower - 10 * n * log10(d). With txPower fixed, coefficients of
+ * the path loss curve d = A * (rssi / txPower)^B + C are fitted by
+ * Levenberg-Marquardt least squares on distance residuals, starting from the
+ * embedded antenna defaults; each iteration is a single pass over primitive
+ * arrays and a 3x3 solve. Samples with rssi above txPower (closer than 1 m)
+ * follow the fixed branch of the curve and are not used for the fit.
+ *
+ * Capture file rows: device,distance,rssi; empty rows and rows starting with
+ * '#' are ignored, invalid rows are skipped with a warning.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class DeviceCalibrator {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(DeviceCalibrator.class);
+    /**
+     * Default capture field delimiter
+     */
+    public static final String DEFAULT_DELIMITER = ",";
+    /**
+     * Default capture comment prefix
+     */
+    public static final String COMMENT_PREFIX = "#";
+    /**
+     * Default maximum number of solver iterations
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 200;
+    /**
+     * Default relative cost tolerance
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-12;
+    /**
+     * Minimum number of samples on the fitted branch
+     */
+    public static final int MIN_SAMPLES = 3;
+    /**
+     * Damping bounds
+     */
+    private static final double MIN_DAMPING = 1e-12;
+    private static final double MAX_DAMPING = 1e12;
+
+    @Getter
+    private final int maxIterations;
+    @Getter
+    private final double tolerance;
+    private double[] distance = new double[64];
+    private double[] rssi = new double[64];
+    private int size;
+
+    public DeviceCalibrator() {
+        this(DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+    }
+
+    public DeviceCalibrator(int maxIterations, double tolerance) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect max iterations (%s)", maxIterations));
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect tolerance (%s)", tolerance));
+        }
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Loads calibrators by device from capture file (in order of appearance)
+     *
+     * @param captureFile - capture file
+     * @return calibrators by device
+     * @throws IOException
+     */
+    public static Map<String, DeviceCalibrator> load(final File captureFile) throws IOException {
+        final Map<String, DeviceCalibrator> result = new LinkedHashMap<>();
+        try (final BufferedReader reader = FileUtils.newBufferedReader(captureFile)) {
+            String line;
+            int lineNumber = 0;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                final String[] fields = line.split(DEFAULT_DELIMITER);
+                try {
+                    if (fields.length != 3) {
+                        throw new NumberFormatException(String.format("ERROR: expected device,distance,rssi fields in row=(%s)", line));
+                    }
+                    final double distance = Double.parseDouble(fields[1].trim());
+                    final double rssi = Double.parseDouble(fields[2].trim());
+                    result.computeIfAbsent(fields[0].trim(), k -> new DeviceCalibrator()).add(distance, rssi);
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=%s", lineNumber, ex.getMessage()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds calibration sample
+     *
+     * @param distance - ground truth distance (meters)
+     * @param rssi - measured (or filtered) rssi (dBm)
+     */
+    public void add(double distance, double rssi) {
+        if (!(distance > 0) || Double.isInfinite(distance)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect distance (%s)", distance));
+        }
+        if (!(rssi < 0) || Double.isInfinite(rssi)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect rssi (%s)", rssi));
+        }
+        if (this.size == this.distance.length) {
+            this.distance = Arrays.copyOf(this.distance, this.size << 1);
+            this.rssi = Arrays.copyOf(this.rssi, this.size << 1);
+        }
+        this.distance[this.size] = distance;
+        this.rssi[this.size++] = rssi;
+    }
+
+    public int getSamples() {
+        return this.size;
+    }
+
+    /**
+     * Returns transmission power (rssi at 1 m) fitted by log-distance
+     * regression
+     *
+     * @return transmission power (dBm)
+     */
+    public double fitTxPower() {
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (int i = 0; i < this.size; i++) {
+            final double x = Math.log10(this.distance[i]);
+            sx += x;
+            sy += this.rssi[i];
+            sxx += x * x;
+            sxy += x * this.rssi[i];
+        }
+        final double det = this.size * sxx - sx * sx;
+        if (this.size < 2 || !(det > 1e-12 * this.size * this.size)) {
+            throw new IllegalStateException(String.format("ERROR: at least two distinct distances are required, samples=(%s)", this.size));
+        }
+        final double slope = (this.size * sxy - sx * sy) / det;
+        return (sy - slope * sx) / this.size;
+    }
+
+    /**
+     * Fits device metrics profile with transmission power fitted by
+     * {@link #fitTxPower()}
+     *
+     * @return calibration result
+     */
+    public CalibrationResult calibrate() {
+        return this.calibrate((int) Math.round(this.fitTxPower()));
+    }
+
+    /**
+     * Fits path loss coefficients with given transmission power
+     *
+     * @param txPower - access point transmission power (dBm)
+     * @return calibration result
+     */
+    public CalibrationResult calibrate(int txPower) {
+        if (txPower >= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect tx power (%s)", txPower));
+        }
+        final double[] x = new double[this.size];
+        final double[] y = new double[this.size];
+        int n = 0;
+        for (int i = 0; i < this.size; i++) {
+            final double ratio = this.rssi[i] / txPower;
+            if (ratio >= 1.0) {
+                x[n] = Math.log(ratio);
+                y[n++] = this.distance[i];
+            }
+        }
+        if (n < MIN_SAMPLES) {
+            throw new IllegalStateException(String.format("ERROR: not enough samples below tx power=(%s), samples=(%s)", txPower, n));
+        }
+        final double[] p = {EmbeddedAntennaMetrics.DEFAULT_ANTENNA_METRICS_A, EmbeddedAntennaMetrics.DEFAULT_ANTENNA_METRICS_B, EmbeddedAntennaMetrics.DEFAULT_ANTENNA_METRICS_C};
+        final double[] q = new double[3];
+        final double[] a = new double[9];
+        final double[] g = new double[3];
+        double cost = cost(p, x, y, n);
+        double damping = 1e-3;
+        boolean converged = false;
+        int iteration = 0;
+        while (iteration < this.maxIterations && !converged) {
+            iteration++;
+            Arrays.fill(a, 0);
+            Arrays.fill(g, 0);
+            for (int i = 0; i < n; i++) {
+                final double power = Math.exp(p[1] * x[i]);
+                final double jA = power;
+                final double jB = p[0] * power * x[i];
+                final double r = y[i] - (p[0] * power + p[2]);
+                a[0] += jA * jA;
+                a[1] += jA * jB;
+                a[2] += jA;
+                a[4] += jB * jB;
+                a[5] += jB;
+                a[8] += 1;
+                g[0] += jA * r;
+                g[1] += jB * r;
+                g[2] += r;
+            }
+            a[3] = a[1];
+            a[6] = a[2];
+            a[7] = a[5];
+            while (true) {
+                if (solve(a, g, damping, q)) {
+                    for (int k = 0; k < 3; k++) {
+                        q[k] += p[k];
+                    }
+                    final double next = cost(q, x, y, n);
+                    if (next < cost) {
+                        converged = cost - next <= this.tolerance * cost;
+                        System.arraycopy(q, 0, p, 0, 3);
+                        cost = next;
+                        damping = Math.max(damping / 10, MIN_DAMPING);
+                        break;
+                    }
+                }
+                damping *= 10;
+                if (damping > MAX_DAMPING) {
+                    converged = true;
+                    break;
+                }
+            }
+        }
+        return new CalibrationResult(new DeviceMetricsProfile(p[0], p[1], p[2], txPower), Math.sqrt(cost / n), n, iteration, converged);
+    }
+
+    private static double cost(final double[] p, final double[] x, final double[] y, int n) {
+        double result = 0;
+        for (int i = 0; i < n; i++) {
+            final double r = y[i] - (p[0] * Math.exp(p[1] * x[i]) + p[2]);
+            result += r * r;
+        }
+        return Double.isFinite(result) ? result : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Solves damped normal equations (a + damping * diag(a)) * result = g
+     */
+    private static boolean solve(final double[] a, final double[] g, double damping, final double[] result) {
+        final double a00 = a[0] * (1 + damping), a11 = a[4] * (1 + damping), a22 = a[8] * (1 + damping);
+        final double c00 = a11 * a22 - a[5] * a[7];
+        final double c01 = a[5] * a[6] - a[3] * a22;
+        final double c02 = a[3] * a[7] - a11 * a[6];
+        final double det = a00 * c00 + a[1] * c01 + a[2] * c02;
+        if (!(Math.abs(det) > 0) || !Double.isFinite(det)) {
+            return false;
+        }
+        final double c10 = a[2] * a[7] - a[1] * a22;
+        final double c11 = a00 * a22 - a[2] * a[6];
+        final double c12 = a[1] * a[6] - a00 * a[7];
+        final double c20 = a[1] * a[5] - a[2] * a11;
+        final double c21 = a[2] * a[3] - a00 * a[5];
+        final double c22 = a00 * a11 - a[1] * a[3];
+        result[0] = (c00 * g[0] + c10 * g[1] + c20 * g[2]) / det;
+        result[1] = (c01 * g[0] + c11 * g[1] + c21 * g[2]) / det;
+        result[2] = (c02 * g[0] + c12 * g[1] + c22 * g[2]) / det;
+        return true;
+    }
+}
@@ -26,8 +26,10 @@ package com.wildbeeslabs.sensiblemetrics.wifilyzer.entities;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkEntity;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkConfiguration;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkLocation;
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseDoubleFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.PathLossDistanceModel;
 import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IBaseDeviceMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IDistanceModel;
 
 import java.time.LocalDateTime;
 
@@ -59,14 +61,12 @@ public class NetworkEntity implements INetworkEntity {
     private int txPower;
     private LocalDateTime timestamp;
 
-    private boolean isFilterApplied = false;
-    private boolean isDistanceCalculated = false;
-
     private INetworkLocation location;
     private INetworkConfiguration configuration;
 
-    private IBaseFilter<Double, Double> rssiFilter;
+    private IBaseDoubleFilter rssiFilter;
     private IBaseDeviceMetrics deviceMetrics;
+    private IDistanceModel distanceModel;
 
     public NetworkEntity(final String bssid, int txPower) {
         this.bssid = bssid;
@@ -79,7 +79,7 @@ public class NetworkEntity implements INetworkEntity {
         this.txPower = txPower;
     }
 
-    public NetworkEntity(final String macAddress, double rssi, int txPower, final IBaseFilter<Double, Double> rssiFilter) {
+    public NetworkEntity(final String macAddress, double rssi, int txPower, final IBaseDoubleFilter rssiFilter) {
         this(macAddress, rssi, txPower);
         this.rssiFilter = rssiFilter;
     }
@@ -89,54 +89,50 @@ public class NetworkEntity implements INetworkEntity {
         this.deviceMetrics = deviceMetrics;
     }
 
-    public NetworkEntity(final String macAddress, double rssi, int txPower, final IBaseFilter<Double, Double> rssiFilter, final IBaseDeviceMetrics deviceMetrics) {
+    public NetworkEntity(final String macAddress, double rssi, int txPower, final IBaseDoubleFilter rssiFilter, final IBaseDeviceMetrics deviceMetrics) {
         this(macAddress, rssi, txPower);
         this.rssiFilter = rssiFilter;
         this.deviceMetrics = deviceMetrics;
     }
 
+    /**
+     * Sets measured rssi: rssi filter is applied once and distance is
+     * calculated from the filtered value
+     *
+     * @param rssi - measured rssi
+     */
     @Override
-    public double getDistance() {
-        if (!this.isFilterApplied) {
-            this.applyFilter();
-        }
-        if (!this.isDistanceCalculated) {
-            this.calculateDistanceFromRssi();
-        }
-        return this.distance;
+    public void setRssi(double rssi) {
+        this.setFilteredRssi(this.applyFilter(rssi));
     }
 
-    @Override
-    public void setRssi(double rssi) {
-        this.isFilterApplied = false;
-        this.isDistanceCalculated = false;
-        this.rssi = rssi;
-        this.applyFilter();
+    /**
+     * Sets rssi already filtered by the caller (rssi filter of the network is
+     * not applied) and calculates distance from it
+     *
+     * @param filteredRssi - filtered rssi
+     */
+    public void setFilteredRssi(double filteredRssi) {
+        this.rssi = filteredRssi;
+        this.calculateDistanceFromRssi();
     }
 
     @Override
     public void calculateDistanceFromRssi() {
-        if (Objects.isNull(this.deviceMetrics)) {
-            throw new IllegalStateException("ERROR: measurement device constants must be set before calculateDistanceFromRssi operation call");
-        }
-        if (this.rssi == 0) {
-            this.distance = -1.0;
-        }
-
-        double ratio = this.rssi * 1.0 / this.txPower;
-        if (ratio < 1.0) {
-            this.distance = Math.pow(ratio, 10);
+        if (Objects.nonNull(this.distanceModel)) {
+            this.distance = this.distanceModel.calculateDistance(this.rssi);
         } else {
-            this.distance = (deviceMetrics.getCoefficientA()) * Math.pow(ratio, this.deviceMetrics.getCoefficientB()) + this.deviceMetrics.getCoefficientC();
+            if (Objects.isNull(this.deviceMetrics)) {
+                throw new IllegalStateException("ERROR: measurement device constants must be set before calculateDistanceFromRssi operation call");
+            }
+            this.distance = PathLossDistanceModel.calculateDistance(this.deviceMetrics, this.txPower, this.rssi);
         }
-        this.isDistanceCalculated = true;
     }
 
-    public void applyFilter() {
+    public double applyFilter(double rssi) {
         if (Objects.isNull(this.rssiFilter)) {
             throw new IllegalStateException("ERROR: rssi filter must be set before applyFilter operation call");
         }
-        this.rssi = this.rssiFilter.applyFilter(this.rssi);
-        this.isFilterApplied = true;
+        return this.rssiFilter.applyAsDouble(rssi);
     }
 }
@@ -23,7 +23,10 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.entities;
 
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkLocation;
+
 import java.math.BigDecimal;
+
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -39,9 +42,22 @@ import lombok.ToString;
 @Data
 @EqualsAndHashCode
 @ToString
-public class NetworkLocationEntity {
+public class NetworkLocationEntity implements INetworkLocation {
 
     private BigDecimal latitude;
     private BigDecimal longitude;
     private BigDecimal altitude;
+
+    public NetworkLocationEntity() {
+    }
+
+    public NetworkLocationEntity(final BigDecimal latitude, final BigDecimal longitude) {
+        this(latitude, longitude, null);
+    }
+
+    public NetworkLocationEntity(final BigDecimal latitude, final BigDecimal longitude, final BigDecimal altitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+    }
 }
@@ -24,6 +24,8 @@
 
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces;
 
+import java.math.BigDecimal;
+
 /**
  * Coordinates interface declaration
  *
@@ -33,5 +35,25 @@ package com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces;
  *
  */
 public interface INetworkLocation {
-    
+
+    /**
+     * Returns latitude in degrees
+     *
+     * @return latitude
+     */
+    BigDecimal getLatitude();
+
+    /**
+     * Returns longitude in degrees
+     *
+     * @return longitude
+     */
+    BigDecimal getLongitude();
+
+    /**
+     * Returns altitude in meters (may be null if unknown)
+     *
+     * @return altitude
+     */
+    BigDecimal getAltitude();
 }
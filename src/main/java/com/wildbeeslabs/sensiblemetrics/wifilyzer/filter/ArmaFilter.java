@@ -23,27 +23,150 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.filter;
 
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseDoubleFilter;
+
+import java.util.Arrays;
+import java.util.Objects;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import lombok.Value;
 
 /**
  * Arma filter class
  *
+ * Implements ARMA(p,q) filter of the form
+ * <pre>
+ * y[t] = a[1] * y[t-1] + ... + a[p] * y[t-p] + b[0] * x[t] + b[1] * x[t-1] + ... + b[q] * x[t-q]
+ * </pre>
+ * where x - measured RSSI and y - filtered RSSI. Past inputs and outputs are
+ * held in fixed-size ring buffers, so each sample costs O(p+q) and allocates
+ * nothing. Both histories are primed with the first sample, so filters with
+ * unit DC gain start without transient.
+ *
  * @author alexander.rogalskiy
  * @version 1.0
  * @since 2017-12-12
  *
  */
-@Value(staticConstructor = "getInstance")
 @EqualsAndHashCode
 @ToString
-public class ArmaFilter implements IBaseFilter<Double, Double> {
+public class ArmaFilter implements IBaseDoubleFilter {
+
+    /**
+     * Default first-order filter speed (less inertial than the steady-state
+     * gain of the default Kalman filter)
+     */
+    public static final double DEFAULT_ARMA_SPEED = 0.5;
+
+    /**
+     * Autoregressive coefficients a[1..p]
+     */
+    private final double[] arCoefficients;
+    /**
+     * Moving average coefficients b[0..q]
+     */
+    private final double[] maCoefficients;
+    /**
+     * Past outputs y[t-1..t-p] (ring buffer)
+     */
+    private final double[] outputs;
+    /**
+     * Past inputs x[t-1..t-q] (ring buffer)
+     */
+    private final double[] inputs;
+    /**
+     * Position of y[t-1] in outputs buffer
+     */
+    private int outputHead;
+    /**
+     * Position of x[t-1] in inputs buffer
+     */
+    private int inputHead;
+    /**
+     * Initialization flag
+     */
+    private boolean isInitialized = false;
+
+    private ArmaFilter(final double[] arCoefficients, final double[] maCoefficients) {
+        Objects.requireNonNull(arCoefficients);
+        Objects.requireNonNull(maCoefficients);
+        if (0 == maCoefficients.length) {
+            throw new IllegalArgumentException("ERROR: at least one moving average coefficient b[0] must be set");
+        }
+        if (!Arrays.stream(arCoefficients).allMatch(Double::isFinite) || !Arrays.stream(maCoefficients).allMatch(Double::isFinite)) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid filter coefficients ar=(%s), ma=(%s)", Arrays.toString(arCoefficients), Arrays.toString(maCoefficients)));
+        }
+        this.arCoefficients = arCoefficients.clone();
+        this.maCoefficients = maCoefficients.clone();
+        this.outputs = new double[arCoefficients.length];
+        this.inputs = new double[maCoefficients.length - 1];
+    }
+
+    /**
+     * Returns first-order filter with default speed
+     *
+     * @return ARMA(1,0) filter instance
+     */
+    public static ArmaFilter getInstance() {
+        return getInstance(DEFAULT_ARMA_SPEED);
+    }
+
+    /**
+     * Returns first-order filter y[t] = y[t-1] + speed * (x[t] - y[t-1])
+     *
+     * @param speed - filter speed in range (0, 1]
+     * @return ARMA(1,0) filter instance
+     */
+    public static ArmaFilter getInstance(double speed) {
+        if (!(speed > 0 && speed <= 1)) {
+            throw new IllegalArgumentException(String.format("ERROR: filter speed=(%s) must be in range (0, 1]", speed));
+        }
+        return new ArmaFilter(new double[]{1 - speed}, new double[]{speed});
+    }
+
+    /**
+     * Returns ARMA(p,q) filter
+     *
+     * @param arCoefficients - autoregressive coefficients a[1..p]
+     * @param maCoefficients - moving average coefficients b[0..q]
+     * @return ARMA(p,q) filter instance
+     */
+    public static ArmaFilter getInstance(final double[] arCoefficients, final double[] maCoefficients) {
+        return new ArmaFilter(arCoefficients, maCoefficients);
+    }
+
+    public int getArOrder() {
+        return this.arCoefficients.length;
+    }
+
+    public int getMaOrder() {
+        return this.inputs.length;
+    }
 
     @Override
-    public Double applyFilter(final Double rssi) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    public double applyAsDouble(double rssi) {
+        if (!this.isInitialized) {
+            Arrays.fill(this.outputs, rssi);
+            Arrays.fill(this.inputs, rssi);
+            this.isInitialized = true;
+        }
+        double result = this.maCoefficients[0] * rssi;
+        for (int i = 0, index = this.inputHead; i < this.inputs.length; i++) {
+            result += this.maCoefficients[i + 1] * this.inputs[index];
+            index = (0 == index ? this.inputs.length : index) - 1;
+        }
+        for (int i = 0, index = this.outputHead; i < this.outputs.length; i++) {
+            result += this.arCoefficients[i] * this.outputs[index];
+            index = (0 == index ? this.outputs.length : index) - 1;
+        }
+        if (this.inputs.length > 0) {
+            this.inputHead = (this.inputHead + 1 == this.inputs.length) ? 0 : this.inputHead + 1;
+            this.inputs[this.inputHead] = rssi;
+        }
+        if (this.outputs.length > 0) {
+            this.outputHead = (this.outputHead + 1 == this.outputs.length) ? 0 : this.outputHead + 1;
+            this.outputs[this.outputHead] = result;
+        }
+        return result;
     }
 }
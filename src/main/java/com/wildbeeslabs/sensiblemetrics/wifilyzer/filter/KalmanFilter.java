@@ -23,7 +23,7 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.filter;
 
-import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces.IBaseDoubleFilter;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -40,7 +40,7 @@ import lombok.ToString;
 @Data
 @EqualsAndHashCode
 @ToString
-public class KalmanFilter implements IBaseFilter<Double, Double> {
+public class KalmanFilter implements IBaseDoubleFilter {
 
     /**
      * Process noise
@@ -73,7 +73,7 @@ public class KalmanFilter implements IBaseFilter<Double, Double> {
     }
 
     @Override
-    public Double applyFilter(final Double rssi) {
+    public double applyAsDouble(double rssi) {
         double priorRSSI;
         double priorErrorCovarianceRSSI;
         if (!this.isInitialized) {
@@ -89,4 +89,55 @@ public class KalmanFilter implements IBaseFilter<Double, Double> {
         this.errorCovarianceRSSI = (1 - kalmanGain) * priorErrorCovarianceRSSI;
         return this.estimatedRSSI;
     }
+
+    /**
+     * Filters series of values in bulk with the recurrence state held in local
+     * variables. Error covariance does not depend on measurements, so once it
+     * reaches its fixed point the gain is constant and the remaining values
+     * are filtered without division. Results are identical to per-sample
+     * {@link #applyAsDouble(double)} calls.
+     *
+     * @param source - source array
+     * @param sourceOffset - source array offset
+     * @param target - target array
+     * @param targetOffset - target array offset
+     * @param length - number of values to filter
+     */
+    @Override
+    public void applyAsDouble(final double[] source, int sourceOffset, final double[] target, int targetOffset, int length) {
+        IBaseDoubleFilter.checkBounds(source, sourceOffset, length);
+        IBaseDoubleFilter.checkBounds(target, targetOffset, length);
+        if (length == 0) {
+            return;
+        }
+        int i = 0;
+        if (!this.isInitialized) {
+            target[targetOffset] = this.applyAsDouble(source[sourceOffset]);
+            i++;
+        }
+        final double q = this.processNoise;
+        final double r = this.measurementNoise;
+        double estimate = this.estimatedRSSI;
+        double covariance = this.errorCovarianceRSSI;
+        double gain = Double.NaN;
+        for (; i < length; i++) {
+            final double priorCovariance = covariance + q;
+            final double nextGain = priorCovariance / (priorCovariance + r);
+            final double nextCovariance = (1 - nextGain) * priorCovariance;
+            estimate = estimate + (nextGain * (source[sourceOffset + i] - estimate));
+            target[targetOffset + i] = estimate;
+            if (nextCovariance == covariance) {
+                gain = nextGain;
+                i++;
+                break;
+            }
+            covariance = nextCovariance;
+        }
+        for (; i < length; i++) {
+            estimate = estimate + (gain * (source[sourceOffset + i] - estimate));
+            target[targetOffset + i] = estimate;
+        }
+        this.estimatedRSSI = estimate;
+        this.errorCovarianceRSSI = covariance;
+    }
 }
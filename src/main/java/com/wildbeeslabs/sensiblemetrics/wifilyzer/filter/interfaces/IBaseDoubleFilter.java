@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.interfaces;
+
+import java.util.Objects;
+
+/**
+ * Primitive double filter interface declaration
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@FunctionalInterface
+public interface IBaseDoubleFilter extends IBaseFilter<Double, Double> {
+
+    double applyAsDouble(double value);
+
+    @Override
+    default Double applyFilter(final Double value) {
+        return this.applyAsDouble(value);
+    }
+
+    /**
+     * Filters series of values in bulk (source and target may be the same
+     * array to filter in place)
+     *
+     * @param source - source array
+     * @param sourceOffset - source array offset
+     * @param target - target array
+     * @param targetOffset - target array offset
+     * @param length - number of values to filter
+     */
+    default void applyAsDouble(final double[] source, int sourceOffset, final double[] target, int targetOffset, int length) {
+        checkBounds(source, sourceOffset, length);
+        checkBounds(target, targetOffset, length);
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] = this.applyAsDouble(source[sourceOffset + i]);
+        }
+    }
+
+    default double[] applyAsDouble(final double[] source) {
+        final double[] target = new double[source.length];
+        this.applyAsDouble(source, 0, target, 0, source.length);
+        return target;
+    }
+
+    static void checkBounds(final double[] array, int offset, int length) {
+        Objects.requireNonNull(array);
+        if (offset < 0 || length < 0 || offset > array.length - length) {
+            throw new IndexOutOfBoundsException(String.format("ERROR: invalid range offset=(%d), length=(%d) for array of length=(%d)", offset, length, array.length));
+        }
+    }
+}
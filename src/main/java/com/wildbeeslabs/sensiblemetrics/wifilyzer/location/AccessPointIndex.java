@@ -0,0 +1,401 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.Getter;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Access point index class to select access points near a position. Points
+ * are kept in local east / north coordinates (meters) in primitive arrays
+ * laid out as an implicit balanced k-d tree: the node of range [lo, hi) is
+ * its median element, split by the axis of the larger spread. Bulk loading is
+ * O(n log n) expected (quickselect per level), k-nearest and radius queries
+ * visit O(log n + k) nodes on average and do not allocate. Index is immutable
+ * once built and safe for concurrent queries.
+ *
+ * Site survey file rows: bssid,latitude,longitude[,altitude]; empty rows and
+ * rows starting with '#' are ignored, invalid rows are skipped with a
+ * warning, repeated bssids keep the last location.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class AccessPointIndex {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(AccessPointIndex.class);
+    /**
+     * Default site survey field delimiter
+     */
+    public static final char DEFAULT_DELIMITER = ',';
+    /**
+     * Default site survey comment prefix
+     */
+    public static final char COMMENT_PREFIX = '#';
+    /**
+     * Split by east axis
+     */
+    private static final byte SPLIT_EAST = 0;
+    /**
+     * Split by north axis
+     */
+    private static final byte SPLIT_NORTH = 1;
+
+    @Getter
+    private final LocalProjection projection;
+    private final String[] bssid;
+    private final double[] east;
+    private final double[] north;
+    private final byte[] split;
+    private final Map<String, Integer> index;
+
+    /**
+     * Builds index from geographic coordinates (degrees)
+     *
+     * @param projection - local projection
+     * @param bssids - access point bssids
+     * @param latitudes - access point latitudes
+     * @param longitudes - access point longitudes
+     * @param count - number of access points
+     */
+    public AccessPointIndex(final LocalProjection projection, final String[] bssids, final double[] latitudes, final double[] longitudes, int count) {
+        Objects.requireNonNull(projection, "ERROR: projection should not be null");
+        if (count < 0 || count > bssids.length || count > latitudes.length || count > longitudes.length) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect number of access points (%s)", count));
+        }
+        final Map<String, Integer> last = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            Objects.requireNonNull(bssids[i], "ERROR: bssid should not be null");
+            last.put(bssids[i], i);
+        }
+        final int size = last.size();
+        this.projection = projection;
+        this.bssid = new String[size];
+        this.east = new double[size];
+        this.north = new double[size];
+        this.split = new byte[size];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (last.get(bssids[i]) != i) {
+                continue;
+            }
+            this.bssid[n] = bssids[i];
+            this.east[n] = projection.toEast(longitudes[i]);
+            this.north[n] = projection.toNorth(latitudes[i]);
+            n++;
+        }
+        this.build(0, size);
+        this.index = last;
+        for (int i = 0; i < size; i++) {
+            this.index.put(this.bssid[i], i);
+        }
+    }
+
+    /**
+     * Loads index from site survey file with origin at the centroid of access
+     * points
+     *
+     * @param surveyFile - site survey file
+     * @return access point index
+     * @throws IOException
+     */
+    public static AccessPointIndex load(final File surveyFile) throws IOException {
+        return load(surveyFile, null);
+    }
+
+    /**
+     * Loads index from site survey file
+     *
+     * @param surveyFile - site survey file
+     * @param projection - local projection (centroid of access points if
+     * null)
+     * @return access point index
+     * @throws IOException
+     */
+    public static AccessPointIndex load(final File surveyFile, final LocalProjection projection) throws IOException {
+        String[] bssids = new String[1024];
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        int count = 0;
+        try (final BufferedReader reader = FileUtils.newBufferedReader(surveyFile)) {
+            String line;
+            int lineNumber = 0;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lineNumber++;
+                if (line.isEmpty() || COMMENT_PREFIX == line.charAt(0)) {
+                    continue;
+                }
+                final int first = line.indexOf(DEFAULT_DELIMITER);
+                final int second = first < 0 ? -1 : line.indexOf(DEFAULT_DELIMITER, first + 1);
+                final int third = second < 0 ? -1 : line.indexOf(DEFAULT_DELIMITER, second + 1);
+                if (second < 0) {
+                    LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=ERROR: missing location fields in row=(%s)", lineNumber, line));
+                    continue;
+                }
+                try {
+                    final double latitude = Double.parseDouble(line.substring(first + 1, second).trim());
+                    final double longitude = Double.parseDouble(line.substring(second + 1, third < 0 ? line.length() : third).trim());
+                    final double altitude = third < 0 ? 0 : Double.parseDouble(line.substring(third + 1).trim());
+                    if (!isValidLocation(latitude, longitude) || !Double.isFinite(altitude)) {
+                        throw new NumberFormatException(String.format("ERROR: invalid location in row=(%s)", line));
+                    }
+                    if (count == bssids.length) {
+                        bssids = Arrays.copyOf(bssids, count << 1);
+                        latitudes = Arrays.copyOf(latitudes, count << 1);
+                        longitudes = Arrays.copyOf(longitudes, count << 1);
+                    }
+                    bssids[count] = line.substring(0, first).trim();
+                    latitudes[count] = latitude;
+                    longitudes[count] = longitude;
+                    count++;
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=%s", lineNumber, ex.getMessage()));
+                }
+            }
+        }
+        LocalProjection result = projection;
+        if (Objects.isNull(result)) {
+            if (count == 0) {
+                throw new IllegalArgumentException(String.format("ERROR: no access points in site survey file (%s)", surveyFile));
+            }
+            double latitude = 0, longitude = 0;
+            for (int i = 0; i < count; i++) {
+                latitude += latitudes[i];
+                longitude += longitudes[i];
+            }
+            result = new LocalProjection(latitude / count, longitude / count);
+        }
+        return new AccessPointIndex(result, bssids, latitudes, longitudes, count);
+    }
+
+    /**
+     * Checks whether latitude and longitude are finite and within range
+     *
+     * @param latitude - latitude (degrees)
+     * @param longitude - longitude (degrees)
+     * @return true if location is valid, false otherwise
+     */
+    static boolean isValidLocation(double latitude, double longitude) {
+        return Double.isFinite(latitude) && Double.isFinite(longitude) && Math.abs(latitude) <= 90.0 && Math.abs(longitude) <= 180.0;
+    }
+
+    public int size() {
+        return this.bssid.length;
+    }
+
+    /**
+     * Returns position of access point in index or -1 if bssid is unknown
+     *
+     * @param bssid - access point bssid
+     * @return access point position
+     */
+    public int indexOf(final String bssid) {
+        final Integer i = this.index.get(bssid);
+        return Objects.isNull(i) ? -1 : i;
+    }
+
+    public String getBssid(int i) {
+        return this.bssid[i];
+    }
+
+    public double getEast(int i) {
+        return this.east[i];
+    }
+
+    public double getNorth(int i) {
+        return this.north[i];
+    }
+
+    /**
+     * Finds k nearest access points ordered by distance
+     *
+     * @param east - east offset from origin (meters)
+     * @param north - north offset from origin (meters)
+     * @param k - number of access points
+     * @param result - access point positions (at least k)
+     * @param distances - access point distances (meters, at least k)
+     * @return number of access points found (min(k, size))
+     */
+    public int nearest(double east, double north, int k, final int[] result, final double[] distances) {
+        if (k <= 0) {
+            return 0;
+        }
+        if (result.length < k || distances.length < k) {
+            throw new IllegalArgumentException(String.format("ERROR: result capacity is less than k (%s)", k));
+        }
+        final int count = this.nearest(0, this.bssid.length, east, north, k, result, distances, 0);
+        for (int i = 0; i < count; i++) {
+            distances[i] = Math.sqrt(distances[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Finds access points within radius (unordered). Only the first
+     * result.length positions are stored, total count is returned.
+     *
+     * @param east - east offset from origin (meters)
+     * @param north - north offset from origin (meters)
+     * @param radius - search radius (meters)
+     * @param result - access point positions
+     * @return number of access points within radius
+     */
+    public int within(double east, double north, double radius, final int[] result) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect radius (%s)", radius));
+        }
+        return this.within(0, this.bssid.length, east, north, radius * radius, result, 0);
+    }
+
+    private int nearest(int lo, int hi, double x, double y, int k, final int[] result, final double[] distances, int count) {
+        if (lo >= hi) {
+            return count;
+        }
+        final int m = (lo + hi) >>> 1;
+        final double dx = x - this.east[m];
+        final double dy = y - this.north[m];
+        final double d = dx * dx + dy * dy;
+        if (count < k || d < distances[count - 1]) {
+            int i = count < k ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > d) {
+                distances[i] = distances[i - 1];
+                result[i] = result[i - 1];
+                i--;
+            }
+            distances[i] = d;
+            result[i] = m;
+        }
+        final double diff = SPLIT_EAST == this.split[m] ? dx : dy;
+        if (diff < 0) {
+            count = this.nearest(lo, m, x, y, k, result, distances, count);
+            if (count < k || diff * diff < distances[count - 1]) {
+                count = this.nearest(m + 1, hi, x, y, k, result, distances, count);
+            }
+        } else {
+            count = this.nearest(m + 1, hi, x, y, k, result, distances, count);
+            if (count < k || diff * diff < distances[count - 1]) {
+                count = this.nearest(lo, m, x, y, k, result, distances, count);
+            }
+        }
+        return count;
+    }
+
+    private int within(int lo, int hi, double x, double y, double radius2, final int[] result, int count) {
+        if (lo >= hi) {
+            return count;
+        }
+        final int m = (lo + hi) >>> 1;
+        final double dx = x - this.east[m];
+        final double dy = y - this.north[m];
+        if (dx * dx + dy * dy <= radius2) {
+            if (count < result.length) {
+                result[count] = m;
+            }
+            count++;
+        }
+        final double diff = SPLIT_EAST == this.split[m] ? dx : dy;
+        if (diff <= 0 || diff * diff <= radius2) {
+            count = this.within(lo, m, x, y, radius2, result, count);
+        }
+        if (diff >= 0 || diff * diff <= radius2) {
+            count = this.within(m + 1, hi, x, y, radius2, result, count);
+        }
+        return count;
+    }
+
+    private void build(int lo, int hi) {
+        while (hi - lo > 1) {
+            double minEast = Double.POSITIVE_INFINITY, maxEast = Double.NEGATIVE_INFINITY;
+            double minNorth = Double.POSITIVE_INFINITY, maxNorth = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                minEast = Math.min(minEast, this.east[i]);
+                maxEast = Math.max(maxEast, this.east[i]);
+                minNorth = Math.min(minNorth, this.north[i]);
+                maxNorth = Math.max(maxNorth, this.north[i]);
+            }
+            final byte axis = maxEast - minEast >= maxNorth - minNorth ? SPLIT_EAST : SPLIT_NORTH;
+            final double[] values = SPLIT_EAST == axis ? this.east : this.north;
+            final int m = (lo + hi) >>> 1;
+            this.select(values, lo, hi - 1, m);
+            this.split[m] = axis;
+            this.build(lo, m);
+            lo = m + 1;
+        }
+    }
+
+    private void select(final double[] values, int left, int right, int k) {
+        while (right > left) {
+            final double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    this.swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        final String b = this.bssid[i];
+        this.bssid[i] = this.bssid[j];
+        this.bssid[j] = b;
+        final double e = this.east[i];
+        this.east[i] = this.east[j];
+        this.east[j] = e;
+        final double n = this.north[i];
+        this.north[i] = this.north[j];
+        this.north[j] = n;
+    }
+}
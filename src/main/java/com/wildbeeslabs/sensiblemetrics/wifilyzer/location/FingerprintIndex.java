@@ -0,0 +1,328 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import lombok.Getter;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Fingerprint index class to hold a radio map (reference locations with rssi
+ * per access point) in primitive arrays. Bssids are mapped to dense ids and
+ * measurements are stored as inverted lists per bssid (fingerprint, rssi), so
+ * a query only touches fingerprints that share an access point with it.
+ *
+ * Signal distance is euclidean over the union of access points, missing rssi
+ * is replaced by {@link #DEFAULT_MISSING_RSSI}. It is split into a per
+ * fingerprint constant (precomputed), a per query constant and a correction
+ * over shared access points (accumulated from inverted lists); fingerprints
+ * without shared access points are visited in ascending order of their
+ * constant and visiting stops as soon as it cannot improve the result.
+ *
+ * Radio map file rows: latitude,longitude,bssid,rssi[,bssid,rssi...] with
+ * rssi in dBm; empty rows and rows starting with '#' are ignored, invalid
+ * rows are skipped with a warning. Index is immutable and safe for
+ * concurrent use by {@link FingerprintMatcher} instances.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class FingerprintIndex {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(FingerprintIndex.class);
+    /**
+     * Default radio map field delimiter
+     */
+    public static final char DEFAULT_DELIMITER = ',';
+    /**
+     * Default radio map comment prefix
+     */
+    public static final char COMMENT_PREFIX = '#';
+    /**
+     * Default rssi of access point missing in fingerprint or query (dBm)
+     */
+    public static final double DEFAULT_MISSING_RSSI = -100.0;
+
+    @Getter
+    private final LocalProjection projection;
+    @Getter
+    private final double missingRssi;
+    private final double[] east;
+    private final double[] north;
+    private final double[] base;
+    private final int[] order;
+    private final Map<String, Integer> bssids;
+    private final int[] postingOffset;
+    private final int[] postingFingerprint;
+    private final float[] postingRssi;
+
+    /**
+     * Builds index from compressed rows of fingerprints
+     *
+     * @param projection - local projection
+     * @param latitudes - fingerprint latitudes
+     * @param longitudes - fingerprint longitudes
+     * @param offsets - start of fingerprint measurements (count + 1 values)
+     * @param bssids - measurement bssids
+     * @param rssi - measurement rssi (dBm)
+     * @param count - number of fingerprints
+     * @param missingRssi - rssi of missing access points (dBm)
+     */
+    public FingerprintIndex(final LocalProjection projection, final double[] latitudes, final double[] longitudes,
+            final int[] offsets, final String[] bssids, final double[] rssi, int count, double missingRssi) {
+        Objects.requireNonNull(projection, "ERROR: projection should not be null");
+        if (count < 0 || count > latitudes.length || count > longitudes.length || count >= offsets.length) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect number of fingerprints (%s)", count));
+        }
+        if (!Double.isFinite(missingRssi)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect missing rssi (%s)", missingRssi));
+        }
+        this.projection = projection;
+        this.missingRssi = missingRssi;
+        this.east = new double[count];
+        this.north = new double[count];
+        this.base = new double[count];
+        this.bssids = new HashMap<>();
+        final int[] ids = new int[offsets[count]];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = this.bssids.computeIfAbsent(bssids[i], k -> this.bssids.size());
+        }
+        this.postingOffset = new int[this.bssids.size() + 1];
+        final boolean[] used = new boolean[ids.length];
+        for (int f = 0; f < count; f++) {
+            this.east[f] = projection.toEast(longitudes[f]);
+            this.north[f] = projection.toNorth(latitudes[f]);
+            for (int p = offsets[f + 1] - 1; p >= offsets[f]; p--) {
+                if (this.isRepeated(ids, offsets[f + 1], p)) {
+                    continue;
+                }
+                used[p] = true;
+                this.postingOffset[ids[p] + 1]++;
+                final double d = Math.max(rssi[p], missingRssi) - missingRssi;
+                this.base[f] += d * d;
+            }
+        }
+        for (int j = 0; j < this.bssids.size(); j++) {
+            this.postingOffset[j + 1] += this.postingOffset[j];
+        }
+        final int[] position = Arrays.copyOf(this.postingOffset, this.bssids.size());
+        this.postingFingerprint = new int[this.postingOffset[this.bssids.size()]];
+        this.postingRssi = new float[this.postingFingerprint.length];
+        for (int f = 0; f < count; f++) {
+            for (int p = offsets[f]; p < offsets[f + 1]; p++) {
+                if (used[p]) {
+                    final int i = position[ids[p]]++;
+                    this.postingFingerprint[i] = f;
+                    this.postingRssi[i] = (float) Math.max(rssi[p], missingRssi);
+                }
+            }
+        }
+        this.order = this.sortByBase();
+    }
+
+    /**
+     * Loads index from radio map file with origin at the centroid of
+     * fingerprints and default missing rssi
+     *
+     * @param radioMapFile - radio map file
+     * @return fingerprint index
+     * @throws IOException
+     */
+    public static FingerprintIndex load(final File radioMapFile) throws IOException {
+        return load(radioMapFile, null, DEFAULT_MISSING_RSSI);
+    }
+
+    /**
+     * Loads index from radio map file
+     *
+     * @param radioMapFile - radio map file
+     * @param projection - local projection (centroid of fingerprints if null)
+     * @param missingRssi - rssi of missing access points (dBm)
+     * @return fingerprint index
+     * @throws IOException
+     */
+    public static FingerprintIndex load(final File radioMapFile, final LocalProjection projection, double missingRssi) throws IOException {
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        int[] offsets = new int[1025];
+        String[] bssids = new String[4096];
+        double[] rssi = new double[4096];
+        int count = 0;
+        int size = 0;
+        try (final BufferedReader reader = FileUtils.newBufferedReader(radioMapFile)) {
+            String line;
+            int lineNumber = 0;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lineNumber++;
+                if (line.isEmpty() || COMMENT_PREFIX == line.charAt(0)) {
+                    continue;
+                }
+                try {
+                    int start = 0;
+                    int end = nextField(line, start);
+                    final double latitude = Double.parseDouble(line.substring(start, end).trim());
+                    end = nextField(line, start = end + 1);
+                    final double longitude = Double.parseDouble(line.substring(start, end).trim());
+                    if (!AccessPointIndex.isValidLocation(latitude, longitude)) {
+                        throw new NumberFormatException(String.format("ERROR: invalid location in row=(%s)", line));
+                    }
+                    int n = size;
+                    while (end < line.length()) {
+                        end = nextField(line, start = end + 1);
+                        final String bssid = line.substring(start, end).trim();
+                        end = nextField(line, start = end + 1);
+                        final double value = Double.parseDouble(line.substring(start, end).trim());
+                        if (n == bssids.length) {
+                            bssids = Arrays.copyOf(bssids, n << 1);
+                            rssi = Arrays.copyOf(rssi, n << 1);
+                        }
+                        bssids[n] = bssid;
+                        rssi[n++] = value;
+                    }
+                    if (n == size) {
+                        throw new NumberFormatException(String.format("ERROR: missing rssi fields in row=(%s)", line));
+                    }
+                    if (count == latitudes.length) {
+                        latitudes = Arrays.copyOf(latitudes, count << 1);
+                        longitudes = Arrays.copyOf(longitudes, count << 1);
+                        offsets = Arrays.copyOf(offsets, (count << 1) + 1);
+                    }
+                    latitudes[count] = latitude;
+                    longitudes[count] = longitude;
+                    offsets[++count] = size = n;
+                } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+                    LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=%s", lineNumber, ex.getMessage()));
+                }
+            }
+        }
+        LocalProjection result = projection;
+        if (Objects.isNull(result)) {
+            if (count == 0) {
+                throw new IllegalArgumentException(String.format("ERROR: no fingerprints in radio map file (%s)", radioMapFile));
+            }
+            double latitude = 0, longitude = 0;
+            for (int i = 0; i < count; i++) {
+                latitude += latitudes[i];
+                longitude += longitudes[i];
+            }
+            result = new LocalProjection(latitude / count, longitude / count);
+        }
+        return new FingerprintIndex(result, latitudes, longitudes, offsets, bssids, rssi, count, missingRssi);
+    }
+
+    public int size() {
+        return this.east.length;
+    }
+
+    /**
+     * Returns number of distinct access points in radio map
+     *
+     * @return number of access points
+     */
+    public int getAccessPoints() {
+        return this.bssids.size();
+    }
+
+    /**
+     * Returns dense id of access point or -1 if bssid is not in radio map
+     *
+     * @param bssid - access point bssid
+     * @return access point id
+     */
+    public int getBssidId(final String bssid) {
+        final Integer id = this.bssids.get(bssid);
+        return Objects.isNull(id) ? -1 : id;
+    }
+
+    public double getEast(int fingerprint) {
+        return this.east[fingerprint];
+    }
+
+    public double getNorth(int fingerprint) {
+        return this.north[fingerprint];
+    }
+
+    double getBase(int fingerprint) {
+        return this.base[fingerprint];
+    }
+
+    int getOrder(int i) {
+        return this.order[i];
+    }
+
+    int getPostingStart(int id) {
+        return this.postingOffset[id];
+    }
+
+    int getPostingEnd(int id) {
+        return this.postingOffset[id + 1];
+    }
+
+    int getPostingFingerprint(int p) {
+        return this.postingFingerprint[p];
+    }
+
+    double getPostingRssi(int p) {
+        return this.postingRssi[p];
+    }
+
+    private boolean isRepeated(final int[] ids, int end, int p) {
+        for (int q = p + 1; q < end; q++) {
+            if (ids[q] == ids[p]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] sortByBase() {
+        return IntStream.range(0, this.base.length).boxed()
+                .sorted(Comparator.comparingDouble(f -> this.base[f]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int nextField(final String line, int start) {
+        final int end = line.indexOf(DEFAULT_DELIMITER, start);
+        return end < 0 ? line.length() : end;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import lombok.Getter;
+
+/**
+ * Fingerprint matcher class to estimate client position by weighted k nearest
+ * fingerprints of a radio map. Live (filtered) rssi of access points is
+ * collected by {@link #add(String, double)}, {@link #locate(PositionFix)}
+ * finds k fingerprints with the smallest signal distance using inverted lists
+ * of the index and returns the average of their locations weighted by
+ * inverse signal distance. Residual of the fix is the signal distance (dB) of
+ * the nearest fingerprint.
+ *
+ * Matcher keeps scratch arrays sized by the index and is not thread safe;
+ * use one instance per thread over a shared index.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class FingerprintMatcher {
+
+    /**
+     * Default number of nearest fingerprints
+     */
+    public static final int DEFAULT_NEIGHBOURS = 4;
+    /**
+     * Default signal distance added to weights to avoid division by zero
+     */
+    private static final double WEIGHT_EPSILON = 1e-3;
+
+    @Getter
+    private final FingerprintIndex index;
+    @Getter
+    private final int neighbours;
+    private final double[] accumulator;
+    private final int[] stamp;
+    private final int[] touched;
+    private final int[] nearest;
+    private final double[] distances;
+    private int epoch;
+    private int[] queryId = new int[16];
+    private double[] queryRssi = new double[16];
+    private int querySize;
+    private double queryBase;
+
+    public FingerprintMatcher(final FingerprintIndex index) {
+        this(index, DEFAULT_NEIGHBOURS);
+    }
+
+    public FingerprintMatcher(final FingerprintIndex index, int neighbours) {
+        Objects.requireNonNull(index, "ERROR: index should not be null");
+        if (neighbours <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect number of neighbours (%s)", neighbours));
+        }
+        this.index = index;
+        this.neighbours = neighbours;
+        this.accumulator = new double[index.size()];
+        this.stamp = new int[index.size()];
+        this.touched = new int[index.size()];
+        this.nearest = new int[neighbours];
+        this.distances = new double[neighbours];
+    }
+
+    /**
+     * Clears collected rssi
+     */
+    public void reset() {
+        this.querySize = 0;
+        this.queryBase = 0;
+    }
+
+    /**
+     * Adds access point rssi to query (each bssid is expected once per query)
+     *
+     * @param bssid - access point bssid
+     * @param rssi - filtered rssi (dBm)
+     */
+    public void add(final String bssid, double rssi) {
+        if (!Double.isFinite(rssi)) {
+            return;
+        }
+        final double value = Math.max(rssi, this.index.getMissingRssi());
+        final double d = value - this.index.getMissingRssi();
+        this.queryBase += d * d;
+        final int id = this.index.getBssidId(bssid);
+        if (id < 0) {
+            return;
+        }
+        if (this.querySize == this.queryId.length) {
+            this.queryId = Arrays.copyOf(this.queryId, this.querySize << 1);
+            this.queryRssi = Arrays.copyOf(this.queryRssi, this.querySize << 1);
+        }
+        this.queryId[this.querySize] = id;
+        this.queryRssi[this.querySize++] = value;
+    }
+
+    /**
+     * Replaces query by filtered rssi of network entities
+     *
+     * @param networks - network entities
+     * @param count - number of entities to use
+     */
+    public void set(final NetworkEntity[] networks, int count) {
+        this.reset();
+        for (int i = 0; i < count; i++) {
+            this.add(networks[i].getBssid(), networks[i].getRssi());
+        }
+    }
+
+    /**
+     * Estimates client position from collected rssi
+     *
+     * @param fix - client fix (updated in place)
+     * @return updated fix
+     */
+    public PositionFix locate(final PositionFix fix) {
+        Objects.requireNonNull(fix, "ERROR: fix should not be null");
+        final int count = this.search();
+        fix.setAccessPoints(this.querySize);
+        fix.setIterations(0);
+        if (count == 0) {
+            fix.setValid(false);
+            return fix;
+        }
+        double sw = 0, sx = 0, sy = 0;
+        for (int i = 0; i < count; i++) {
+            final double w = 1.0 / (this.distances[i] + WEIGHT_EPSILON);
+            sw += w;
+            sx += w * this.index.getEast(this.nearest[i]);
+            sy += w * this.index.getNorth(this.nearest[i]);
+        }
+        final double x = sx / sw;
+        final double y = sy / sw;
+        fix.setValid(true);
+        fix.setEast(x);
+        fix.setNorth(y);
+        fix.setLatitude(this.index.getProjection().toLatitude(y));
+        fix.setLongitude(this.index.getProjection().toLongitude(x));
+        fix.setResidual(this.distances[0]);
+        return fix;
+    }
+
+    /**
+     * Finds nearest fingerprints of collected rssi
+     *
+     * @param result - fingerprint positions (at least neighbours)
+     * @param distances - signal distances (dB, at least neighbours)
+     * @return number of fingerprints found
+     */
+    public int nearest(final int[] result, final double[] distances) {
+        final int count = this.search();
+        System.arraycopy(this.nearest, 0, result, 0, count);
+        System.arraycopy(this.distances, 0, distances, 0, count);
+        return count;
+    }
+
+    private int search() {
+        if (this.querySize == 0) {
+            return 0;
+        }
+        if (++this.epoch == 0) {
+            Arrays.fill(this.stamp, 0);
+            this.epoch = 1;
+        }
+        final double missing = this.index.getMissingRssi();
+        int touchedSize = 0;
+        for (int j = 0; j < this.querySize; j++) {
+            final double q = this.queryRssi[j];
+            final double qm = (q - missing) * (q - missing);
+            for (int p = this.index.getPostingStart(this.queryId[j]), end = this.index.getPostingEnd(this.queryId[j]); p < end; p++) {
+                final int f = this.index.getPostingFingerprint(p);
+                if (this.stamp[f] != this.epoch) {
+                    this.stamp[f] = this.epoch;
+                    this.accumulator[f] = 0;
+                    this.touched[touchedSize++] = f;
+                }
+                final double v = this.index.getPostingRssi(p);
+                this.accumulator[f] += (q - v) * (q - v) - (v - missing) * (v - missing) - qm;
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < touchedSize; i++) {
+            final int f = this.touched[i];
+            count = this.insert(f, this.index.getBase(f) + this.queryBase + this.accumulator[f], count);
+        }
+        for (int i = 0, size = this.index.size(); i < size; i++) {
+            final int f = this.index.getOrder(i);
+            final double d = this.index.getBase(f) + this.queryBase;
+            if (count == this.neighbours && d >= this.distances[count - 1]) {
+                break;
+            }
+            if (this.stamp[f] != this.epoch) {
+                count = this.insert(f, d, count);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            this.distances[i] = Math.sqrt(Math.max(this.distances[i], 0));
+        }
+        return count;
+    }
+
+    private int insert(int f, double d, int count) {
+        if (count == this.neighbours && d >= this.distances[count - 1]) {
+            return count;
+        }
+        int i = count < this.neighbours ? count++ : count - 1;
+        while (i > 0 && this.distances[i - 1] > d) {
+            this.distances[i] = this.distances[i - 1];
+            this.nearest[i] = this.nearest[i - 1];
+            i--;
+        }
+        this.distances[i] = d;
+        this.nearest[i] = f;
+        return count;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkLocation;
+
+import java.util.Objects;
+
+import lombok.Getter;
+
+/**
+ * Local projection class to convert geographic coordinates (degrees) into a
+ * planar east / north frame (meters) around a reference point and back. Uses
+ * the equirectangular approximation, which is accurate to centimeters over
+ * the extent of a building or campus.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+public class LocalProjection {
+
+    /**
+     * Default mean earth radius (meters)
+     */
+    public static final double EARTH_RADIUS = 6371008.8;
+
+    private final double originLatitude;
+    private final double originLongitude;
+    private final double metersPerDegreeLatitude;
+    private final double metersPerDegreeLongitude;
+
+    public LocalProjection(final INetworkLocation origin) {
+        this(toDegrees(origin, true), toDegrees(origin, false));
+    }
+
+    public LocalProjection(double originLatitude, double originLongitude) {
+        if (Double.isNaN(originLatitude) || Math.abs(originLatitude) >= 90.0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect origin latitude (%s)", originLatitude));
+        }
+        if (Double.isNaN(originLongitude) || Math.abs(originLongitude) > 180.0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect origin longitude (%s)", originLongitude));
+        }
+        this.originLatitude = originLatitude;
+        this.originLongitude = originLongitude;
+        this.metersPerDegreeLatitude = Math.toRadians(EARTH_RADIUS);
+        this.metersPerDegreeLongitude = this.metersPerDegreeLatitude * Math.cos(Math.toRadians(originLatitude));
+    }
+
+    public double toEast(double longitude) {
+        return (longitude - this.originLongitude) * this.metersPerDegreeLongitude;
+    }
+
+    public double toNorth(double latitude) {
+        return (latitude - this.originLatitude) * this.metersPerDegreeLatitude;
+    }
+
+    public double toLongitude(double east) {
+        return this.originLongitude + east / this.metersPerDegreeLongitude;
+    }
+
+    public double toLatitude(double north) {
+        return this.originLatitude + north / this.metersPerDegreeLatitude;
+    }
+
+    static double toDegrees(final INetworkLocation location, boolean latitude) {
+        Objects.requireNonNull(location, "ERROR: location should not be null");
+        final Number value = latitude ? location.getLatitude() : location.getLongitude();
+        if (Objects.isNull(value)) {
+            throw new IllegalArgumentException(String.format("ERROR: incomplete location (%s)", location));
+        }
+        return value.doubleValue();
+    }
+}
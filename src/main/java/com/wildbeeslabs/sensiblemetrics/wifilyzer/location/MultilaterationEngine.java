@@ -0,0 +1,346 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkEntity;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.interfaces.INetworkLocation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.Getter;
+
+/**
+ * Multilateration engine class to estimate client position from distances to
+ * access points with known locations. Access point coordinates are projected
+ * once into a local east / north frame and kept in primitive arrays; each
+ * update runs a damped Gauss-Newton least squares solve that starts from the
+ * previous fix of the client, so a moving client typically converges in one
+ * or two iterations without allocation.
+ *
+ * When built over an access point index (site survey), access points are
+ * registered lazily the first time they are heard, so the solver only keeps
+ * the access points around the client rather than the whole venue.
+ *
+ * Distances are treated as horizontal ranges and weighted by 1 / d^2 since
+ * path loss estimates degrade with distance. Engine is not thread safe (it
+ * keeps scratch arrays); use one instance per thread.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class MultilaterationEngine {
+
+    /**
+     * Default minimum number of access points per fix
+     */
+    public static final int MIN_ACCESS_POINTS = 3;
+    /**
+     * Default maximum number of solver iterations
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 16;
+    /**
+     * Default convergence tolerance (meters)
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-3;
+    /**
+     * Default relative damping of normal equations
+     */
+    private static final double DAMPING = 1e-9;
+    /**
+     * Default minimum distance used for weights and jacobian (meters)
+     */
+    private static final double MIN_DISTANCE = 1e-6;
+
+    @Getter
+    private final LocalProjection projection;
+    @Getter
+    private final int maxIterations;
+    @Getter
+    private final double tolerance;
+    @Getter
+    private final AccessPointIndex accessPointIndex;
+    private final Map<String, Integer> index = new HashMap<>();
+    private double[] apEast = new double[16];
+    private double[] apNorth = new double[16];
+    private int size;
+    private double[] east = new double[16];
+    private double[] north = new double[16];
+    private double[] range = new double[16];
+    private double[] weight = new double[16];
+
+    public MultilaterationEngine(final LocalProjection projection) {
+        this(projection, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+    }
+
+    public MultilaterationEngine(final AccessPointIndex accessPointIndex) {
+        this(accessPointIndex.getProjection(), DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE, accessPointIndex);
+    }
+
+    public MultilaterationEngine(final LocalProjection projection, int maxIterations, double tolerance) {
+        this(projection, maxIterations, tolerance, null);
+    }
+
+    private MultilaterationEngine(final LocalProjection projection, int maxIterations, double tolerance, final AccessPointIndex accessPointIndex) {
+        Objects.requireNonNull(projection, "ERROR: projection should not be null");
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect max iterations (%s)", maxIterations));
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect tolerance (%s)", tolerance));
+        }
+        this.projection = projection;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.accessPointIndex = accessPointIndex;
+    }
+
+    /**
+     * Registers (or moves) access point by geographic location
+     *
+     * @param bssid - access point bssid
+     * @param location - access point location
+     * @return access point index
+     */
+    public int addAccessPoint(final String bssid, final INetworkLocation location) {
+        return this.addAccessPoint(bssid,
+                this.projection.toEast(LocalProjection.toDegrees(location, false)),
+                this.projection.toNorth(LocalProjection.toDegrees(location, true)));
+    }
+
+    /**
+     * Registers (or moves) access point by local coordinates
+     *
+     * @param bssid - access point bssid
+     * @param east - east offset from origin (meters)
+     * @param north - north offset from origin (meters)
+     * @return access point index
+     */
+    public int addAccessPoint(final String bssid, double east, double north) {
+        Objects.requireNonNull(bssid, "ERROR: bssid should not be null");
+        if (!Double.isFinite(east) || !Double.isFinite(north)) {
+            throw new IllegalArgumentException(String.format("ERROR: incorrect access point position (%s, %s)", east, north));
+        }
+        Integer i = this.index.get(bssid);
+        if (Objects.isNull(i)) {
+            if (this.size == this.apEast.length) {
+                this.apEast = Arrays.copyOf(this.apEast, this.size << 1);
+                this.apNorth = Arrays.copyOf(this.apNorth, this.size << 1);
+            }
+            i = this.size++;
+            this.index.put(bssid, i);
+        }
+        this.apEast[i] = east;
+        this.apNorth[i] = north;
+        return i;
+    }
+
+    /**
+     * Returns access point index or -1 if bssid is not registered (access
+     * points of the site survey index are registered on first lookup)
+     *
+     * @param bssid - access point bssid
+     * @return access point index
+     */
+    public int getAccessPointIndex(final String bssid) {
+        final Integer i = this.index.get(bssid);
+        if (Objects.nonNull(i)) {
+            return i;
+        }
+        if (Objects.nonNull(this.accessPointIndex)) {
+            final int j = this.accessPointIndex.indexOf(bssid);
+            if (j >= 0) {
+                return this.addAccessPoint(bssid, this.accessPointIndex.getEast(j), this.accessPointIndex.getNorth(j));
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(final String bssid) {
+        return this.index.containsKey(bssid);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Estimates client position from network entities (distance and bssid).
+     * Entities with bssid unknown to the engine and its site survey index are
+     * registered from their own location if set, otherwise skipped together with entities without distance.
+     *
+     * @param networks - network entities
+     * @param count - number of entities to use
+     * @param fix - previous fix of the client (updated in place)
+     * @return updated fix
+     */
+    public PositionFix locate(final NetworkEntity[] networks, int count, final PositionFix fix) {
+        this.ensureCapacity(count);
+        int n = 0;
+        for (int j = 0; j < count; j++) {
+            final NetworkEntity network = networks[j];
+            int i = this.getAccessPointIndex(network.getBssid());
+            if (i < 0) {
+                if (Objects.isNull(network.getLocation())) {
+                    continue;
+                }
+                i = this.addAccessPoint(network.getBssid(), network.getLocation());
+            }
+            n = this.append(n, i, network.getDistance());
+        }
+        return this.solve(n, fix);
+    }
+
+    /**
+     * Estimates client position from access point indexes and distances
+     *
+     * @param accessPoints - access point indexes
+     * @param distances - distances to access points (meters)
+     * @param count - number of measurements to use
+     * @param fix - previous fix of the client (updated in place)
+     * @return updated fix
+     */
+    public PositionFix locate(final int[] accessPoints, final double[] distances, int count, final PositionFix fix) {
+        this.ensureCapacity(count);
+        int n = 0;
+        for (int j = 0; j < count; j++) {
+            final int i = accessPoints[j];
+            if (i < 0 || i >= this.size) {
+                throw new IllegalArgumentException(String.format("ERROR: unknown access point index (%s)", i));
+            }
+            n = this.append(n, i, distances[j]);
+        }
+        return this.solve(n, fix);
+    }
+
+    private int append(int n, int i, double distance) {
+        if (!Double.isFinite(distance) || distance < 0) {
+            return n;
+        }
+        final double d = Math.max(distance, 1.0);
+        this.east[n] = this.apEast[i];
+        this.north[n] = this.apNorth[i];
+        this.range[n] = distance;
+        this.weight[n] = 1.0 / (d * d);
+        return n + 1;
+    }
+
+    private PositionFix solve(int n, final PositionFix fix) {
+        Objects.requireNonNull(fix, "ERROR: fix should not be null");
+        fix.setAccessPoints(n);
+        if (n < MIN_ACCESS_POINTS) {
+            fix.setValid(false);
+            fix.setIterations(0);
+            return fix;
+        }
+        double x;
+        double y;
+        if (fix.isValid()) {
+            x = fix.getEast();
+            y = fix.getNorth();
+        } else {
+            double sw = 0, sx = 0, sy = 0;
+            for (int i = 0; i < n; i++) {
+                final double w = 1.0 / Math.max(this.range[i], 1.0);
+                sw += w;
+                sx += w * this.east[i];
+                sy += w * this.north[i];
+            }
+            x = sx / sw;
+            y = sy / sw;
+        }
+        int iteration = 0;
+        while (iteration < this.maxIterations) {
+            iteration++;
+            double a11 = 0, a12 = 0, a22 = 0, b1 = 0, b2 = 0;
+            for (int i = 0; i < n; i++) {
+                double dx = x - this.east[i];
+                double dy = y - this.north[i];
+                double r = Math.sqrt(dx * dx + dy * dy);
+                if (r < MIN_DISTANCE) {
+                    dx = r = MIN_DISTANCE;
+                    dy = 0;
+                }
+                final double ux = dx / r;
+                final double uy = dy / r;
+                final double w = this.weight[i];
+                final double res = r - this.range[i];
+                a11 += w * ux * ux;
+                a12 += w * ux * uy;
+                a22 += w * uy * uy;
+                b1 -= w * ux * res;
+                b2 -= w * uy * res;
+            }
+            final double mu = DAMPING * (a11 + a22) + Double.MIN_NORMAL;
+            a11 += mu;
+            a22 += mu;
+            final double det = a11 * a22 - a12 * a12;
+            if (!(det > 0)) {
+                break;
+            }
+            final double sx = (b1 * a22 - b2 * a12) / det;
+            final double sy = (a11 * b2 - a12 * b1) / det;
+            x += sx;
+            y += sy;
+            if (sx * sx + sy * sy < this.tolerance * this.tolerance) {
+                break;
+            }
+        }
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            fix.reset();
+            fix.setAccessPoints(n);
+            fix.setIterations(iteration);
+            return fix;
+        }
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            final double dx = x - this.east[i];
+            final double dy = y - this.north[i];
+            final double res = Math.sqrt(dx * dx + dy * dy) - this.range[i];
+            sum += res * res;
+        }
+        fix.setValid(true);
+        fix.setEast(x);
+        fix.setNorth(y);
+        fix.setLatitude(this.projection.toLatitude(y));
+        fix.setLongitude(this.projection.toLongitude(x));
+        fix.setResidual(Math.sqrt(sum / n));
+        fix.setIterations(iteration);
+        return fix;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > this.range.length) {
+            final int capacity = Math.max(count, this.range.length << 1);
+            this.east = new double[capacity];
+            this.north = new double[capacity];
+            this.range = new double[capacity];
+            this.weight = new double[capacity];
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Position fix class to hold a client position estimate. Instances are
+ * mutable and meant to be kept per client and passed back to the engine on
+ * the next update, which uses a valid fix as the starting point of the
+ * solver.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public class PositionFix {
+
+    private boolean valid;
+    private double east = Double.NaN;
+    private double north = Double.NaN;
+    private double latitude = Double.NaN;
+    private double longitude = Double.NaN;
+    private double residual = Double.NaN;
+    private int accessPoints;
+    private int iterations;
+
+    /**
+     * Invalidates current fix (next update starts from scratch)
+     */
+    public void reset() {
+        this.valid = false;
+        this.east = this.north = Double.NaN;
+        this.latitude = this.longitude = Double.NaN;
+        this.residual = Double.NaN;
+        this.accessPoints = 0;
+        this.iterations = 0;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Device metrics registry class to cache device metrics profiles by key
+ * (device model). Profiles file rows: key,A,B,C,txPower; empty rows and rows
+ * starting with '#' are ignored, invalid rows are skipped with a warning.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class DeviceMetricsRegistry {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(DeviceMetricsRegistry.class);
+    /**
+     * Default profiles field delimiter
+     */
+    public static final String DEFAULT_DELIMITER = ",";
+    /**
+     * Default profiles comment prefix
+     */
+    public static final String COMMENT_PREFIX = "#";
+    /**
+     * Default profiles header
+     */
+    public static final String DEFAULT_HEADER = COMMENT_PREFIX + " key,A,B,C,txPower";
+
+    private final Map<String, DeviceMetricsProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Loads registry from profiles file
+     *
+     * @param profilesFile - profiles file
+     * @return device metrics registry
+     * @throws IOException
+     */
+    public static DeviceMetricsRegistry load(final File profilesFile) throws IOException {
+        final DeviceMetricsRegistry registry = new DeviceMetricsRegistry();
+        try (final BufferedReader reader = FileUtils.newBufferedReader(profilesFile)) {
+            String line;
+            int lineNumber = 0;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                final String[] fields = line.split(DEFAULT_DELIMITER);
+                try {
+                    if (fields.length != 5) {
+                        throw new NumberFormatException(String.format("ERROR: expected key,A,B,C,txPower fields in row=(%s)", line));
+                    }
+                    registry.put(fields[0].trim(), new DeviceMetricsProfile(
+                            Double.parseDouble(fields[1].trim()),
+                            Double.parseDouble(fields[2].trim()),
+                            Double.parseDouble(fields[3].trim()),
+                            Integer.parseInt(fields[4].trim())));
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=%s", lineNumber, ex.getMessage()));
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Writes registry to profiles file (ordered by key)
+     *
+     * @param profilesFile - profiles file
+     * @throws IOException
+     */
+    public void save(final File profilesFile) throws IOException {
+        try (final PrintWriter writer = FileUtils.newPrintWriter(profilesFile)) {
+            writer.println(DEFAULT_HEADER);
+            for (final Map.Entry<String, DeviceMetricsProfile> entry : new TreeMap<>(this.profiles).entrySet()) {
+                final DeviceMetricsProfile profile = entry.getValue();
+                writer.println(String.join(DEFAULT_DELIMITER, entry.getKey(),
+                        String.valueOf(profile.getCoefficientA()),
+                        String.valueOf(profile.getCoefficientB()),
+                        String.valueOf(profile.getCoefficientC()),
+                        String.valueOf(profile.getTxPower())));
+            }
+            if (writer.checkError()) {
+                throw new IOException(String.format("ERROR: cannot write to profiles file=%s", profilesFile));
+            }
+        }
+    }
+
+    public void put(final String key, final DeviceMetricsProfile profile) {
+        Objects.requireNonNull(key, "ERROR: key should not be null");
+        Objects.requireNonNull(profile, "ERROR: profile should not be null");
+        this.profiles.put(key, profile);
+    }
+
+    /**
+     * Returns profile by key or null if key is unknown
+     *
+     * @param key - profile key (device model)
+     * @return device metrics profile
+     */
+    public DeviceMetricsProfile get(final String key) {
+        return this.profiles.get(key);
+    }
+
+    /**
+     * Returns profile by key or default embedded antenna profile if key is
+     * unknown
+     *
+     * @param key - profile key (device model)
+     * @return device metrics profile
+     */
+    public DeviceMetricsProfile getOrDefault(final String key) {
+        final DeviceMetricsProfile profile = Objects.isNull(key) ? null : this.profiles.get(key);
+        return Objects.isNull(profile) ? new DeviceMetricsProfile() : profile;
+    }
+
+    public boolean contains(final String key) {
+        return this.profiles.containsKey(key);
+    }
+
+    public Set<String> getKeys() {
+        return this.profiles.keySet();
+    }
+
+    public int size() {
+        return this.profiles.size();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IBaseDeviceMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IDistanceModel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * Lookup table distance model class.
+ *
+ * Path loss curve is tabulated with fixed rssi step over [minRssi, maxRssi]
+ * and distance is linearly interpolated between neighbouring points. For a
+ * cell of width h the interpolation error is bounded by h^2 / 8 * max|d''|,
+ * where d'' = A * B * (B - 1) * ratio^(B - 2) / txPower^2; for default
+ * embedded antenna metrics, txPower = -59 dBm and 0.01 dBm step it is below
+ * 3.2e-6 m over the default range. The actual maximum error (probed at cell
+ * midpoints) is available by {@link #getMaxAbsoluteError()}. Values outside
+ * of the table range and the cell that contains the curve break point
+ * (rssi = txPower) are calculated exactly.
+ *
+ * Tables are immutable and shared per (device metrics, txPower); at most
+ * {@link #DEFAULT_MAX_TABLES} least recently used tables (about 100 KB each)
+ * are kept, so many vendor profiles do not grow the cache without limit.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode(of = {"deviceMetrics", "txPower", "minRssi", "maxRssi", "step"})
+@ToString(of = {"deviceMetrics", "txPower", "minRssi", "maxRssi", "step", "maxAbsoluteError"})
+public class LookupTableDistanceModel implements IDistanceModel {
+
+    /**
+     * Default minimum tabulated rssi
+     */
+    public static final double DEFAULT_MIN_RSSI = -130.0;
+    /**
+     * Default maximum tabulated rssi
+     */
+    public static final double DEFAULT_MAX_RSSI = 0.0;
+    /**
+     * Default rssi step
+     */
+    public static final double DEFAULT_RSSI_STEP = 0.01;
+    /**
+     * Default maximum number of shared tables
+     */
+    public static final int DEFAULT_MAX_TABLES = 64;
+    /**
+     * Shared tables by device metrics and transmission power (least recently
+     * used order, guarded by itself)
+     */
+    private static final Map<TableKey, LookupTableDistanceModel> TABLES = new LinkedHashMap<TableKey, LookupTableDistanceModel>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<TableKey, LookupTableDistanceModel> eldest) {
+            return this.size() > DEFAULT_MAX_TABLES;
+        }
+    };
+
+    private final IBaseDeviceMetrics deviceMetrics;
+    private final int txPower;
+    private final double minRssi;
+    private final double maxRssi;
+    private final double step;
+    private final double inverseStep;
+    private final double[] table;
+    private final int breakIndex;
+    private final double maxAbsoluteError;
+
+    public LookupTableDistanceModel(final IBaseDeviceMetrics deviceMetrics, int txPower) {
+        this(deviceMetrics, txPower, DEFAULT_MIN_RSSI, DEFAULT_MAX_RSSI, DEFAULT_RSSI_STEP);
+    }
+
+    public LookupTableDistanceModel(final IBaseDeviceMetrics deviceMetrics, int txPower, double minRssi, double maxRssi, double step) {
+        Objects.requireNonNull(deviceMetrics);
+        if (!(step > 0) || !(maxRssi > minRssi) || (maxRssi - minRssi) / step >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid table range min=(%s), max=(%s), step=(%s)", minRssi, maxRssi, step));
+        }
+        this.deviceMetrics = new EmbeddedAntennaMetrics(deviceMetrics.getCoefficientA(), deviceMetrics.getCoefficientB(), deviceMetrics.getCoefficientC());
+        this.txPower = txPower;
+        this.minRssi = minRssi;
+        this.maxRssi = maxRssi;
+        this.step = step;
+        this.inverseStep = 1.0 / step;
+        this.table = new double[(int) Math.ceil((maxRssi - minRssi) / step) + 1];
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = PathLossDistanceModel.calculatePathLoss(this.deviceMetrics, txPower, minRssi + i * step);
+        }
+        this.breakIndex = (int) Math.floor((txPower - minRssi) * this.inverseStep);
+        this.maxAbsoluteError = this.probeMaxAbsoluteError();
+    }
+
+    /**
+     * Returns shared lookup table distance model with default range
+     *
+     * @param deviceMetrics - device metrics
+     * @param txPower - access point transmission power
+     * @return lookup table distance model
+     */
+    public static LookupTableDistanceModel getInstance(final IBaseDeviceMetrics deviceMetrics, int txPower) {
+        final TableKey key = new TableKey(deviceMetrics.getCoefficientA(), deviceMetrics.getCoefficientB(), deviceMetrics.getCoefficientC(), txPower);
+        synchronized (TABLES) {
+            LookupTableDistanceModel model = TABLES.get(key);
+            if (Objects.isNull(model)) {
+                model = new LookupTableDistanceModel(deviceMetrics, txPower);
+                TABLES.put(key, model);
+            }
+            return model;
+        }
+    }
+
+    /**
+     * Returns number of shared tables
+     *
+     * @return number of shared tables
+     */
+    static int getTableCount() {
+        synchronized (TABLES) {
+            return TABLES.size();
+        }
+    }
+
+    @Override
+    public double calculateDistance(double rssi) {
+        final double position = (rssi - this.minRssi) * this.inverseStep;
+        if (!(position >= 0 && position < this.table.length - 1)) {
+            return this.calculateExactDistance(rssi);
+        }
+        final int index = (int) position;
+        if (index == this.breakIndex || index == this.breakIndex - 1) {
+            return this.calculateExactDistance(rssi);
+        }
+        final double lower = this.table[index];
+        return lower + (position - index) * (this.table[index + 1] - lower);
+    }
+
+    private double calculateExactDistance(double rssi) {
+        return PathLossDistanceModel.calculateDistance(this.deviceMetrics, this.txPower, rssi);
+    }
+
+    private double probeMaxAbsoluteError() {
+        double result = 0;
+        for (int i = 0; i < this.table.length - 1; i++) {
+            final double rssi = this.minRssi + (i + 0.5) * this.step;
+            result = Math.max(result, Math.abs(this.calculateDistance(rssi) - this.calculateExactDistance(rssi)));
+        }
+        return result;
+    }
+
+    /**
+     * Lookup table key
+     */
+    @Value
+    private static class TableKey {
+
+        private final double coefficientA;
+        private final double coefficientB;
+        private final double coefficientC;
+        private final int txPower;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Vendor prefix registry class to resolve device metrics profile of access
+ * point by bssid. Prefixes (OUI, MA-M, MA-S or any number of leading hex
+ * digits, separators are ignored) are kept in a 16-ary trie over primitive
+ * arrays and resolved by the longest matching prefix; resolved profiles are
+ * cached per bssid, so repeated lookups are a single hash map access.
+ *
+ * Prefixes file rows: prefix,A,B,C,txPower (the device metrics profiles
+ * format keyed by prefix), e.g. 00:1A:2B,0.42093,6.9476,0.54992,-59.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class OuiProfileRegistry {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(OuiProfileRegistry.class);
+    /**
+     * Maximum prefix length (hex digits of 48-bit bssid)
+     */
+    public static final int MAX_PREFIX_LENGTH = 12;
+    /**
+     * Trie radix (hex digit)
+     */
+    private static final int RADIX = 16;
+    /**
+     * Cached marker of bssid without matching prefix
+     */
+    private static final DeviceMetricsProfile NO_PROFILE = new DeviceMetricsProfile();
+
+    private final DeviceMetricsProfile[] profiles;
+    private int[] children = new int[RADIX * 64];
+    private int[] nodeProfile = new int[64];
+    private int nodes = 1;
+    private final Map<String, DeviceMetricsProfile> cache = new ConcurrentHashMap<>();
+
+    public OuiProfileRegistry(final DeviceMetricsRegistry prefixes) {
+        Objects.requireNonNull(prefixes, "ERROR: prefixes should not be null");
+        this.profiles = new DeviceMetricsProfile[prefixes.size()];
+        Arrays.fill(this.nodeProfile, -1);
+        int size = 0;
+        for (final String prefix : prefixes.getKeys()) {
+            final int node = this.insert(prefix);
+            if (node < 0) {
+                LOGGER.warn(String.format("WARN: skipping invalid prefix=(%s)", prefix));
+                continue;
+            }
+            this.profiles[size] = prefixes.get(prefix);
+            this.nodeProfile[node] = size++;
+        }
+    }
+
+    /**
+     * Loads registry from prefixes file
+     *
+     * @param prefixesFile - prefixes file
+     * @return vendor prefix registry
+     * @throws IOException
+     */
+    public static OuiProfileRegistry load(final File prefixesFile) throws IOException {
+        return new OuiProfileRegistry(DeviceMetricsRegistry.load(prefixesFile));
+    }
+
+    /**
+     * Returns device metrics profile of the longest prefix matching bssid or
+     * null if no prefix matches (result is cached per bssid)
+     *
+     * @param bssid - access point bssid
+     * @return device metrics profile
+     */
+    public DeviceMetricsProfile get(final String bssid) {
+        DeviceMetricsProfile profile = this.cache.get(bssid);
+        if (Objects.isNull(profile)) {
+            profile = this.lookup(bssid);
+            this.cache.put(bssid, Objects.isNull(profile) ? NO_PROFILE : profile);
+            return profile;
+        }
+        return NO_PROFILE == profile ? null : profile;
+    }
+
+    /**
+     * Returns device metrics profile of the longest prefix matching bssid or
+     * null if no prefix matches (not cached)
+     *
+     * @param bssid - access point bssid
+     * @return device metrics profile
+     */
+    public DeviceMetricsProfile lookup(final CharSequence bssid) {
+        int node = 0;
+        int match = this.nodeProfile[0];
+        for (int i = 0, digits = 0; i < bssid.length() && digits < MAX_PREFIX_LENGTH; i++) {
+            final int digit = Character.digit(bssid.charAt(i), RADIX);
+            if (digit < 0) {
+                if (isSeparator(bssid.charAt(i))) {
+                    continue;
+                }
+                break;
+            }
+            digits++;
+            node = this.children[node * RADIX + digit];
+            if (node == 0) {
+                break;
+            }
+            if (this.nodeProfile[node] >= 0) {
+                match = this.nodeProfile[node];
+            }
+        }
+        return match < 0 ? null : this.profiles[match];
+    }
+
+    /**
+     * Returns number of prefixes
+     *
+     * @return number of prefixes
+     */
+    public int size() {
+        int result = 0;
+        for (int i = 0; i < this.nodes; i++) {
+            if (this.nodeProfile[i] >= 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns number of cached bssids
+     *
+     * @return number of cached bssids
+     */
+    public int getCacheSize() {
+        return this.cache.size();
+    }
+
+    private int insert(final String prefix) {
+        int node = 0;
+        int digits = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final int digit = Character.digit(prefix.charAt(i), RADIX);
+            if (digit < 0) {
+                if (isSeparator(prefix.charAt(i))) {
+                    continue;
+                }
+                return -1;
+            }
+            if (++digits > MAX_PREFIX_LENGTH) {
+                return -1;
+            }
+            int child = this.children[node * RADIX + digit];
+            if (child == 0) {
+                child = this.newNode();
+                this.children[node * RADIX + digit] = child;
+            }
+            node = child;
+        }
+        return digits == 0 ? -1 : node;
+    }
+
+    private int newNode() {
+        if (this.nodes == this.nodeProfile.length) {
+            this.nodeProfile = Arrays.copyOf(this.nodeProfile, this.nodes << 1);
+            Arrays.fill(this.nodeProfile, this.nodes, this.nodeProfile.length, -1);
+            this.children = Arrays.copyOf(this.children, (this.nodes << 1) * RADIX);
+        }
+        return this.nodes++;
+    }
+
+    private static boolean isSeparator(char c) {
+        return ':' == c || '-' == c || '.' == c || Character.isWhitespace(c);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IBaseDeviceMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IDistanceModel;
+
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Path loss distance model class (exact calculation by device metrics)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PathLossDistanceModel implements IDistanceModel {
+
+    private final IBaseDeviceMetrics deviceMetrics;
+    private final int txPower;
+
+    public PathLossDistanceModel(final IBaseDeviceMetrics deviceMetrics, int txPower) {
+        this.deviceMetrics = Objects.requireNonNull(deviceMetrics);
+        this.txPower = txPower;
+    }
+
+    @Override
+    public double calculateDistance(double rssi) {
+        return calculateDistance(this.deviceMetrics, this.txPower, rssi);
+    }
+
+    /**
+     * Returns distance by rssi (-1.0 if rssi is unknown)
+     *
+     * @param deviceMetrics - device metrics
+     * @param txPower - access point transmission power
+     * @param rssi - filtered rssi
+     * @return distance to access point
+     */
+    public static double calculateDistance(final IBaseDeviceMetrics deviceMetrics, int txPower, double rssi) {
+        if (rssi == 0) {
+            return -1.0;
+        }
+        return calculatePathLoss(deviceMetrics, txPower, rssi);
+    }
+
+    /**
+     * Returns path loss curve value by rssi
+     *
+     * @param deviceMetrics - device metrics
+     * @param txPower - access point transmission power
+     * @param rssi - filtered rssi
+     * @return distance to access point
+     */
+    public static double calculatePathLoss(final IBaseDeviceMetrics deviceMetrics, int txPower, double rssi) {
+        double ratio = rssi * 1.0 / txPower;
+        if (ratio < 1.0) {
+            return Math.pow(ratio, 10);
+        }
+        return (deviceMetrics.getCoefficientA()) * Math.pow(ratio, deviceMetrics.getCoefficientB()) + deviceMetrics.getCoefficientC();
+    }
+}
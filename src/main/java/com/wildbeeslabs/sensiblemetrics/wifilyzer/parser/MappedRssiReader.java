@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IBaseTokenizer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+
+import lombok.Data;
+
+/**
+ * Mapped rssi reader class to parse ASCII encoded rssi values straight from
+ * memory-mapped input file, without charset decoding.
+ *
+ * Input file is split into segments at token boundaries (see
+ * {@link RssiTokenizer#isBoundary(int)}). With parallelism greater than one,
+ * every window of parallelism segments is parsed concurrently and parsed
+ * values are passed to the consumer in file order, so at most parallelism
+ * segments of values are kept in memory.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Data
+public class MappedRssiReader {
+
+    /**
+     * Default segment size in bytes
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 23;
+
+    private final Supplier<IBaseTokenizer> tokenizerFactory;
+    private final int parallelism;
+    private final int segmentSize;
+
+    public MappedRssiReader(final Supplier<IBaseTokenizer> tokenizerFactory, int parallelism) {
+        this(tokenizerFactory, parallelism, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedRssiReader(final Supplier<IBaseTokenizer> tokenizerFactory, int parallelism, int segmentSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid parallelism=(%d)", parallelism));
+        }
+        this.tokenizerFactory = Objects.requireNonNull(tokenizerFactory);
+        this.parallelism = parallelism;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Reads rssi values of input file
+     *
+     * @param inputFile - input file
+     * @param consumer - consumer of parsed values (called on the caller
+     * thread, in file order)
+     * @throws IOException - if input file cannot be mapped or reading is
+     * interrupted
+     */
+    public void read(final File inputFile, final DoubleConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        final List<MappedByteBuffer> segments = FileUtils.mapSegments(inputFile, this.segmentSize, RssiTokenizer::isBoundary);
+        if (1 == this.parallelism || segments.size() < 2) {
+            final IBaseTokenizer tokenizer = this.tokenizerFactory.get();
+            for (final ByteBuffer segment : segments) {
+                tokenizer.tokenize(segment, consumer);
+            }
+            tokenizer.flush(consumer);
+            return;
+        }
+        final SegmentTask[] tasks = new SegmentTask[Math.min(this.parallelism, segments.size())];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new SegmentTask(this.tokenizerFactory.get());
+        }
+        final List<SegmentTask> window = new ArrayList<>(tasks.length);
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            for (int from = 0; from < segments.size(); from += tasks.length) {
+                window.clear();
+                for (int i = 0; i < tasks.length && from + i < segments.size(); i++) {
+                    tasks[i].reset(segments.get(from + i));
+                    segments.set(from + i, null);
+                    window.add(tasks[i]);
+                }
+                for (final Future<Void> future : pool.invokeAll(window)) {
+                    future.get();
+                }
+                for (final SegmentTask task : window) {
+                    task.drainTo(consumer);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("ERROR: reading of input file=%s is interrupted", String.valueOf(inputFile)));
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Segment task class to parse values of a single segment into reusable
+     * buffer
+     */
+    private static final class SegmentTask implements Callable<Void>, DoubleConsumer {
+
+        private final IBaseTokenizer tokenizer;
+        private ByteBuffer segment;
+        private double[] values = new double[1024];
+        private int count;
+
+        SegmentTask(final IBaseTokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+        }
+
+        void reset(final ByteBuffer segment) {
+            this.segment = segment;
+            this.count = 0;
+            this.tokenizer.reset();
+        }
+
+        @Override
+        public Void call() {
+            this.tokenizer.tokenize(this.segment, this);
+            this.tokenizer.flush(this);
+            this.segment = null;
+            return null;
+        }
+
+        @Override
+        public void accept(double value) {
+            if (this.count == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.count << 1);
+            }
+            this.values[this.count++] = value;
+        }
+
+        void drainTo(final DoubleConsumer consumer) {
+            for (int i = 0; i < this.count; i++) {
+                consumer.accept(this.values[i]);
+            }
+            this.count = 0;
+        }
+    }
+}
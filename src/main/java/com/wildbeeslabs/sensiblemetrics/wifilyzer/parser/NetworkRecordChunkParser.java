@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IChunkParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.INetworkRecordConsumer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.FileUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Network record chunk parser class to parse rows of chunked input (see
+ * {@link NetworkRecordParser}). Rows end with "\n" or "\r\n" and are decoded
+ * with the default file character encoding (as rows of batch input), invalid
+ * rows, rows of invalid byte sequences and rows longer than the maximum row
+ * length are skipped with a warning, so memory usage is bounded whatever the
+ * input is.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode(exclude = {"decoder", "row", "line"})
+@ToString(exclude = {"decoder", "row", "line"})
+public class NetworkRecordChunkParser implements IChunkParser {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(NetworkRecordChunkParser.class);
+    /**
+     * Default maximum row length in bytes
+     */
+    public static final int DEFAULT_MAX_ROW_LENGTH = 4096;
+
+    private final NetworkRecordParser parser;
+    private final INetworkRecordConsumer consumer;
+    private final CharsetDecoder decoder = FileUtils.DEFAULT_FILE_CHARACTER_ENCODING.newDecoder();
+    /**
+     * Bytes of the current row
+     */
+    private final ByteBuffer row;
+    /**
+     * Decoded current row
+     */
+    private final CharBuffer line;
+    /**
+     * Current row has ASCII bytes only
+     */
+    private boolean ascii = true;
+    /**
+     * Current row exceeds maximum row length
+     */
+    private boolean oversize;
+    private long lineNumber;
+
+    public NetworkRecordChunkParser(final NetworkRecordParser parser, final INetworkRecordConsumer consumer) {
+        this(parser, consumer, DEFAULT_MAX_ROW_LENGTH);
+    }
+
+    public NetworkRecordChunkParser(final NetworkRecordParser parser, final INetworkRecordConsumer consumer, int maxRowLength) {
+        if (maxRowLength < 1) {
+            throw new IllegalArgumentException(String.format("ERROR: maximum row length=(%d) must be positive", maxRowLength));
+        }
+        this.parser = Objects.requireNonNull(parser);
+        this.consumer = Objects.requireNonNull(consumer);
+        this.row = ByteBuffer.allocate(maxRowLength);
+        this.line = CharBuffer.allocate(maxRowLength);
+    }
+
+    @Override
+    public void parse(final ByteBuffer chunk) {
+        final int limit = chunk.limit();
+        for (int i = chunk.position(); i < limit; i++) {
+            final byte ch = chunk.get(i);
+            if ('\n' == ch) {
+                this.completeLine();
+            } else if (this.row.hasRemaining()) {
+                this.row.put(ch);
+                this.ascii &= (ch >= 0);
+            } else {
+                this.oversize = true;
+            }
+        }
+        chunk.position(limit);
+    }
+
+    @Override
+    public void flush() {
+        if (this.row.position() > 0 || this.oversize) {
+            this.completeLine();
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.clear();
+        this.lineNumber = 0;
+    }
+
+    private void completeLine() {
+        this.lineNumber++;
+        try {
+            if (this.oversize) {
+                throw new NumberFormatException(String.format("ERROR: row length exceeds maximum length=(%d)", this.row.capacity()));
+            }
+            int length = this.row.position();
+            if (length > 0 && '\r' == this.row.get(length - 1)) {
+                length--;
+            }
+            this.line.clear();
+            if (this.ascii) {
+                for (int i = 0; i < length; i++) {
+                    this.line.put((char) this.row.get(i));
+                }
+            } else {
+                this.row.flip();
+                this.row.limit(length);
+                this.decoder.reset();
+                CoderResult result = this.decoder.decode(this.row, this.line, true);
+                if (!result.isError()) {
+                    result = this.decoder.flush(this.line);
+                }
+                if (result.isError()) {
+                    throw new NumberFormatException(String.format("ERROR: invalid %s byte sequence", this.decoder.charset()));
+                }
+            }
+            this.line.flip();
+            this.parser.parse(this.line, this.consumer);
+        } catch (NumberFormatException ex) {
+            LOGGER.warn(String.format("WARN: skipping invalid row=(%d), message=%s", this.lineNumber, ex.getMessage()));
+        } finally {
+            this.clear();
+        }
+    }
+
+    private void clear() {
+        this.row.clear();
+        this.ascii = true;
+        this.oversize = false;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IBaseTokenizer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.INetworkRecordConsumer;
+
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Network record parser class to read rows of the form
+ * <pre>
+ * bssid,rssi[,timestamp]
+ * </pre>
+ * without regular expressions (bssid may contain colons, so rows are split on
+ * commas only)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public class NetworkRecordParser implements DoubleConsumer {
+
+    /**
+     * Default field delimiter
+     */
+    public static final char DEFAULT_FIELD_DELIMITER = ',';
+    /**
+     * Missing timestamp marker
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final IBaseTokenizer tokenizer;
+    private double value;
+    private int valueCount;
+
+    public NetworkRecordParser() {
+        this(new RssiTokenizer());
+    }
+
+    public NetworkRecordParser(final IBaseTokenizer tokenizer) {
+        this.tokenizer = Objects.requireNonNull(tokenizer);
+    }
+
+    /**
+     * Parses input row and passes parsed record to consumer
+     *
+     * @param line - input row
+     * @param consumer - record consumer
+     * @return true - if record is parsed, false - if row is blank
+     */
+    public boolean parse(final CharSequence line, final INetworkRecordConsumer consumer) {
+        Objects.requireNonNull(line);
+        Objects.requireNonNull(consumer);
+        final int length = line.length();
+        int bssidStart = 0;
+        while (bssidStart < length && Character.isWhitespace(line.charAt(bssidStart))) {
+            bssidStart++;
+        }
+        if (bssidStart == length) {
+            return false;
+        }
+        final int bssidEnd = indexOf(line, DEFAULT_FIELD_DELIMITER, bssidStart);
+        if (bssidEnd < 0) {
+            throw new NumberFormatException(String.format("ERROR: missing rssi field in row=(%s)", line));
+        }
+        final int rssiEnd = indexOf(line, DEFAULT_FIELD_DELIMITER, bssidEnd + 1);
+        final double rssi = this.parseRssi(line, bssidEnd + 1, (rssiEnd < 0 ? length : rssiEnd));
+        final long timestamp = (rssiEnd < 0) ? NO_TIMESTAMP : parseLong(line, rssiEnd + 1, length);
+        consumer.accept(trim(line, bssidStart, bssidEnd), rssi, timestamp);
+        return true;
+    }
+
+    @Override
+    public void accept(double value) {
+        this.value = value;
+        this.valueCount++;
+    }
+
+    private double parseRssi(final CharSequence line, int start, int end) {
+        this.valueCount = 0;
+        this.tokenizer.reset();
+        this.tokenizer.tokenize(line, start, end - start, this);
+        this.tokenizer.flush(this);
+        if (1 != this.valueCount) {
+            throw new NumberFormatException(String.format("ERROR: invalid rssi field in row=(%s)", line));
+        }
+        return this.value;
+    }
+
+    private static long parseLong(final CharSequence line, int start, int end) {
+        while (start < end && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return NO_TIMESTAMP;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            final char ch = line.charAt(i);
+            if (ch < '0' || ch > '9' || result > (Long.MAX_VALUE - (ch - '0')) / 10) {
+                throw new NumberFormatException(String.format("ERROR: invalid timestamp field in row=(%s)", line));
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return result;
+    }
+
+    private static int indexOf(final CharSequence line, char ch, int start) {
+        for (int i = start, length = line.length(); i < length; i++) {
+            if (ch == line.charAt(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String trim(final CharSequence line, int start, int end) {
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IBaseTokenizer;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IChunkParser;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Rssi chunk parser class to parse delimited rssi values of chunked input.
+ * Invalid tokens are skipped (up to the next token boundary) with a warning,
+ * so a long-running follow or pipe input survives a malformed value.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public class RssiChunkParser implements IChunkParser {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RssiChunkParser.class);
+
+    private final IBaseTokenizer tokenizer;
+    private final DoubleConsumer consumer;
+    /**
+     * Rest of invalid token is being skipped
+     */
+    private boolean skipping;
+
+    public RssiChunkParser(final IBaseTokenizer tokenizer, final DoubleConsumer consumer) {
+        this.tokenizer = Objects.requireNonNull(tokenizer);
+        this.consumer = Objects.requireNonNull(consumer);
+    }
+
+    @Override
+    public void parse(final ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            if (this.skipping) {
+                while (chunk.hasRemaining() && !RssiTokenizer.isBoundary(chunk.get(chunk.position()) & 0xFF)) {
+                    chunk.get();
+                }
+                if (!chunk.hasRemaining()) {
+                    return;
+                }
+                this.skipping = false;
+            }
+            try {
+                this.tokenizer.tokenize(chunk, this.consumer);
+            } catch (NumberFormatException ex) {
+                LOGGER.warn(String.format("WARN: skipping invalid token, message=%s", ex.getMessage()));
+                this.skipping = !RssiTokenizer.isBoundary(chunk.get(chunk.position() - 1) & 0xFF);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            if (!this.skipping) {
+                this.tokenizer.flush(this.consumer);
+            }
+        } catch (NumberFormatException ex) {
+            LOGGER.warn(String.format("WARN: skipping invalid token, message=%s", ex.getMessage()));
+        } finally {
+            this.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.tokenizer.reset();
+        this.skipping = false;
+    }
+}
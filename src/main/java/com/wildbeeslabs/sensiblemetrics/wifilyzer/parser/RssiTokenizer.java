@@ -0,0 +1,260 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces.IBaseTokenizer;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * RSSI tokenizer class to parse delimited numeric values without regular
+ * expressions, intermediate strings or boxing. Delimiters are the same as in
+ * BaseNetworkAnalyzer.DEFAULT_TOKEN_DELIMITER, except that a single dot
+ * inside a number is read as decimal separator.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public class RssiTokenizer implements IBaseTokenizer {
+
+    /**
+     * Maximum number of significant digits kept in mantissa
+     */
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    /**
+     * Maximum mantissa value that is exactly representable as double
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /**
+     * Exactly representable powers of ten
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private long position;
+    private boolean inToken;
+    private boolean negative;
+    private boolean hasDigits;
+    private boolean hasDot;
+    private long mantissa;
+    private int mantissaDigits;
+    private int scale;
+    private boolean inExponent;
+    private boolean negativeExponent;
+    private boolean hasExponentDigits;
+    private int exponent;
+
+    @Override
+    public void tokenize(final CharSequence value, final DoubleConsumer consumer) {
+        Objects.requireNonNull(value);
+        this.tokenize(value, 0, value.length(), consumer);
+        this.flush(consumer);
+    }
+
+    @Override
+    public void tokenize(final CharSequence value, int offset, int length, final DoubleConsumer consumer) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(consumer);
+        for (int i = offset, limit = offset + length; i < limit; i++) {
+            this.next(value.charAt(i), consumer);
+        }
+    }
+
+    @Override
+    public void tokenize(final char[] buffer, int offset, int length, final DoubleConsumer consumer) {
+        Objects.requireNonNull(buffer);
+        Objects.requireNonNull(consumer);
+        for (int i = offset, limit = offset + length; i < limit; i++) {
+            this.next(buffer[i], consumer);
+        }
+    }
+
+    @Override
+    public void tokenize(final ByteBuffer buffer, final DoubleConsumer consumer) {
+        Objects.requireNonNull(buffer);
+        Objects.requireNonNull(consumer);
+        final int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            try {
+                this.next(buffer.get(i) & 0xFF, consumer);
+            } catch (NumberFormatException ex) {
+                buffer.position(i + 1);
+                throw ex;
+            }
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Checks whether input character is token delimiter that is never part of
+     * a number (unlike dot, which is decimal separator between digits)
+     *
+     * @param ch - input character
+     * @return true - if token boundary, false - otherwise
+     */
+    public static boolean isBoundary(int ch) {
+        return ch != '.' && isDelimiter(ch);
+    }
+
+    @Override
+    public void flush(final DoubleConsumer consumer) {
+        if (this.inToken) {
+            consumer.accept(this.complete());
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.position = 0;
+        this.clear();
+    }
+
+    /**
+     * Checks whether input character is token delimiter or not
+     *
+     * @param ch - input character
+     * @return true - if delimiter, false - otherwise
+     */
+    public static boolean isDelimiter(int ch) {
+        switch (ch) {
+            case ',':
+            case '.':
+            case '/':
+            case '?':
+            case ';':
+            case ':':
+            case '!':
+            case '"':
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    protected void next(int ch, final DoubleConsumer consumer) {
+        this.position++;
+        if (ch >= '0' && ch <= '9') {
+            this.inToken = true;
+            if (this.inExponent) {
+                this.hasExponentDigits = true;
+                if (this.exponent < 10_000) {
+                    this.exponent = this.exponent * 10 + (ch - '0');
+                }
+                return;
+            }
+            this.hasDigits = true;
+            if (this.mantissaDigits < MAX_MANTISSA_DIGITS) {
+                if (this.mantissa != 0 || ch != '0') {
+                    this.mantissaDigits++;
+                }
+                this.mantissa = this.mantissa * 10 + (ch - '0');
+                if (this.hasDot) {
+                    this.scale--;
+                }
+            } else if (!this.hasDot) {
+                this.scale++;
+            }
+            return;
+        }
+        if (ch == '.' && this.hasDigits && !this.hasDot && !this.inExponent) {
+            this.hasDot = true;
+            return;
+        }
+        if (isDelimiter(ch)) {
+            if (this.inToken) {
+                consumer.accept(this.complete());
+            }
+            return;
+        }
+        if (ch == '-' || ch == '+') {
+            if (!this.inToken) {
+                this.inToken = true;
+                this.negative = (ch == '-');
+                return;
+            }
+            if (this.inExponent && !this.hasExponentDigits && !this.negativeExponent) {
+                this.negativeExponent = (ch == '-');
+                return;
+            }
+        } else if ((ch == 'e' || ch == 'E') && this.hasDigits && !this.inExponent) {
+            this.inExponent = true;
+            return;
+        }
+        this.clear();
+        throw new NumberFormatException(String.format("ERROR: invalid character=(%s) at position=(%d)", (char) ch, this.position));
+    }
+
+    private double complete() {
+        if (!this.hasDigits || (this.inExponent && !this.hasExponentDigits)) {
+            final long tokenPosition = this.position;
+            this.clear();
+            throw new NumberFormatException(String.format("ERROR: incomplete number at position=(%d)", tokenPosition));
+        }
+        final int exp10 = this.scale + (this.negativeExponent ? -this.exponent : this.exponent);
+        double value;
+        if (exp10 == 0 && this.mantissa < MAX_EXACT_MANTISSA) {
+            value = this.mantissa;
+        } else if (this.mantissa < MAX_EXACT_MANTISSA && exp10 < 0 && exp10 >= -22) {
+            value = this.mantissa / POWERS_OF_TEN[-exp10];
+        } else if (this.mantissa < MAX_EXACT_MANTISSA && exp10 > 0 && exp10 <= 22) {
+            value = this.mantissa * POWERS_OF_TEN[exp10];
+        } else {
+            value = Double.parseDouble(this.mantissa + "E" + exp10);
+        }
+        value = this.negative ? -value : value;
+        this.clear();
+        return value;
+    }
+
+    private void clear() {
+        this.inToken = false;
+        this.negative = false;
+        this.hasDigits = false;
+        this.hasDot = false;
+        this.mantissa = 0;
+        this.mantissaDigits = 0;
+        this.scale = 0;
+        this.inExponent = false;
+        this.negativeExponent = false;
+        this.hasExponentDigits = false;
+        this.exponent = 0;
+    }
+}
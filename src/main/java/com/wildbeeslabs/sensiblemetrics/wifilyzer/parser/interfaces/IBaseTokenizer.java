@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.interfaces;
+
+import java.nio.ByteBuffer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Tokenizer interface declaration
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public interface IBaseTokenizer {
+
+    /**
+     * Tokenizes complete input value (pending token is flushed at the end)
+     *
+     * @param value - input value
+     * @param consumer - consumer of parsed values
+     */
+    void tokenize(final CharSequence value, final DoubleConsumer consumer);
+
+    /**
+     * Tokenizes next chunk of input (last token of the chunk is kept pending
+     * until the next chunk or {@link #flush(DoubleConsumer)} call)
+     *
+     * @param value - input value
+     * @param offset - input value offset
+     * @param length - number of characters to process
+     * @param consumer - consumer of parsed values
+     */
+    void tokenize(final CharSequence value, int offset, int length, final DoubleConsumer consumer);
+
+    /**
+     * Tokenizes next chunk of input (last token of the chunk is kept pending
+     * until the next chunk or {@link #flush(DoubleConsumer)} call)
+     *
+     * @param buffer - input buffer
+     * @param offset - input buffer offset
+     * @param length - number of characters to process
+     * @param consumer - consumer of parsed values
+     */
+    void tokenize(final char[] buffer, int offset, int length, final DoubleConsumer consumer);
+
+    /**
+     * Tokenizes next chunk of ASCII encoded input from buffer position to its
+     * limit (buffer position is moved to the limit, last token of the chunk is
+     * kept pending until the next chunk or {@link #flush(DoubleConsumer)}
+     * call). On invalid input NumberFormatException is thrown with buffer
+     * position right after the offending character and the pending token
+     * discarded, so the rest of the chunk can be tokenized by another call.
+     *
+     * @param buffer - input buffer
+     * @param consumer - consumer of parsed values
+     */
+    void tokenize(final ByteBuffer buffer, final DoubleConsumer consumer);
+
+    /**
+     * Completes pending token (if any)
+     *
+     * @param consumer - consumer of parsed values
+     */
+    void flush(final DoubleConsumer consumer);
+
+    void reset();
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Sample batch class to pass samples between pipeline stages in columns
+ * (bssid, rssi, filtered rssi, distance, timestamp). Column arrays are
+ * exposed as is, so that stages can process them in bulk, only the first
+ * {@link #size()} elements are valid.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+public class SampleBatch {
+
+    private final String[] bssid;
+    private final double[] rssi;
+    private final double[] filteredRssi;
+    private final double[] distance;
+    private final long[] timestamp;
+    private int size;
+
+    public SampleBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.format("ERROR: batch capacity=(%d) must not be negative", capacity));
+        }
+        this.bssid = new String[capacity];
+        this.rssi = new double[capacity];
+        this.filteredRssi = new double[capacity];
+        this.distance = new double[capacity];
+        this.timestamp = new long[capacity];
+    }
+
+    /**
+     * Appends sample to the batch
+     *
+     * @param bssid - access point bssid (may be null in single bssid mode)
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     */
+    public void add(final String bssid, double rssi, long timestamp) {
+        this.bssid[this.size] = bssid;
+        this.rssi[this.size] = rssi;
+        this.timestamp[this.size] = timestamp;
+        this.size++;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.rssi.length;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    public boolean isFull() {
+        return this.size == this.rssi.length;
+    }
+
+    public void clear() {
+        Arrays.fill(this.bssid, 0, this.size, null);
+        this.size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SampleBatch(size=%d, capacity=%d)", this.size, this.capacity());
+    }
+}
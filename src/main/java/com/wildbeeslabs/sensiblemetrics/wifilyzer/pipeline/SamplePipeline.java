@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline.interfaces.IPipelineStage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Sample pipeline class to process samples by a chain of stages, each stage
+ * running in its own thread. Samples are passed between stages in batches
+ * taken from a fixed pool of batches, which are recycled after the last
+ * stage: once all batches are in flight the producer is blocked until the
+ * slowest stage (e.g. output sink) releases one, so memory usage is bounded
+ * whatever the input rate is.
+ *
+ * Samples are offered by a single producer thread and pass every stage in
+ * order. If a stage fails the remaining batches are released without
+ * processing and the failure is reported to the producer.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class SamplePipeline implements Closeable {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(SamplePipeline.class);
+
+    /**
+     * Default number of samples per batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    /**
+     * Default number of batches in flight
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+    /**
+     * End of input marker
+     */
+    private static final SampleBatch END_OF_INPUT = new SampleBatch(0);
+
+    private final BlockingQueue<SampleBatch> freeBatches;
+    private final List<BlockingQueue<SampleBatch>> queues;
+    private final Thread[] workers;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private SampleBatch batch;
+    private boolean closed;
+
+    public SamplePipeline(final IPipelineStage... stages) {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_CAPACITY, stages);
+    }
+
+    public SamplePipeline(int batchSize, int capacity, final IPipelineStage... stages) {
+        if (batchSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException(String.format("ERROR: batch size=(%d) and capacity=(%d) must be positive", batchSize, capacity));
+        }
+        if (0 == stages.length) {
+            throw new IllegalArgumentException("ERROR: pipeline must have at least one stage");
+        }
+        this.freeBatches = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.freeBatches.add(new SampleBatch(batchSize));
+        }
+        this.queues = new ArrayList<>(stages.length);
+        for (int i = 0; i < stages.length; i++) {
+            this.queues.add(new ArrayBlockingQueue<>(capacity + 1));
+        }
+        this.workers = new Thread[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            final IPipelineStage stage = Objects.requireNonNull(stages[i]);
+            final BlockingQueue<SampleBatch> input = this.queues.get(i);
+            final BlockingQueue<SampleBatch> output = (i + 1 < stages.length) ? this.queues.get(i + 1) : this.freeBatches;
+            this.workers[i] = new Thread(() -> this.run(stage, input, output), String.format("wifilyzer-pipeline-%d", i));
+            this.workers[i].setDaemon(true);
+        }
+        for (final Thread worker : this.workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Offers sample to the pipeline (blocks while all batches are in flight)
+     *
+     * @param bssid - access point bssid
+     * @param rssi - measured rssi
+     * @param timestamp - measurement timestamp
+     * @throws IOException - if pipeline stage has failed or producer thread
+     * is interrupted
+     */
+    public void offer(final String bssid, double rssi, long timestamp) throws IOException {
+        if (Objects.isNull(this.batch)) {
+            this.checkOpen();
+            this.checkFailure();
+            this.batch = this.take(this.freeBatches);
+        }
+        this.batch.add(bssid, rssi, timestamp);
+        if (this.batch.isFull()) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Passes pending samples to the pipeline without waiting for a full batch
+     *
+     * @throws IOException - if producer thread is interrupted
+     */
+    public void flush() throws IOException {
+        if (Objects.nonNull(this.batch) && !this.batch.isEmpty()) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Passes pending samples to the pipeline and waits until every stage has
+     * processed them
+     *
+     * @throws IOException - if pipeline stage has failed or producer thread
+     * is interrupted
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.flush();
+        this.closed = true;
+        this.put(this.queues.get(0), END_OF_INPUT);
+        for (final Thread worker : this.workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("ERROR: interrupted while waiting for pipeline stage=%s", worker.getName()));
+            }
+        }
+        this.checkFailure();
+    }
+
+    private void publish() throws IOException {
+        final SampleBatch batch = this.batch;
+        this.batch = null;
+        this.put(this.queues.get(0), batch);
+    }
+
+    /**
+     * Runs stage until the end of input. Failed (or interrupted) stage keeps
+     * passing batches on without processing and always forwards the end of
+     * input, so the producer is never starved of free batches and close()
+     * completes whatever the stage has thrown. Queues have room for every
+     * batch and the end of input marker, so passing a batch never blocks.
+     */
+    private void run(final IPipelineStage stage, final BlockingQueue<SampleBatch> input, final BlockingQueue<SampleBatch> output) {
+        boolean interrupted = false;
+        SampleBatch batch = null;
+        try {
+            while (true) {
+                try {
+                    batch = input.take();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                    this.fail(ex);
+                    continue;
+                }
+                if (END_OF_INPUT == batch) {
+                    batch = null;
+                    break;
+                }
+                if (Objects.isNull(this.failure.get())) {
+                    try {
+                        stage.process(batch);
+                        if (input.isEmpty()) {
+                            stage.flush();
+                        }
+                    } catch (Throwable ex) {
+                        this.fail(ex);
+                    }
+                }
+                this.pass(batch, output);
+                batch = null;
+            }
+            if (Objects.isNull(this.failure.get())) {
+                try {
+                    stage.flush();
+                } catch (Throwable ex) {
+                    this.fail(ex);
+                }
+            }
+        } finally {
+            if (Objects.nonNull(batch)) {
+                this.pass(batch, this.freeBatches);
+            }
+            if (output != this.freeBatches) {
+                output.add(END_OF_INPUT);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void pass(final SampleBatch batch, final BlockingQueue<SampleBatch> output) {
+        if (output == this.freeBatches) {
+            batch.clear();
+        }
+        output.add(batch);
+    }
+
+    private void fail(final Throwable ex) {
+        LOGGER.error(String.format("ERROR: pipeline stage=%s failed, message=%s", Thread.currentThread().getName(), ex.getMessage()));
+        this.failure.compareAndSet(null, ex);
+    }
+
+    private SampleBatch take(final BlockingQueue<SampleBatch> queue) throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ERROR: interrupted while waiting for free pipeline batch");
+        }
+    }
+
+    private void put(final BlockingQueue<SampleBatch> queue, final SampleBatch batch) throws IOException {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ERROR: interrupted while passing batch to pipeline");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("ERROR: pipeline is closed");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        final Throwable ex = this.failure.get();
+        if (Objects.nonNull(ex)) {
+            throw new IOException(String.format("ERROR: pipeline stage failed (%s)", ex.getMessage()), ex);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch class to estimate quantiles of a stream of values in
+ * bounded memory. Values are kept in levels of growing weight (level h item
+ * stands for 2^h values); a level exceeding its capacity is compacted by
+ * sorting it and promoting every other item (random offset) to the next
+ * level. Capacities shrink geometrically towards lower levels, so the sketch
+ * keeps about 3k items whatever the stream length is, with rank error of
+ * about 1.7 / k.
+ *
+ * Sketches of different parts of a stream (e.g. built by worker shards) may
+ * be merged. Compaction offsets are drawn from a fixed seed, so results are
+ * reproducible for the same input order.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class KllSketch {
+
+    /**
+     * Default accuracy parameter (capacity of the top level)
+     */
+    public static final int DEFAULT_K = 200;
+    /**
+     * Minimum accuracy parameter
+     */
+    public static final int MIN_K = 8;
+    /**
+     * Capacity ratio of adjacent levels
+     */
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+    /**
+     * Minimum level capacity
+     */
+    private static final int MIN_LEVEL_CAPACITY = 2;
+    /**
+     * Seed of compaction offsets
+     */
+    private static final long DEFAULT_SEED = 0x9E3779B97F4A7C15L;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long randomState = DEFAULT_SEED;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException(String.format("ERROR: sketch accuracy parameter k=(%d) must not be less than %d", k, MIN_K));
+        }
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+    }
+
+    /**
+     * Adds value to the sketch
+     *
+     * @param value - value
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("ERROR: sketch value must not be NaN");
+        }
+        if (0 == this.count) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+        }
+        this.count++;
+        this.append(0, value);
+        if (this.sizes[0] >= this.getCapacity(0)) {
+            this.compress();
+        }
+    }
+
+    /**
+     * Merges another sketch into this one (another sketch is not modified)
+     *
+     * @param other - sketch to merge
+     */
+    public void merge(final KllSketch other) {
+        if (0 == other.count) {
+            return;
+        }
+        if (0 == this.count) {
+            this.min = other.min;
+            this.max = other.max;
+        } else {
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+        }
+        this.count += other.count;
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                this.append(h, other.levels[h][i]);
+            }
+        }
+        this.compress();
+    }
+
+    /**
+     * Returns estimated quantile
+     *
+     * @param quantile - quantile in range [0, 1]
+     * @return estimated quantile value (NaN if sketch is empty)
+     */
+    public double getQuantile(double quantile) {
+        return this.getQuantiles(quantile)[0];
+    }
+
+    /**
+     * Returns estimated quantiles (single pass over sketch items)
+     *
+     * @param quantiles - quantiles in range [0, 1]
+     * @return estimated quantile values in the same order (NaN if sketch is
+     * empty)
+     */
+    public double[] getQuantiles(final double... quantiles) {
+        final double[] result = new double[quantiles.length];
+        for (final double quantile : quantiles) {
+            if (!(quantile >= 0 && quantile <= 1)) {
+                throw new IllegalArgumentException(String.format("ERROR: quantile=(%s) must be in range [0, 1]", quantile));
+            }
+        }
+        if (0 == this.count) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        final double[][] sorted = new double[this.levels.length][];
+        for (int h = 0; h < this.levels.length; h++) {
+            sorted[h] = Arrays.copyOf(this.levels[h], this.sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        final int[] positions = new int[this.levels.length];
+        final int[] order = new int[quantiles.length];
+        for (int i = 0; i < order.length; i++) {
+            int j = i;
+            while (j > 0 && quantiles[order[j - 1]] > quantiles[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        long weight = 0;
+        int next = 0;
+        while (next < order.length) {
+            final double quantile = quantiles[order[next]];
+            if (0 == quantile || 1 == quantile) {
+                result[order[next++]] = (0 == quantile) ? this.min : this.max;
+                continue;
+            }
+            int level = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (positions[h] < sorted[h].length && (level < 0 || sorted[h][positions[h]] < sorted[level][positions[level]])) {
+                    level = h;
+                }
+            }
+            if (level < 0) {
+                result[order[next++]] = this.max;
+                continue;
+            }
+            final double item = sorted[level][positions[level]++];
+            weight += 1L << level;
+            while (next < order.length && 0 < quantiles[order[next]] && quantiles[order[next]] < 1 && weight >= quantiles[order[next]] * this.count) {
+                result[order[next++]] = item;
+            }
+        }
+        return result;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public double getMin() {
+        return this.min;
+    }
+
+    public double getMax() {
+        return this.max;
+    }
+
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Returns number of items kept by the sketch
+     *
+     * @return number of items
+     */
+    public int getRetainedItems() {
+        int items = 0;
+        for (final int size : this.sizes) {
+            items += size;
+        }
+        return items;
+    }
+
+    private int getCapacity(int level) {
+        final int depth = this.levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(this.k * Math.pow(CAPACITY_RATIO, depth)));
+    }
+
+    private void append(int level, double value) {
+        while (level >= this.levels.length) {
+            this.levels = Arrays.copyOf(this.levels, this.levels.length + 1);
+            this.levels[this.levels.length - 1] = new double[this.k];
+            this.sizes = Arrays.copyOf(this.sizes, this.sizes.length + 1);
+        }
+        if (this.sizes[level] == this.levels[level].length) {
+            this.levels[level] = Arrays.copyOf(this.levels[level], this.sizes[level] << 1);
+        }
+        this.levels[level][this.sizes[level]++] = value;
+    }
+
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int h = 0; h < this.levels.length; h++) {
+                if (this.sizes[h] >= this.getCapacity(h)) {
+                    this.compact(h);
+                    compacted = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compacts level: every other item of the sorted level is promoted to the
+     * next level (an odd item is kept at the level)
+     *
+     * @param level - level to compact
+     */
+    private void compact(int level) {
+        final double[] items = this.levels[level];
+        final int size = this.sizes[level];
+        Arrays.sort(items, 0, size);
+        final int pairs = size & ~1;
+        final int offset = this.nextBit();
+        for (int i = offset; i < pairs; i += 2) {
+            this.append(level + 1, items[i]);
+        }
+        if (pairs < size) {
+            items[0] = items[size - 1];
+        }
+        this.sizes[level] = size - pairs;
+    }
+
+    private int nextBit() {
+        long x = this.randomState;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        this.randomState = x;
+        return (int) (x >>> 63);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import lombok.Getter;
+
+/**
+ * Network quantiles class to keep quantile sketches of filtered rssi and
+ * distance of a single access point
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+public class NetworkQuantiles {
+
+    private final KllSketch rssi;
+    private final KllSketch distance;
+
+    public NetworkQuantiles(int k) {
+        this.rssi = new KllSketch(k);
+        this.distance = new KllSketch(k);
+    }
+
+    public void add(double rssi, double distance) {
+        this.rssi.add(rssi);
+        this.distance.add(distance);
+    }
+
+    public void merge(final NetworkQuantiles other) {
+        this.rssi.merge(other.rssi);
+        this.distance.merge(other.distance);
+    }
+
+    public long getCount() {
+        return this.rssi.getCount();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import lombok.Getter;
+
+/**
+ * Network statistics class to keep sliding window statistics of filtered
+ * rssi and distance of a single access point
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+public class NetworkStatistics {
+
+    private final SlidingWindowStatistics rssi;
+    private final SlidingWindowStatistics distance;
+    /**
+     * Number of added samples
+     */
+    private long count;
+
+    /**
+     * Creates network statistics
+     *
+     * @param maxSize - maximum number of samples (0 - not bounded by size)
+     * @param maxAge - maximum age of samples in milliseconds (0 - not bounded
+     * by age)
+     * @param percentiles - percentiles tracking flag
+     */
+    public NetworkStatistics(int maxSize, long maxAge, boolean percentiles) {
+        this.rssi = new SlidingWindowStatistics(maxSize, maxAge, percentiles);
+        this.distance = new SlidingWindowStatistics(maxSize, maxAge, percentiles);
+    }
+
+    public void add(double rssi, double distance, long timestamp) {
+        this.rssi.add(rssi, timestamp);
+        this.distance.add(distance, timestamp);
+        this.count++;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.RowWriter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Quantile summary class to keep quantile sketches of filtered rssi and
+ * distance per access point in bounded memory. Summary is written in rows of
+ * the form
+ * <pre>
+ * bssid,count,rssiP50,rssiP90,rssiP99,distanceP50,distanceP90,distanceP99
+ * </pre>
+ * (rssi is kept as positive number like in output rows, rows are sorted by
+ * bssid). Summaries of separate worker shards may be merged.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class QuantileSummary {
+
+    /**
+     * Default reported quantiles
+     */
+    private static final double[] DEFAULT_QUANTILES = {0.5, 0.9, 0.99};
+
+    private final int k;
+    private final Map<String, NetworkQuantiles> networks = new HashMap<>();
+
+    public QuantileSummary() {
+        this(KllSketch.DEFAULT_K);
+    }
+
+    public QuantileSummary(int k) {
+        if (k < KllSketch.MIN_K) {
+            throw new IllegalArgumentException(String.format("ERROR: sketch accuracy parameter k=(%d) must not be less than %d", k, KllSketch.MIN_K));
+        }
+        this.k = k;
+    }
+
+    /**
+     * Adds sample of access point
+     *
+     * @param bssid - access point bssid
+     * @param filteredRssi - filtered rssi
+     * @param distance - estimated distance
+     */
+    public void add(final String bssid, double filteredRssi, double distance) {
+        this.getNetwork(bssid).add(filteredRssi * -1, distance);
+    }
+
+    /**
+     * Merges another summary into this one
+     *
+     * @param other - summary to merge
+     */
+    public void merge(final QuantileSummary other) {
+        for (final Map.Entry<String, NetworkQuantiles> entry : other.networks.entrySet()) {
+            this.getNetwork(entry.getKey()).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Creates empty summary of the same accuracy (e.g. for a worker shard)
+     *
+     * @return empty summary
+     */
+    public QuantileSummary createEmpty() {
+        return new QuantileSummary(this.k);
+    }
+
+    public Map<String, NetworkQuantiles> getNetworks() {
+        return Collections.unmodifiableMap(this.networks);
+    }
+
+    /**
+     * Writes summary rows
+     *
+     * @param rowWriter - row writer
+     */
+    public void writeTo(final RowWriter rowWriter) {
+        for (final Map.Entry<String, NetworkQuantiles> entry : new TreeMap<>(this.networks).entrySet()) {
+            final NetworkQuantiles quantiles = entry.getValue();
+            rowWriter.append(String.valueOf(entry.getKey())).separator().appendLong(quantiles.getCount());
+            for (final double value : quantiles.getRssi().getQuantiles(DEFAULT_QUANTILES)) {
+                rowWriter.separator().appendDecimal(value);
+            }
+            for (final double value : quantiles.getDistance().getQuantiles(DEFAULT_QUANTILES)) {
+                rowWriter.separator().appendDecimal(value);
+            }
+            rowWriter.endRow();
+        }
+    }
+
+    private NetworkQuantiles getNetwork(final String bssid) {
+        NetworkQuantiles quantiles = this.networks.get(bssid);
+        if (Objects.isNull(quantiles)) {
+            quantiles = new NetworkQuantiles(this.k);
+            this.networks.put(bssid, quantiles);
+        }
+        return quantiles;
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+/**
+ * Sliding window statistics class to keep mean, variance, min / max and
+ * percentiles of the most recent values incrementally. Window is bounded by
+ * number of values, by value age or by both (a value is evicted by whichever
+ * limit is reached first).
+ *
+ * Values are kept in a primitive ring buffer; mean and variance are updated
+ * by Welford's method in O(1), min / max by monotonic deques in amortized
+ * O(1), percentiles by an order statistic tree (treap with subtree sizes) in
+ * expected O(log n) per added, evicted or selected value, so the cost stays
+ * logarithmic for windows bounded by age only. No allocation is made per
+ * value once the buffers have grown to the window size.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class SlidingWindowStatistics {
+
+    /**
+     * Initial capacity of windows bounded by age only
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int maxSize;
+    private final long maxAge;
+    private final MonotonicDeque minimums = new MonotonicDeque(false);
+    private final MonotonicDeque maximums = new MonotonicDeque(true);
+    private double[] values;
+    private long[] timestamps;
+    private int head;
+    private int count;
+    /**
+     * Number of values ever added (sequence number of the next value)
+     */
+    private long sequence;
+    private double mean;
+    private double squaredDeviations;
+    /**
+     * Ordered window values (null if percentiles are not tracked)
+     */
+    private final OrderStatisticTree ordered;
+
+    /**
+     * Creates sliding window statistics
+     *
+     * @param maxSize - maximum number of values (0 - not bounded by size)
+     * @param maxAge - maximum age of values in timestamp units (0 - not
+     * bounded by age)
+     * @param percentiles - percentiles tracking flag
+     */
+    public SlidingWindowStatistics(int maxSize, long maxAge, boolean percentiles) {
+        if (maxSize < 0 || maxAge < 0 || (0 == maxSize && 0 == maxAge)) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid window size=(%d) or age=(%d)", maxSize, maxAge));
+        }
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        final int capacity = (maxSize > 0) ? maxSize : DEFAULT_CAPACITY;
+        this.values = new double[capacity];
+        this.timestamps = new long[capacity];
+        this.ordered = percentiles ? new OrderStatisticTree(capacity) : null;
+    }
+
+    /**
+     * Adds value to the window (evicting values out of the window)
+     *
+     * @param value - value
+     * @param timestamp - value timestamp (not decreasing)
+     */
+    public void add(double value, long timestamp) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("ERROR: window value must not be NaN");
+        }
+        this.evict(timestamp);
+        if (this.maxSize > 0 && this.count == this.maxSize) {
+            this.removeOldest();
+        }
+        if (this.count == this.values.length) {
+            this.grow();
+        }
+        final int index = this.index(this.count);
+        this.values[index] = value;
+        this.timestamps[index] = timestamp;
+        this.count++;
+
+        final double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squaredDeviations += delta * (value - this.mean);
+
+        this.minimums.add(value, this.sequence);
+        this.maximums.add(value, this.sequence);
+        this.sequence++;
+        if (null != this.ordered) {
+            this.ordered.add(value);
+        }
+    }
+
+    /**
+     * Evicts values older than maximum age at the given time (no-op for
+     * windows not bounded by age)
+     *
+     * @param timestamp - current time in timestamp units
+     */
+    public void evict(long timestamp) {
+        if (0 == this.maxAge) {
+            return;
+        }
+        final long threshold = timestamp - this.maxAge;
+        while (this.count > 0 && this.timestamps[this.head] <= threshold) {
+            this.removeOldest();
+        }
+    }
+
+    public void clear() {
+        this.head = 0;
+        this.count = 0;
+        this.mean = 0;
+        this.squaredDeviations = 0;
+        this.minimums.clear();
+        this.maximums.clear();
+        if (null != this.ordered) {
+            this.ordered.clear();
+        }
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public double getMean() {
+        return (0 == this.count) ? Double.NaN : this.mean;
+    }
+
+    /**
+     * Returns population variance of window values
+     *
+     * @return variance (NaN if window is empty)
+     */
+    public double getVariance() {
+        return (0 == this.count) ? Double.NaN : Math.max(0, this.squaredDeviations / this.count);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(this.getVariance());
+    }
+
+    public double getMin() {
+        return (0 == this.count) ? Double.NaN : this.minimums.first();
+    }
+
+    public double getMax() {
+        return (0 == this.count) ? Double.NaN : this.maximums.first();
+    }
+
+    /**
+     * Returns percentile of window values by nearest rank method
+     *
+     * @param percentile - percentile in range (0, 100]
+     * @return percentile value (NaN if window is empty)
+     */
+    public double getPercentile(double percentile) {
+        if (null == this.ordered) {
+            throw new IllegalStateException("ERROR: percentiles are not tracked by the window");
+        }
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException(String.format("ERROR: percentile=(%s) must be in range (0, 100]", percentile));
+        }
+        if (0 == this.count) {
+            return Double.NaN;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * this.count);
+        return this.ordered.select(Math.min(Math.max(rank, 1), this.count) - 1);
+    }
+
+    private void removeOldest() {
+        final double value = this.values[this.head];
+        this.head = this.index(1);
+        this.count--;
+        if (0 == this.count) {
+            this.mean = 0;
+            this.squaredDeviations = 0;
+        } else {
+            final double delta = value - this.mean;
+            this.mean -= delta / this.count;
+            this.squaredDeviations -= delta * (value - this.mean);
+        }
+        final long oldest = this.sequence - this.count;
+        this.minimums.evict(oldest);
+        this.maximums.evict(oldest);
+        if (null != this.ordered) {
+            this.ordered.remove(value);
+        }
+    }
+
+    private int index(int offset) {
+        final int index = this.head + offset;
+        return (index >= this.values.length) ? index - this.values.length : index;
+    }
+
+    private void grow() {
+        final int capacity = this.values.length << 1;
+        final double[] values = new double[capacity];
+        final long[] timestamps = new long[capacity];
+        for (int i = 0; i < this.count; i++) {
+            final int index = this.index(i);
+            values[i] = this.values[index];
+            timestamps[i] = this.timestamps[index];
+        }
+        this.values = values;
+        this.timestamps = timestamps;
+        this.head = 0;
+    }
+
+    /**
+     * Order statistic tree class: treap of distinct values (ordered by
+     * {@link Double#compare(double, double)}) with multiplicities and subtree
+     * sizes. Nodes are kept in primitive arrays (index 0 is the empty node)
+     * and released nodes are reused, priorities come from a fixed-seed
+     * xorshift generator, so results do not depend on run.
+     */
+    private static final class OrderStatisticTree {
+
+        private double[] keys;
+        private int[] counts;
+        private int[] sizes;
+        private int[] lefts;
+        private int[] rights;
+        private int[] priorities;
+        private int root;
+        private int nodes;
+        /**
+         * First released node (released nodes are linked by right children)
+         */
+        private int free;
+        private int seed = 0x2545F491;
+
+        OrderStatisticTree(int capacity) {
+            this.allocate(capacity + 1);
+        }
+
+        void add(double value) {
+            if (0 == this.free && this.nodes + 1 == this.keys.length) {
+                this.grow();
+            }
+            this.root = this.add(this.root, value);
+        }
+
+        /**
+         * Removes one occurrence of the value (value must be in the tree)
+         */
+        void remove(double value) {
+            this.root = this.remove(this.root, value);
+        }
+
+        /**
+         * Returns value of the given rank
+         *
+         * @param rank - zero-based rank in range [0, size)
+         */
+        double select(int rank) {
+            int node = this.root;
+            while (true) {
+                final int left = this.sizes[this.lefts[node]];
+                if (rank < left) {
+                    node = this.lefts[node];
+                } else if (rank < left + this.counts[node]) {
+                    return this.keys[node];
+                } else {
+                    rank -= left + this.counts[node];
+                    node = this.rights[node];
+                }
+            }
+        }
+
+        void clear() {
+            this.root = 0;
+            this.nodes = 0;
+            this.free = 0;
+        }
+
+        private int add(int node, double value) {
+            if (0 == node) {
+                return this.newNode(value);
+            }
+            final int order = Double.compare(value, this.keys[node]);
+            if (0 == order) {
+                this.counts[node]++;
+            } else if (order < 0) {
+                final int child = this.add(this.lefts[node], value);
+                this.lefts[node] = child;
+                if (this.priorities[child] > this.priorities[node]) {
+                    node = this.rotateRight(node);
+                }
+            } else {
+                final int child = this.add(this.rights[node], value);
+                this.rights[node] = child;
+                if (this.priorities[child] > this.priorities[node]) {
+                    node = this.rotateLeft(node);
+                }
+            }
+            this.update(node);
+            return node;
+        }
+
+        private int remove(int node, double value) {
+            final int order = Double.compare(value, this.keys[node]);
+            if (order < 0) {
+                final int child = this.remove(this.lefts[node], value);
+                this.lefts[node] = child;
+            } else if (order > 0) {
+                final int child = this.remove(this.rights[node], value);
+                this.rights[node] = child;
+            } else if (this.counts[node] > 1) {
+                this.counts[node]--;
+            } else {
+                final int left = this.lefts[node];
+                final int right = this.rights[node];
+                if (0 == left || 0 == right) {
+                    this.rights[node] = this.free;
+                    this.free = node;
+                    return (0 == left) ? right : left;
+                }
+                if (this.priorities[left] > this.priorities[right]) {
+                    node = this.rotateRight(node);
+                    final int child = this.remove(this.rights[node], value);
+                    this.rights[node] = child;
+                } else {
+                    node = this.rotateLeft(node);
+                    final int child = this.remove(this.lefts[node], value);
+                    this.lefts[node] = child;
+                }
+            }
+            this.update(node);
+            return node;
+        }
+
+        private int rotateRight(int node) {
+            final int left = this.lefts[node];
+            this.lefts[node] = this.rights[left];
+            this.rights[left] = node;
+            this.update(node);
+            this.update(left);
+            return left;
+        }
+
+        private int rotateLeft(int node) {
+            final int right = this.rights[node];
+            this.rights[node] = this.lefts[right];
+            this.lefts[right] = node;
+            this.update(node);
+            this.update(right);
+            return right;
+        }
+
+        private void update(int node) {
+            this.sizes[node] = this.counts[node] + this.sizes[this.lefts[node]] + this.sizes[this.rights[node]];
+        }
+
+        private int newNode(double value) {
+            final int node;
+            if (0 != this.free) {
+                node = this.free;
+                this.free = this.rights[node];
+            } else {
+                node = ++this.nodes;
+            }
+            this.keys[node] = value;
+            this.counts[node] = 1;
+            this.sizes[node] = 1;
+            this.lefts[node] = 0;
+            this.rights[node] = 0;
+            this.seed ^= this.seed << 13;
+            this.seed ^= this.seed >>> 17;
+            this.seed ^= this.seed << 5;
+            this.priorities[node] = this.seed & Integer.MAX_VALUE;
+            return node;
+        }
+
+        private void allocate(int capacity) {
+            this.keys = new double[capacity];
+            this.counts = new int[capacity];
+            this.sizes = new int[capacity];
+            this.lefts = new int[capacity];
+            this.rights = new int[capacity];
+            this.priorities = new int[capacity];
+            this.priorities[0] = -1;
+        }
+
+        private void grow() {
+            final double[] keys = this.keys;
+            final int[] counts = this.counts;
+            final int[] sizes = this.sizes;
+            final int[] lefts = this.lefts;
+            final int[] rights = this.rights;
+            final int[] priorities = this.priorities;
+            this.allocate(keys.length << 1);
+            System.arraycopy(keys, 0, this.keys, 0, keys.length);
+            System.arraycopy(counts, 0, this.counts, 0, counts.length);
+            System.arraycopy(sizes, 0, this.sizes, 0, sizes.length);
+            System.arraycopy(lefts, 0, this.lefts, 0, lefts.length);
+            System.arraycopy(rights, 0, this.rights, 0, rights.length);
+            System.arraycopy(priorities, 0, this.priorities, 0, priorities.length);
+        }
+    }
+
+    /**
+     * Monotonic deque class to keep window minimum (maximum): values that can
+     * no longer be the extremum are dropped from the back, values out of the
+     * window from the front
+     */
+    private static final class MonotonicDeque {
+
+        private final boolean maximum;
+        private double[] values = new double[DEFAULT_CAPACITY];
+        private long[] sequences = new long[DEFAULT_CAPACITY];
+        private int head;
+        private int size;
+
+        MonotonicDeque(boolean maximum) {
+            this.maximum = maximum;
+        }
+
+        void add(double value, long sequence) {
+            while (this.size > 0) {
+                final double last = this.values[this.index(this.size - 1)];
+                if (this.maximum ? last > value : last < value) {
+                    break;
+                }
+                this.size--;
+            }
+            if (this.size == this.values.length) {
+                this.grow();
+            }
+            final int index = this.index(this.size);
+            this.values[index] = value;
+            this.sequences[index] = sequence;
+            this.size++;
+        }
+
+        void evict(long oldest) {
+            while (this.size > 0 && this.sequences[this.head] < oldest) {
+                this.head = this.index(1);
+                this.size--;
+            }
+        }
+
+        double first() {
+            return this.values[this.head];
+        }
+
+        void clear() {
+            this.head = 0;
+            this.size = 0;
+        }
+
+        private int index(int offset) {
+            final int index = this.head + offset;
+            return (index >= this.values.length) ? index - this.values.length : index;
+        }
+
+        private void grow() {
+            final int capacity = this.values.length << 1;
+            final double[] values = new double[capacity];
+            final long[] sequences = new long[capacity];
+            for (int i = 0; i < this.size; i++) {
+                final int index = this.index(i);
+                values[i] = this.values[index];
+                sequences[i] = this.sequences[index];
+            }
+            this.values = values;
+            this.sequences = sequences;
+            this.head = 0;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous output stream class to write output on a background thread
+ * with double buffering: the calling thread fills one buffer while the
+ * background thread writes the other one to the underlying stream, so output
+ * I/O overlaps with processing. A buffer is handed over when it is full (size
+ * threshold) or when it has kept data for flush interval (time threshold).
+ *
+ * Stream is meant to be used by a single producer thread. Errors of the
+ * underlying stream are reported by the next write, flush or close call.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    /**
+     * Default buffer size in bytes
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    /**
+     * Default flush interval in milliseconds
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private final OutputStream output;
+    private final long flushIntervalNanos;
+    private final Object lock = new Object();
+    private final Thread worker;
+    /**
+     * Buffer filled by the calling thread
+     */
+    private byte[] buffer;
+    private int count;
+    private long firstWriteNanos;
+    /**
+     * Free buffer (null while the background thread owns it)
+     */
+    private byte[] spare;
+    /**
+     * Buffer handed over to the background thread (null if none)
+     */
+    private byte[] pending;
+    private int pendingCount;
+    private IOException failure;
+    private boolean closed;
+
+    public AsyncOutputStream(final OutputStream output) {
+        this(output, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Creates asynchronous output stream
+     *
+     * @param output - underlying output stream
+     * @param bufferSize - buffer size in bytes (size threshold)
+     * @param flushInterval - flush interval in milliseconds (time threshold, 0
+     * - buffers are written only when full or flushed)
+     */
+    public AsyncOutputStream(final OutputStream output, int bufferSize, long flushInterval) {
+        if (bufferSize < 1 || flushInterval < 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid buffer size=(%d) or flush interval=(%d)", bufferSize, flushInterval));
+        }
+        this.output = Objects.requireNonNull(output);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.buffer = new byte[bufferSize];
+        this.spare = new byte[bufferSize];
+        this.worker = new Thread(this::run, "wifilyzer-async-output");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        synchronized (this.lock) {
+            this.checkState();
+            this.beforeWrite();
+            this.buffer[this.count++] = (byte) b;
+            if (this.count == this.buffer.length) {
+                this.handOver();
+            }
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        Objects.requireNonNull(b);
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException(String.format("ERROR: invalid offset=(%d) or length=(%d)", off, len));
+        }
+        synchronized (this.lock) {
+            this.checkState();
+            while (len > 0) {
+                this.beforeWrite();
+                final int length = Math.min(len, this.buffer.length - this.count);
+                System.arraycopy(b, off, this.buffer, this.count, length);
+                this.count += length;
+                off += length;
+                len -= length;
+                if (this.count == this.buffer.length) {
+                    this.handOver();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands over buffered data and waits until it is written to the
+     * underlying stream
+     *
+     * @throws IOException - if underlying stream has failed
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (this.lock) {
+            this.checkState();
+            if (this.count > 0) {
+                this.handOver();
+            }
+            this.awaitWritten();
+            this.checkFailure();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+            try {
+                if (Objects.isNull(this.failure) && this.count > 0) {
+                    this.handOver();
+                }
+                this.awaitWritten();
+            } finally {
+                this.closed = true;
+                this.lock.notifyAll();
+            }
+        }
+        try {
+            this.worker.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ERROR: interrupted while closing asynchronous output");
+        } finally {
+            this.output.close();
+        }
+        this.checkFailure();
+    }
+
+    private void beforeWrite() {
+        if (0 == this.count) {
+            this.firstWriteNanos = System.nanoTime();
+            if (this.flushIntervalNanos > 0) {
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Hands over the filled buffer to the background thread (waits while the
+     * previous one is being written)
+     */
+    private void handOver() throws IOException {
+        this.awaitWritten();
+        this.checkFailure();
+        this.swap();
+    }
+
+    private void swap() {
+        this.pending = this.buffer;
+        this.pendingCount = this.count;
+        this.buffer = this.spare;
+        this.spare = null;
+        this.count = 0;
+        this.lock.notifyAll();
+    }
+
+    private void awaitWritten() throws IOException {
+        try {
+            while (Objects.nonNull(this.pending)) {
+                this.lock.wait();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ERROR: interrupted while waiting for asynchronous output");
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final byte[] data;
+                final int length;
+                synchronized (this.lock) {
+                    while (Objects.isNull(this.pending)) {
+                        if (this.closed) {
+                            return;
+                        }
+                        if (this.count > 0 && this.flushIntervalNanos > 0 && Objects.isNull(this.failure)) {
+                            final long delay = this.firstWriteNanos + this.flushIntervalNanos - System.nanoTime();
+                            if (delay <= 0) {
+                                this.swap();
+                                break;
+                            }
+                            TimeUnit.NANOSECONDS.timedWait(this.lock, delay);
+                        } else {
+                            this.lock.wait();
+                        }
+                    }
+                    data = this.pending;
+                    length = this.pendingCount;
+                }
+                IOException error = null;
+                try {
+                    this.output.write(data, 0, length);
+                    this.output.flush();
+                } catch (IOException ex) {
+                    error = ex;
+                }
+                synchronized (this.lock) {
+                    if (Objects.isNull(this.failure)) {
+                        this.failure = error;
+                    }
+                    this.spare = data;
+                    this.pending = null;
+                    this.lock.notifyAll();
+                }
+            }
+        } catch (InterruptedException ex) {
+            synchronized (this.lock) {
+                this.failure = new InterruptedIOException("ERROR: asynchronous output thread is interrupted");
+                this.pending = null;
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    private void checkState() throws IOException {
+        if (this.closed) {
+            throw new IOException("ERROR: stream is closed");
+        }
+        this.checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (Objects.nonNull(this.failure)) {
+            throw new IOException(String.format("ERROR: cannot write asynchronous output (%s)", this.failure.getMessage()), this.failure);
+        }
+    }
+}
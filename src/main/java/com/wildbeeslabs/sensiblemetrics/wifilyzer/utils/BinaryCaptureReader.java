@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Binary capture reader class to read samples written by
+ * {@link BinaryCaptureWriter}. Samples are read one by one, cursor style:
+ * {@link #next()} moves to the next sample and getters return its columns.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class BinaryCaptureReader implements Closeable {
+
+    private final DataInputStream input;
+    private final int txPower;
+    private final boolean outputColumns;
+    private final List<String> dictionary = new ArrayList<>();
+    private int[] indexes = new int[0];
+    private double[] rssi = new double[0];
+    private long[] timestamps = new long[0];
+    private double[] filteredRssi = new double[0];
+    private double[] distances = new double[0];
+    private int count;
+    private int position;
+    private long lastTimestamp;
+    private boolean isCompleted;
+
+    public BinaryCaptureReader(final InputStream input) throws IOException {
+        this.input = new DataInputStream(Objects.requireNonNull(input));
+        final int magic = this.input.readInt();
+        if (BinaryCaptureWriter.MAGIC != magic) {
+            throw new IOException(String.format("ERROR: invalid capture file magic=(%08x)", magic));
+        }
+        final int version = this.input.readUnsignedByte();
+        if (BinaryCaptureWriter.VERSION != version) {
+            throw new IOException(String.format("ERROR: unsupported capture file version=(%d)", version));
+        }
+        this.outputColumns = (0 != (this.input.readUnsignedByte() & BinaryCaptureWriter.FLAG_OUTPUT_COLUMNS));
+        this.txPower = this.input.readInt();
+    }
+
+    /**
+     * Moves to the next sample
+     *
+     * @return true - if sample is available, false - at the end of capture
+     * @throws IOException - if capture is truncated or malformed
+     */
+    public boolean next() throws IOException {
+        if (++this.position < this.count) {
+            return true;
+        }
+        if (this.isCompleted || !this.readBlock()) {
+            this.isCompleted = true;
+            this.position = this.count;
+            return false;
+        }
+        this.position = 0;
+        return true;
+    }
+
+    public String getBssid() {
+        return this.dictionary.get(this.indexes[this.position] >>> 1);
+    }
+
+    public double getRssi() {
+        return this.rssi[this.position];
+    }
+
+    /**
+     * Returns sample timestamp
+     *
+     * @return sample timestamp or NetworkRecordParser.NO_TIMESTAMP
+     */
+    public long getTimestamp() {
+        return (0 != (this.indexes[this.position] & 1)) ? this.timestamps[this.position] : NetworkRecordParser.NO_TIMESTAMP;
+    }
+
+    /**
+     * Returns filtered rssi of output capture
+     *
+     * @return filtered rssi value or NaN if capture has no output columns
+     */
+    public double getFilteredRssi() {
+        return this.outputColumns ? this.filteredRssi[this.position] : Double.NaN;
+    }
+
+    /**
+     * Returns distance of output capture
+     *
+     * @return distance or NaN if capture has no output columns
+     */
+    public double getDistance() {
+        return this.outputColumns ? this.distances[this.position] : Double.NaN;
+    }
+
+    public int getTxPower() {
+        return this.txPower;
+    }
+
+    public boolean hasOutputColumns() {
+        return this.outputColumns;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+
+    private boolean readBlock() throws IOException {
+        final long blockSize = BinaryCaptureWriter.readVarint(this.input);
+        if (0 == blockSize) {
+            return false;
+        }
+        if (blockSize > BinaryCaptureWriter.MAX_BLOCK_SIZE) {
+            throw new IOException(String.format("ERROR: invalid capture block size=(%d)", blockSize));
+        }
+        this.count = (int) blockSize;
+        this.ensureCapacity(this.count);
+        final long entries = BinaryCaptureWriter.readVarint(this.input);
+        for (long i = 0; i < entries; i++) {
+            this.dictionary.add(this.input.readUTF());
+        }
+        for (int i = 0; i < this.count; i++) {
+            final long index = BinaryCaptureWriter.readVarint(this.input);
+            if ((index >>> 1) >= this.dictionary.size()) {
+                throw new IOException(String.format("ERROR: invalid capture bssid index=(%d)", index >>> 1));
+            }
+            this.indexes[i] = (int) index;
+        }
+        this.readDeltas(this.rssi, BinaryCaptureWriter.RSSI_SCALE);
+        for (int i = 0; i < this.count; i++) {
+            if (0 != (this.indexes[i] & 1)) {
+                this.lastTimestamp += BinaryCaptureWriter.unzigzag(BinaryCaptureWriter.readVarint(this.input));
+                this.timestamps[i] = this.lastTimestamp;
+            }
+        }
+        if (this.outputColumns) {
+            this.readDeltas(this.filteredRssi, BinaryCaptureWriter.RSSI_SCALE);
+            this.readDeltas(this.distances, BinaryCaptureWriter.DISTANCE_SCALE);
+        }
+        return true;
+    }
+
+    private void readDeltas(final double[] values, int scale) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < this.count; i++) {
+            previous += BinaryCaptureWriter.unzigzag(BinaryCaptureWriter.readVarint(this.input));
+            values[i] = (double) previous / scale;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (this.indexes.length >= capacity) {
+            return;
+        }
+        this.indexes = new int[capacity];
+        this.rssi = new double[capacity];
+        this.timestamps = new long[capacity];
+        if (this.outputColumns) {
+            this.filteredRssi = new double[capacity];
+            this.distances = new double[capacity];
+        }
+    }
+}
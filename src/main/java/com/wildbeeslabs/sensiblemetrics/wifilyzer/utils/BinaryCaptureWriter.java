@@ -0,0 +1,288 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary capture writer class to write samples in compact columnar format.
+ *
+ * File layout (big-endian, varints are unsigned LEB128, signed values are
+ * zigzag encoded):
+ * <pre>
+ * header: int magic "WFLZ", byte version, byte flags, int txPower
+ * block:  varint count (0 marks end of file)
+ *         varint number of new bssids, UTF bssid * number (dictionary delta)
+ *         varint (bssid index &lt;&lt; 1 | timestamp flag) * count
+ *         zigzag varint rssi delta in 0.01 dBm * count
+ *         zigzag varint timestamp delta * number of flagged samples
+ *         [zigzag varint filtered rssi delta in 0.01 dBm * count,
+ *          zigzag varint distance delta in 0.01 m * count]
+ * </pre>
+ * Output columns are only present if FLAG_OUTPUT_COLUMNS is set. Rssi values
+ * are kept with 0.01 dBm resolution, so values with at most 2 fraction digits
+ * are read back exactly; distance is kept with 0.01 m resolution.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class BinaryCaptureWriter implements IRecordWriter {
+
+    /**
+     * Capture file magic number ("WFLZ")
+     */
+    public static final int MAGIC = 0x57464C5A;
+    /**
+     * Capture file format version
+     */
+    public static final int VERSION = 1;
+    /**
+     * Header flag of filtered rssi and distance columns
+     */
+    public static final int FLAG_OUTPUT_COLUMNS = 1;
+    /**
+     * Rssi resolution (units per dBm)
+     */
+    public static final int RSSI_SCALE = 100;
+    /**
+     * Distance resolution (units per meter)
+     */
+    public static final int DISTANCE_SCALE = 100;
+    /**
+     * Default number of samples per block
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    /**
+     * Maximum number of samples per block
+     */
+    public static final int MAX_BLOCK_SIZE = 1 << 20;
+
+    private final DataOutputStream output;
+    private final int txPower;
+    private final boolean outputColumns;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryDelta = new ArrayList<>();
+    private final int[] indexes;
+    private final long[] rssi;
+    private final long[] timestamps;
+    private final long[] filteredRssi;
+    private final long[] distances;
+    private int count;
+    private long lastTimestamp;
+    private boolean errorFlag;
+
+    public BinaryCaptureWriter(final OutputStream output, int txPower, boolean outputColumns) throws IOException {
+        this(output, txPower, outputColumns, DEFAULT_BLOCK_SIZE);
+    }
+
+    public BinaryCaptureWriter(final OutputStream output, int txPower, boolean outputColumns, int blockSize) throws IOException {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid block size=(%d)", blockSize));
+        }
+        this.output = new DataOutputStream(Objects.requireNonNull(output));
+        this.txPower = txPower;
+        this.outputColumns = outputColumns;
+        this.indexes = new int[blockSize];
+        this.rssi = new long[blockSize];
+        this.timestamps = new long[blockSize];
+        this.filteredRssi = outputColumns ? new long[blockSize] : null;
+        this.distances = outputColumns ? new long[blockSize] : null;
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+        this.output.writeByte(outputColumns ? FLAG_OUTPUT_COLUMNS : 0);
+        this.output.writeInt(txPower);
+    }
+
+    /**
+     * Writes input sample (capture without output columns)
+     *
+     * @param bssid - access point bssid
+     * @param rssi - rssi value
+     * @param timestamp - sample timestamp (or NetworkRecordParser.NO_TIMESTAMP)
+     */
+    public void write(final String bssid, double rssi, long timestamp) {
+        if (this.outputColumns) {
+            throw new IllegalStateException("ERROR: filtered rssi and distance are required by output capture");
+        }
+        this.add(bssid, rssi, timestamp);
+        this.completeSample();
+    }
+
+    @Override
+    public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        this.add(bssid, rssi, timestamp);
+        if (this.outputColumns) {
+            this.filteredRssi[this.count] = Math.round(filteredRssi * RSSI_SCALE);
+            this.distances[this.count] = Math.round(distance * DISTANCE_SCALE);
+        }
+        this.completeSample();
+    }
+
+    public int getTxPower() {
+        return this.txPower;
+    }
+
+    public boolean hasOutputColumns() {
+        return this.outputColumns;
+    }
+
+    @Override
+    public boolean checkError() {
+        this.flush();
+        return this.errorFlag;
+    }
+
+    /**
+     * Writes pending samples as a (short) block and flushes underlying stream
+     */
+    @Override
+    public void flush() {
+        try {
+            this.writeBlock();
+            this.output.flush();
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.writeBlock();
+            writeVarint(this.output, 0);
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+        try {
+            this.output.close();
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+    }
+
+    private void add(final String bssid, double rssi, long timestamp) {
+        Objects.requireNonNull(bssid);
+        if (!Double.isFinite(rssi)) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid rssi value=(%s)", rssi));
+        }
+        Integer index = this.dictionary.get(bssid);
+        if (Objects.isNull(index)) {
+            index = this.dictionary.size();
+            this.dictionary.put(bssid, index);
+            this.dictionaryDelta.add(bssid);
+        }
+        final boolean hasTimestamp = (NetworkRecordParser.NO_TIMESTAMP != timestamp);
+        this.indexes[this.count] = (index << 1) | (hasTimestamp ? 1 : 0);
+        this.rssi[this.count] = Math.round(rssi * RSSI_SCALE);
+        this.timestamps[this.count] = timestamp;
+    }
+
+    private void completeSample() {
+        if (++this.count == this.indexes.length) {
+            try {
+                this.writeBlock();
+            } catch (IOException ex) {
+                this.errorFlag = true;
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (0 == this.count) {
+            return;
+        }
+        final int blockSize = this.count;
+        this.count = 0;
+        writeVarint(this.output, blockSize);
+        writeVarint(this.output, this.dictionaryDelta.size());
+        for (final String bssid : this.dictionaryDelta) {
+            this.output.writeUTF(bssid);
+        }
+        this.dictionaryDelta.clear();
+        for (int i = 0; i < blockSize; i++) {
+            writeVarint(this.output, this.indexes[i]);
+        }
+        writeDeltas(this.output, this.rssi, blockSize);
+        for (int i = 0; i < blockSize; i++) {
+            if (0 != (this.indexes[i] & 1)) {
+                writeVarint(this.output, zigzag(this.timestamps[i] - this.lastTimestamp));
+                this.lastTimestamp = this.timestamps[i];
+            }
+        }
+        if (this.outputColumns) {
+            writeDeltas(this.output, this.filteredRssi, blockSize);
+            writeDeltas(this.output, this.distances, blockSize);
+        }
+    }
+
+    private static void writeDeltas(final DataOutput output, final long[] values, int count) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(output, zigzag(values[i] - previous));
+            previous = values[i];
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarint(final DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static long readVarint(final DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (0 == (b & 0x80)) {
+                return value;
+            }
+        }
+        throw new IOException("ERROR: malformed varint value");
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * CSV record writer class to write output rows of the form
+ * <pre>
+ * [bssid,]rssi,filteredRssi,distance[,timestamp]
+ * </pre>
+ * (rssi values are written as positive numbers, filtered rssi with at most 2
+ * fraction digits, distance in whole meters)
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class CsvRecordWriter implements IRecordWriter {
+
+    private final RowWriter rowWriter;
+    /**
+     * Bssid column flag (multi bssid output)
+     */
+    private final boolean bssidColumn;
+
+    public CsvRecordWriter(final RowWriter rowWriter, boolean bssidColumn) {
+        this.rowWriter = Objects.requireNonNull(rowWriter);
+        this.bssidColumn = bssidColumn;
+    }
+
+    @Override
+    public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        if (this.bssidColumn) {
+            this.rowWriter.append(bssid).separator();
+        }
+        this.rowWriter.appendDouble(rssi * -1).separator()
+                .appendDecimal(filteredRssi * -1).separator()
+                .appendInt((int) distance);
+        if (NetworkRecordParser.NO_TIMESTAMP != timestamp) {
+            this.rowWriter.separator().appendLong(timestamp);
+        }
+        this.appendColumns(bssid, rssi, filteredRssi, distance, timestamp);
+        this.rowWriter.endRow();
+    }
+
+    /**
+     * Creates record writer of the same configuration over another row writer
+     * (writer state is not shared)
+     *
+     * @param rowWriter - row writer
+     * @return record writer
+     */
+    public CsvRecordWriter createWriter(final RowWriter rowWriter) {
+        return new CsvRecordWriter(rowWriter, this.bssidColumn);
+    }
+
+    /**
+     * Appends extra columns to the end of the current row (no extra columns by
+     * default)
+     *
+     * @param bssid - access point bssid
+     * @param rssi - measured rssi
+     * @param filteredRssi - filtered rssi
+     * @param distance - estimated distance
+     * @param timestamp - measurement timestamp
+     */
+    protected void appendColumns(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+    }
+
+    @Override
+    public boolean checkError() {
+        return this.rowWriter.checkError();
+    }
+
+    @Override
+    public void flush() {
+        this.rowWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        this.rowWriter.close();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * File tailer class to read bytes appended to a growing file. Read position
+ * is kept between reads; truncation or replacement of the file (e.g. log
+ * rotation) is detected by {@link #checkRestarted()}, after which the file is
+ * read again from the beginning.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class FileTailer implements Closeable {
+
+    private final File file;
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+
+    public FileTailer(final File file) throws IOException {
+        this.file = Objects.requireNonNull(file);
+        this.open();
+    }
+
+    /**
+     * Reads next appended bytes into buffer
+     *
+     * @param buffer - output buffer
+     * @return number of bytes read (0 if no new bytes are available)
+     * @throws IOException - if file cannot be read
+     */
+    public int read(final ByteBuffer buffer) throws IOException {
+        final int length = this.channel.read(buffer, this.position);
+        if (length <= 0) {
+            return 0;
+        }
+        this.position += length;
+        return length;
+    }
+
+    /**
+     * Checks whether file has been truncated or replaced since the last read
+     * and reopens it from the beginning if so (a missing file is reported as
+     * not restarted until it is created again)
+     *
+     * @return true - if file is read from the beginning again, false -
+     * otherwise
+     * @throws IOException - if file cannot be reopened
+     */
+    public boolean checkRestarted() throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(this.file.toPath(), BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+        if (Objects.nonNull(this.fileKey) && !this.fileKey.equals(attributes.fileKey())) {
+            this.channel.close();
+            this.open();
+            return true;
+        }
+        if (this.channel.size() < this.position) {
+            this.position = 0;
+            return true;
+        }
+        return false;
+    }
+
+    public long getPosition() {
+        return this.position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void open() throws IOException {
+        this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+        this.fileKey = Files.readAttributes(this.file.toPath(), BasicFileAttributes.class).fileKey();
+        this.position = 0;
+    }
+}
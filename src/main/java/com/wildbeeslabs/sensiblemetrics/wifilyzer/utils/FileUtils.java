@@ -23,24 +23,40 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
@@ -67,6 +83,18 @@ public final class FileUtils {
      * Default file character encoding
      */
     public static final Charset DEFAULT_FILE_CHARACTER_ENCODING = StandardCharsets.UTF_8;
+    /**
+     * Standard input / output stream file name
+     */
+    public static final String STANDARD_STREAM = "-";
+    /**
+     * Maximum size of mapped file segment
+     */
+    public static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    /**
+     * Default size of probe buffer to look for segment boundary
+     */
+    private static final int DEFAULT_PROBE_SIZE = 256;
 
     private FileUtils() {
         // PRIVATE EMPTY CONSTRUCTOR
@@ -94,6 +122,152 @@ public final class FileUtils {
         return resultList;
     }
 
+    /**
+     * Checks whether file denotes standard input / output stream ("-") or not
+     *
+     * @param file - input / output file
+     * @return true - if standard stream, false - otherwise
+     */
+    public static boolean isStandardStream(final File file) {
+        return Objects.nonNull(file) && STANDARD_STREAM.equals(file.getPath());
+    }
+
+    public static BufferedReader newBufferedReader(final File inputFile) throws IOException {
+        Objects.requireNonNull(inputFile);
+        if (isStandardStream(inputFile)) {
+            return new BufferedReader(new InputStreamReader(newInputStream(inputFile), FileUtils.DEFAULT_FILE_CHARACTER_ENCODING));
+        }
+        return Files.newBufferedReader(inputFile.toPath(), FileUtils.DEFAULT_FILE_CHARACTER_ENCODING);
+    }
+
+    /**
+     * Opens input stream of file (standard input for "-", which is not closed
+     * by the returned stream)
+     *
+     * @param inputFile - input file
+     * @return input stream
+     * @throws IOException - if file cannot be opened
+     */
+    public static InputStream newInputStream(final File inputFile) throws IOException {
+        Objects.requireNonNull(inputFile);
+        if (isStandardStream(inputFile)) {
+            return new StandardInputStream(System.in);
+        }
+        return new BufferedInputStream(Files.newInputStream(inputFile.toPath()));
+    }
+
+    /**
+     * Opens buffered output stream of file (standard output for "-", which is
+     * flushed but not closed by the returned stream)
+     *
+     * @param outputFile - output file
+     * @return output stream
+     * @throws IOException - if file cannot be created
+     */
+    public static OutputStream newOutputStream(final File outputFile) throws IOException {
+        Objects.requireNonNull(outputFile);
+        if (isStandardStream(outputFile)) {
+            return new BufferedOutputStream(newStandardOutputStream());
+        }
+        return new BufferedOutputStream(Files.newOutputStream(outputFile.toPath()));
+    }
+
+    public static Writer newBufferedWriter(final File outputFile) throws IOException {
+        Objects.requireNonNull(outputFile);
+        if (isStandardStream(outputFile)) {
+            return new BufferedWriter(new OutputStreamWriter(newStandardOutputStream(), FileUtils.DEFAULT_FILE_CHARACTER_ENCODING));
+        }
+        return Files.newBufferedWriter(outputFile.toPath(), FileUtils.DEFAULT_FILE_CHARACTER_ENCODING);
+    }
+
+    /**
+     * Creates asynchronous output stream of output file, written on a
+     * background thread (see {@link AsyncOutputStream})
+     *
+     * @param outputFile - output file ("-" - standard output)
+     * @param bufferSize - buffer size in bytes
+     * @param flushInterval - flush interval in milliseconds
+     * @return buffered asynchronous output stream
+     * @throws IOException - if output file cannot be created
+     */
+    public static OutputStream newAsyncOutputStream(final File outputFile, int bufferSize, long flushInterval) throws IOException {
+        Objects.requireNonNull(outputFile);
+        final OutputStream output = isStandardStream(outputFile) ? newStandardOutputStream() : Files.newOutputStream(outputFile.toPath());
+        return new BufferedOutputStream(new AsyncOutputStream(output, bufferSize, flushInterval));
+    }
+
+    public static Writer newAsyncWriter(final File outputFile, int bufferSize, long flushInterval) throws IOException {
+        return new OutputStreamWriter(newAsyncOutputStream(outputFile, bufferSize, flushInterval), FileUtils.DEFAULT_FILE_CHARACTER_ENCODING);
+    }
+
+    /**
+     * Opens unbuffered standard output stream that is flushed but not closed.
+     * File descriptor is written directly (System.out is a PrintStream that
+     * swallows I/O errors), so a closed pipe is reported to the caller.
+     *
+     * @return standard output stream
+     */
+    private static OutputStream newStandardOutputStream() {
+        System.out.flush();
+        return new StandardOutputStream(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Maps input file into read-only byte buffers of at most segmentSize
+     * bytes. Segments are cut right after a boundary byte (so no token spans
+     * two segments), files larger than 2 GB are mapped by several buffers.
+     *
+     * @param inputFile - input file
+     * @param segmentSize - preferred segment size in bytes
+     * @param isBoundary - predicate of (unsigned) bytes segments may end with
+     * @return list of mapped segments in file order
+     * @throws IOException - if file cannot be mapped or no boundary is found
+     * within {@link #MAX_SEGMENT_SIZE} bytes
+     */
+    public static List<MappedByteBuffer> mapSegments(final File inputFile, int segmentSize, final IntPredicate isBoundary) throws IOException {
+        Objects.requireNonNull(inputFile);
+        Objects.requireNonNull(isBoundary);
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid segment size=(%d)", segmentSize));
+        }
+        final List<MappedByteBuffer> segments = new ArrayList<>();
+        try (final FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer probe = ByteBuffer.allocate(DEFAULT_PROBE_SIZE);
+            long start = 0;
+            while (start < size) {
+                final long end = findBoundary(channel, Math.min(start + segmentSize, size), size, isBoundary, probe);
+                if (end - start > MAX_SEGMENT_SIZE) {
+                    throw new IOException(String.format("ERROR: no token boundary in file=%s after position=(%d)", String.valueOf(inputFile), start));
+                }
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                start = end;
+            }
+        }
+        return segments;
+    }
+
+    private static long findBoundary(final FileChannel channel, long position, long size, final IntPredicate isBoundary, final ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            final int length = channel.read(probe, position);
+            if (length <= 0) {
+                break;
+            }
+            for (int i = 0; i < length; i++) {
+                if (isBoundary.test(probe.get(i) & 0xFF)) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    public static PrintWriter newPrintWriter(final File outputFile) throws IOException {
+        return new PrintWriter(newBufferedWriter(outputFile));
+    }
+
     public static <U extends CharSequence> void writeFile(final File outputFile, final Collection<? extends U> output) {
         Objects.requireNonNull(outputFile);
         Objects.requireNonNull(output);
@@ -172,4 +346,40 @@ public final class FileUtils {
             listDirectories2(directory);
         }
     }
+
+    /**
+     * Standard input stream wrapper class (standard input is left open)
+     */
+    private static final class StandardInputStream extends FilterInputStream {
+
+        StandardInputStream(final InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public void close() {
+            // STANDARD INPUT IS NOT CLOSED
+        }
+    }
+
+    /**
+     * Standard output stream wrapper class (standard output is flushed but
+     * left open)
+     */
+    private static final class StandardOutputStream extends FilterOutputStream {
+
+        StandardOutputStream(final OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(final byte[] buffer, int offset, int length) throws IOException {
+            this.out.write(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flush();
+        }
+    }
 }
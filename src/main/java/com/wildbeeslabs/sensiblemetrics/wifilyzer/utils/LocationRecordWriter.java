@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.FingerprintMatcher;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.PositionFix;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Location record writer class to estimate client position by fingerprint
+ * localization (see {@link FingerprintMatcher}) while passing records to the
+ * target writer. Records are grouped into location windows by timestamp
+ * (samples without timestamp by their index among written samples); when a
+ * window is complete the latest filtered rssi of every access point heard in
+ * the window is matched against the radio map and a valid fix is written to
+ * location source:
+ * <pre>
+ * windowStart,latitude,longitude,accessPoints,residual
+ * </pre>
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode(exclude = {"slots", "bssids", "rssi", "epochs", "windowSlots"})
+@ToString(exclude = {"slots", "bssids", "rssi", "epochs", "windowSlots"})
+public class LocationRecordWriter implements IRecordWriter {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(LocationRecordWriter.class);
+    /**
+     * Default location window in milliseconds
+     */
+    public static final long DEFAULT_LOCATION_WINDOW = 1000;
+    /**
+     * Default number of fraction digits of coordinates (about 1 cm)
+     */
+    private static final int DEFAULT_COORDINATE_SCALE = 7;
+    /**
+     * Initial number of access point slots
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final IRecordWriter writer;
+    private final FingerprintMatcher matcher;
+    private final RowWriter locationWriter;
+    private final long window;
+    private final PositionFix fix = new PositionFix();
+    /**
+     * Access point slots by bssid
+     */
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] bssids = new String[DEFAULT_CAPACITY];
+    /**
+     * Latest filtered rssi of access point
+     */
+    private double[] rssi = new double[DEFAULT_CAPACITY];
+    /**
+     * Window epoch of the latest filtered rssi of access point
+     */
+    private long[] epochs = new long[DEFAULT_CAPACITY];
+    /**
+     * Slots of access points heard in the current window
+     */
+    private int[] windowSlots = new int[DEFAULT_CAPACITY];
+    private int windowSize;
+    private long epoch;
+    private long currentWindow;
+    private long sequence;
+    private long fixes;
+
+    /**
+     * Creates location record writer
+     *
+     * @param writer - target record writer
+     * @param matcher - fingerprint matcher of radio map
+     * @param locationWriter - row writer of location source
+     * @param window - location window in timestamp units (in samples for
+     * samples without timestamp)
+     */
+    public LocationRecordWriter(final IRecordWriter writer, final FingerprintMatcher matcher, final RowWriter locationWriter, long window) {
+        if (window < 1) {
+            throw new IllegalArgumentException(String.format("ERROR: location window=(%d) must be positive", window));
+        }
+        this.writer = Objects.requireNonNull(writer);
+        this.matcher = Objects.requireNonNull(matcher);
+        this.locationWriter = Objects.requireNonNull(locationWriter);
+        this.window = window;
+    }
+
+    @Override
+    public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        this.writer.write(bssid, rssi, filteredRssi, distance, timestamp);
+        final long time = (NetworkRecordParser.NO_TIMESTAMP != timestamp) ? timestamp : this.sequence;
+        this.sequence++;
+        final long window = Math.floorDiv(time, this.window);
+        if (0 == this.epoch || window != this.currentWindow) {
+            this.writeFix();
+            this.currentWindow = window;
+            this.epoch++;
+        }
+        final int slot = this.getSlot(bssid);
+        if (this.epochs[slot] != this.epoch) {
+            this.epochs[slot] = this.epoch;
+            if (this.windowSize == this.windowSlots.length) {
+                this.windowSlots = Arrays.copyOf(this.windowSlots, this.windowSize << 1);
+            }
+            this.windowSlots[this.windowSize++] = slot;
+        }
+        this.rssi[slot] = filteredRssi;
+    }
+
+    @Override
+    public boolean checkError() {
+        final boolean error = this.locationWriter.checkError();
+        return this.writer.checkError() || error;
+    }
+
+    @Override
+    public void flush() {
+        this.writer.flush();
+        this.locationWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        this.writeFix();
+        this.writer.close();
+        if (this.locationWriter.checkError()) {
+            LOGGER.error("ERROR: cannot write to location source");
+        }
+        this.locationWriter.close();
+    }
+
+    private void writeFix() {
+        if (0 == this.windowSize) {
+            return;
+        }
+        this.matcher.reset();
+        for (int i = 0; i < this.windowSize; i++) {
+            final int slot = this.windowSlots[i];
+            this.matcher.add(this.bssids[slot], this.rssi[slot]);
+        }
+        this.windowSize = 0;
+        if (!this.matcher.locate(this.fix).isValid()) {
+            return;
+        }
+        this.locationWriter.appendLong(this.currentWindow * this.window)
+                .separator().appendDecimal(this.fix.getLatitude(), DEFAULT_COORDINATE_SCALE)
+                .separator().appendDecimal(this.fix.getLongitude(), DEFAULT_COORDINATE_SCALE)
+                .separator().appendInt(this.fix.getAccessPoints())
+                .separator().appendDecimal(this.fix.getResidual())
+                .endRow();
+        this.fixes++;
+    }
+
+    private int getSlot(final String bssid) {
+        final Integer slot = this.slots.get(bssid);
+        if (Objects.nonNull(slot)) {
+            return slot;
+        }
+        final int size = this.slots.size();
+        if (size == this.bssids.length) {
+            this.bssids = Arrays.copyOf(this.bssids, size << 1);
+            this.rssi = Arrays.copyOf(this.rssi, size << 1);
+            this.epochs = Arrays.copyOf(this.epochs, size << 1);
+        }
+        this.bssids[size] = bssid;
+        this.slots.put(bssid, size);
+        return size;
+    }
+}
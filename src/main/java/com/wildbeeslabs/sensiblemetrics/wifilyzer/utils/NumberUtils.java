@@ -23,7 +23,11 @@
  */
 package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -46,20 +50,171 @@ public final class NumberUtils {
      */
     public static final String DEFAULT_NUMBER_FORMAT_PATTERN = "#.##";
     /**
-     * Default number format instance
+     * Default number of fraction digits (as in default number format pattern)
+     */
+    public static final int DEFAULT_NUMBER_SCALE = 2;
+    /**
+     * Maximum supported number of fraction digits
+     */
+    public static final int MAX_NUMBER_SCALE = 9;
+    /**
+     * Maximum length of number formatted by
+     * {@link #formatTo(double, int, char[], int)} on fast path
+     */
+    public static final int MAX_FAST_FORMAT_LENGTH = 32;
+    /**
+     * Maximum scaled value formatted on fast path (its ulp is far below
+     * rounding threshold)
+     */
+    private static final double MAX_FAST_SCALED_VALUE = 0x1p36;
+    /**
+     * Rounding threshold distance (closer values are rounded exactly)
+     */
+    private static final double ROUNDING_THRESHOLD = 1e-4;
+    /**
+     * Powers of ten by number scale
+     */
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    /**
+     * Default number format symbols
+     */
+    private static final DecimalFormatSymbols DEFAULT_SYMBOLS = DecimalFormatSymbols.getInstance();
+    /**
+     * Default number format instance (per thread, DecimalFormat is not thread-safe)
      */
-    private static final DecimalFormat numberFormat = new DecimalFormat(DEFAULT_NUMBER_FORMAT_PATTERN);
+    private static final ThreadLocal<DecimalFormat> numberFormat = ThreadLocal.withInitial(() -> new DecimalFormat(DEFAULT_NUMBER_FORMAT_PATTERN));
 
     private NumberUtils() {
         // PRIVATE EMPTY CONSTRUCTOR
     }
 
     public static String format(final Double value) {
-        return numberFormat.format(value);
+        final char[] buffer = new char[MAX_FAST_FORMAT_LENGTH];
+        final double number = value;
+        if (!isFastFormat(number, DEFAULT_NUMBER_SCALE)) {
+            return numberFormat.get().format(number);
+        }
+        return new String(buffer, 0, formatTo(number, DEFAULT_NUMBER_SCALE, buffer, 0));
     }
 
     public static String formatByPattern(final Double value, final String pattern) {
         final DecimalFormat formatter = new DecimalFormat(pattern);
         return formatter.format(value);
     }
+
+    /**
+     * Checks whether value is formatted by
+     * {@link #formatTo(double, int, char[], int)} without allocation or not
+     *
+     * @param value - input value
+     * @param scale - maximum number of fraction digits
+     * @return true - if value is formatted on fast path, false - otherwise
+     */
+    public static boolean isFastFormat(double value, int scale) {
+        return Math.abs(value) * POWERS_OF_TEN[scale] < MAX_FAST_SCALED_VALUE;
+    }
+
+    /**
+     * Formats value to buffer with at most scale fraction digits (trailing
+     * zeros are omitted), rounding half to even on exact binary value. Output
+     * is the same as DecimalFormat pattern "#.##..." in default locale.
+     * Allocates only for values not accepted by
+     * {@link #isFastFormat(double, int)} or lying within 1e-4 of rounding
+     * threshold.
+     *
+     * @param value - input value
+     * @param scale - maximum number of fraction digits
+     * @param buffer - output buffer (at least MAX_FAST_FORMAT_LENGTH
+     * characters from offset are required on fast path)
+     * @param offset - output buffer offset
+     * @return output buffer position after formatted value
+     */
+    public static int formatTo(double value, int scale, final char[] buffer, int offset) {
+        if (scale < 0 || scale > MAX_NUMBER_SCALE) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid number scale=(%d)", scale));
+        }
+        if (!isFastFormat(value, scale)) {
+            final String result = formatByPattern(value, getNumberFormatPattern(scale));
+            result.getChars(0, result.length(), buffer, offset);
+            return offset + result.length();
+        }
+        int position = offset;
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[position++] = DEFAULT_SYMBOLS.getMinusSign();
+            value = -value;
+        }
+        final long unit = POWERS_OF_TEN[scale];
+        final double scaled = value * unit;
+        long rounded = (long) scaled;
+        final double fraction = scaled - rounded;
+        if (Math.abs(fraction - 0.5) > ROUNDING_THRESHOLD) {
+            rounded += (fraction > 0.5) ? 1 : 0;
+        } else {
+            rounded = new BigDecimal(value).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+        }
+        position = formatLong(rounded / unit, buffer, position);
+        long fractionDigits = rounded % unit;
+        if (0 != fractionDigits) {
+            int digits = scale;
+            while (0 == fractionDigits % 10) {
+                fractionDigits /= 10;
+                digits--;
+            }
+            buffer[position++] = DEFAULT_SYMBOLS.getDecimalSeparator();
+            for (int i = digits - 1; i >= 0; i--) {
+                buffer[position + i] = (char) ('0' + fractionDigits % 10);
+                fractionDigits /= 10;
+            }
+            position += digits;
+        }
+        return position;
+    }
+
+    /**
+     * Returns number format pattern with at most scale fraction digits
+     *
+     * @param scale - maximum number of fraction digits
+     * @return number format pattern
+     */
+    public static String getNumberFormatPattern(int scale) {
+        final StringBuilder pattern = new StringBuilder("#");
+        if (scale > 0) {
+            pattern.append('.');
+            for (int i = 0; i < scale; i++) {
+                pattern.append('#');
+            }
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * Formats long value to buffer
+     *
+     * @param value - input value
+     * @param buffer - output buffer
+     * @param offset - output buffer offset
+     * @return output buffer position after formatted value
+     */
+    public static int formatLong(long value, final char[] buffer, int offset) {
+        if (value < 0) {
+            if (Long.MIN_VALUE == value) {
+                final String result = Long.toString(value);
+                result.getChars(0, result.length(), buffer, offset);
+                return offset + result.length();
+            }
+            buffer[offset++] = '-';
+            value = -value;
+        }
+        int length = 1;
+        for (long bound = 10; length < 19 && value >= bound; bound *= 10) {
+            length++;
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Row writer class to write delimited rows of numbers into a reusable
+ * character buffer. Numbers are formatted in place, without intermediate
+ * strings, the buffer is passed to the underlying writer as a whole once it is
+ * full. Without underlying writer the buffer grows and keeps all rows in
+ * memory (see {@link #length()} and {@link #writeTo(RowWriter, int, int)}).
+ *
+ * Like {@link java.io.PrintWriter}, row writer never throws I/O exceptions,
+ * errors are reported by {@link #checkError()}.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public class RowWriter implements Closeable, Flushable {
+
+    /**
+     * Default buffer size
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Default column delimiter
+     */
+    public static final char DEFAULT_COLUMN_DELIMITER = ',';
+    /**
+     * Default row delimiter
+     */
+    public static final String DEFAULT_ROW_DELIMITER = System.lineSeparator();
+    /**
+     * Maximum absolute value written by {@link #appendDouble(double)} without
+     * allocation
+     */
+    private static final double MAX_FAST_DOUBLE_VALUE = 1e7;
+    /**
+     * Minimum absolute value written by {@link #appendDouble(double)} without
+     * allocation (zero excluded)
+     */
+    private static final double MIN_FAST_DOUBLE_VALUE = 1e-3;
+    /**
+     * Maximum number of fraction digits written by
+     * {@link #appendDouble(double)} without allocation
+     */
+    private static final int MAX_FAST_DOUBLE_SCALE = 3;
+    /**
+     * Powers of ten by number of fraction digits
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3};
+
+    private final Writer writer;
+    private final char[] rowDelimiter;
+    private char[] buffer;
+    private int position;
+    private boolean errorFlag;
+
+    /**
+     * Creates in-memory row writer
+     */
+    public RowWriter() {
+        this(null, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RowWriter(final Writer writer) {
+        this(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RowWriter(final Writer writer, int bufferSize) {
+        if (bufferSize < NumberUtils.MAX_FAST_FORMAT_LENGTH) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid buffer size=(%d)", bufferSize));
+        }
+        this.writer = writer;
+        this.rowDelimiter = DEFAULT_ROW_DELIMITER.toCharArray();
+        this.buffer = new char[bufferSize];
+    }
+
+    public RowWriter append(char value) {
+        this.ensureCapacity(1);
+        this.buffer[this.position++] = value;
+        return this;
+    }
+
+    public RowWriter append(final CharSequence value) {
+        final String text = String.valueOf(value);
+        final int length = text.length();
+        if (length > this.buffer.length && Objects.nonNull(this.writer)) {
+            this.flushBuffer();
+            this.write(text.toCharArray(), 0, length);
+            return this;
+        }
+        this.ensureCapacity(length);
+        text.getChars(0, length, this.buffer, this.position);
+        this.position += length;
+        return this;
+    }
+
+    public RowWriter append(final char[] value, int offset, int length) {
+        if (length > this.buffer.length && Objects.nonNull(this.writer)) {
+            this.flushBuffer();
+            this.write(value, offset, length);
+            return this;
+        }
+        this.ensureCapacity(length);
+        System.arraycopy(value, offset, this.buffer, this.position, length);
+        this.position += length;
+        return this;
+    }
+
+    /**
+     * Appends value formatted as by {@link NumberUtils#format(Double)}
+     *
+     * @param value - input value
+     * @return row writer
+     */
+    public RowWriter appendDecimal(double value) {
+        return this.appendDecimal(value, NumberUtils.DEFAULT_NUMBER_SCALE);
+    }
+
+    /**
+     * Appends value with at most scale fraction digits
+     *
+     * @param value - input value
+     * @param scale - maximum number of fraction digits
+     * @return row writer
+     */
+    public RowWriter appendDecimal(double value, int scale) {
+        if (!NumberUtils.isFastFormat(value, scale)) {
+            return this.append(NumberUtils.formatByPattern(value, NumberUtils.getNumberFormatPattern(scale)));
+        }
+        this.ensureCapacity(NumberUtils.MAX_FAST_FORMAT_LENGTH);
+        this.position = NumberUtils.formatTo(value, scale, this.buffer, this.position);
+        return this;
+    }
+
+    /**
+     * Appends value formatted as by {@link Double#toString(double)} (values
+     * with more than 3 fraction digits or out of [1e-3, 1e7) range are
+     * delegated to it)
+     *
+     * @param value - input value
+     * @return row writer
+     */
+    public RowWriter appendDouble(double value) {
+        final double abs = Math.abs(value);
+        if (abs >= MAX_FAST_DOUBLE_VALUE || (abs < MIN_FAST_DOUBLE_VALUE && 0 != abs) || Double.isNaN(value)) {
+            return this.append(Double.toString(value));
+        }
+        int scale = 0;
+        long scaled = Math.round(abs);
+        while (scaled / POWERS_OF_TEN[scale] != abs) {
+            if (++scale > MAX_FAST_DOUBLE_SCALE) {
+                return this.append(Double.toString(value));
+            }
+            scaled = Math.round(abs * POWERS_OF_TEN[scale]);
+        }
+        this.ensureCapacity(NumberUtils.MAX_FAST_FORMAT_LENGTH);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            this.buffer[this.position++] = '-';
+        }
+        final long unit = (long) POWERS_OF_TEN[scale];
+        this.position = NumberUtils.formatLong(scaled / unit, this.buffer, this.position);
+        this.buffer[this.position++] = '.';
+        if (0 == scale) {
+            this.buffer[this.position++] = '0';
+            return this;
+        }
+        long fraction = scaled % unit;
+        for (int i = scale - 1; i >= 0; i--) {
+            this.buffer[this.position + i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        this.position += scale;
+        return this;
+    }
+
+    public RowWriter appendInt(int value) {
+        return this.appendLong(value);
+    }
+
+    public RowWriter appendLong(long value) {
+        this.ensureCapacity(NumberUtils.MAX_FAST_FORMAT_LENGTH);
+        this.position = NumberUtils.formatLong(value, this.buffer, this.position);
+        return this;
+    }
+
+    /**
+     * Appends column delimiter
+     *
+     * @return row writer
+     */
+    public RowWriter separator() {
+        return this.append(DEFAULT_COLUMN_DELIMITER);
+    }
+
+    /**
+     * Appends row delimiter
+     *
+     * @return row writer
+     */
+    public RowWriter endRow() {
+        return this.append(this.rowDelimiter, 0, this.rowDelimiter.length);
+    }
+
+    /**
+     * Returns number of buffered characters
+     *
+     * @return number of buffered characters
+     */
+    public int length() {
+        return this.position;
+    }
+
+    /**
+     * Appends buffered characters in range [from, to) to the target row writer
+     *
+     * @param target - target row writer
+     * @param from - start position (inclusive)
+     * @param to - end position (exclusive)
+     */
+    public void writeTo(final RowWriter target, int from, int to) {
+        target.append(this.buffer, from, to - from);
+    }
+
+    /**
+     * Discards buffered characters
+     */
+    public void reset() {
+        this.position = 0;
+    }
+
+    public boolean checkError() {
+        if (Objects.nonNull(this.writer)) {
+            this.flush();
+        }
+        return this.errorFlag;
+    }
+
+    @Override
+    public void flush() {
+        if (Objects.isNull(this.writer)) {
+            return;
+        }
+        this.flushBuffer();
+        try {
+            this.writer.flush();
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (Objects.isNull(this.writer)) {
+            return;
+        }
+        this.flushBuffer();
+        try {
+            this.writer.close();
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.buffer, 0, this.position);
+    }
+
+    private void ensureCapacity(int length) {
+        if (this.position + length <= this.buffer.length) {
+            return;
+        }
+        if (Objects.nonNull(this.writer)) {
+            this.flushBuffer();
+        }
+        if (length > this.buffer.length - this.position) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, this.position + length));
+        }
+    }
+
+    private void flushBuffer() {
+        if (this.position > 0) {
+            this.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+    private void write(final char[] value, int offset, int length) {
+        try {
+            this.writer.write(value, offset, length);
+        } catch (IOException ex) {
+            this.errorFlag = true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics.QuantileSummary;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Summary record writer class to collect quantile summary of written records
+ * (see {@link QuantileSummary}) while passing them to the target writer. The
+ * summary is written to summary source when the writer is closed.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SummaryRecordWriter implements IRecordWriter {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(SummaryRecordWriter.class);
+
+    private final IRecordWriter writer;
+    private final QuantileSummary summary;
+    private final File summarySource;
+
+    public SummaryRecordWriter(final IRecordWriter writer, final File summarySource) {
+        this(writer, new QuantileSummary(), summarySource);
+    }
+
+    public SummaryRecordWriter(final IRecordWriter writer, final QuantileSummary summary, final File summarySource) {
+        this.writer = Objects.requireNonNull(writer);
+        this.summary = Objects.requireNonNull(summary);
+        this.summarySource = Objects.requireNonNull(summarySource);
+    }
+
+    @Override
+    public void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        this.writer.write(bssid, rssi, filteredRssi, distance, timestamp);
+        this.summary.add(bssid, filteredRssi, distance);
+    }
+
+    @Override
+    public boolean checkError() {
+        return this.writer.checkError();
+    }
+
+    @Override
+    public void flush() {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() {
+        this.writer.close();
+        try (final RowWriter rowWriter = new RowWriter(FileUtils.newBufferedWriter(this.summarySource))) {
+            this.summary.writeTo(rowWriter);
+            if (rowWriter.checkError()) {
+                LOGGER.error(String.format("ERROR: cannot write to summary file=%s", String.valueOf(this.summarySource)));
+            }
+        } catch (IOException ex) {
+            LOGGER.error(String.format("ERROR: cannot create summary file=%s, message=%s", String.valueOf(this.summarySource), ex.getMessage()));
+        }
+    }
+}
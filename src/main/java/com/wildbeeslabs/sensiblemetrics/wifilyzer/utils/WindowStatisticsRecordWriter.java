@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics.NetworkStatistics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics.SlidingWindowStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * CSV record writer class to append sliding window statistics of every
+ * access point to output rows:
+ * <pre>
+ * [bssid,]rssi,filteredRssi,distance[,timestamp],rssiMean,rssiStdDev,rssiMin,rssiMax[,rssiPercentiles],distanceMean,distanceStdDev,distanceMin,distanceMax[,distancePercentiles]
+ * </pre>
+ * (rssi statistics are calculated over filtered rssi written as positive
+ * numbers). Samples without timestamp are stamped with their index among
+ * the samples of the access point, so window duration of such input counts
+ * samples instead of milliseconds and the output stays reproducible.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true, exclude = "statistics")
+@ToString(callSuper = true, exclude = "statistics")
+public class WindowStatisticsRecordWriter extends CsvRecordWriter {
+
+    private final int windowSize;
+    private final long windowDuration;
+    private final double[] percentiles;
+    private final Map<String, NetworkStatistics> statistics = new HashMap<>();
+
+    /**
+     * Creates window statistics record writer
+     *
+     * @param rowWriter - row writer
+     * @param bssidColumn - bssid column flag
+     * @param windowSize - maximum number of samples per window (0 - not
+     * bounded by size)
+     * @param windowDuration - maximum age of samples in milliseconds (in
+     * samples for samples without timestamp, 0 - not bounded by age)
+     * @param percentiles - percentiles to write (in range (0, 100])
+     */
+    public WindowStatisticsRecordWriter(final RowWriter rowWriter, boolean bssidColumn, int windowSize, long windowDuration, final double... percentiles) {
+        super(rowWriter, bssidColumn);
+        if (windowSize < 0 || windowDuration < 0 || (0 == windowSize && 0 == windowDuration)) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid window size=(%d) or duration=(%d)", windowSize, windowDuration));
+        }
+        for (final double percentile : percentiles) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException(String.format("ERROR: percentile=(%s) must be in range (0, 100]", percentile));
+            }
+        }
+        this.windowSize = windowSize;
+        this.windowDuration = windowDuration;
+        this.percentiles = percentiles.clone();
+    }
+
+    @Override
+    public CsvRecordWriter createWriter(final RowWriter rowWriter) {
+        return new WindowStatisticsRecordWriter(rowWriter, this.isBssidColumn(), this.windowSize, this.windowDuration, this.percentiles);
+    }
+
+    /**
+     * Returns window statistics of access point
+     *
+     * @param bssid - access point bssid
+     * @return network statistics (null if no samples of access point were
+     * written)
+     */
+    public NetworkStatistics getStatistics(final String bssid) {
+        return this.statistics.get(bssid);
+    }
+
+    @Override
+    protected void appendColumns(final String bssid, double rssi, double filteredRssi, double distance, long timestamp) {
+        NetworkStatistics networkStatistics = this.statistics.get(bssid);
+        if (Objects.isNull(networkStatistics)) {
+            networkStatistics = new NetworkStatistics(this.windowSize, this.windowDuration, this.percentiles.length > 0);
+            this.statistics.put(bssid, networkStatistics);
+        }
+        networkStatistics.add(filteredRssi * -1, distance, (NetworkRecordParser.NO_TIMESTAMP != timestamp) ? timestamp : networkStatistics.getCount());
+        this.appendStatistics(networkStatistics.getRssi());
+        this.appendStatistics(networkStatistics.getDistance());
+    }
+
+    private void appendStatistics(final SlidingWindowStatistics window) {
+        final RowWriter rowWriter = this.getRowWriter();
+        rowWriter.separator().appendDecimal(window.getMean())
+                .separator().appendDecimal(window.getStandardDeviation())
+                .separator().appendDecimal(window.getMin())
+                .separator().appendDecimal(window.getMax());
+        for (final double percentile : this.percentiles) {
+            rowWriter.separator().appendDecimal(window.getPercentile(percentile));
+        }
+    }
+}
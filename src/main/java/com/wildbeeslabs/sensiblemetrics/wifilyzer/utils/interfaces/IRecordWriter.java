@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces;
+
+import java.io.Closeable;
+import java.io.Flushable;
+
+/**
+ * Record writer interface declaration to write processed samples of access
+ * points. Like {@link java.io.PrintWriter}, implementations never throw I/O
+ * exceptions on write, errors are reported by {@link #checkError()}.
+ *
+ * @author alexander.rogalskiy
+ * @version 1.0
+ * @since 2017-12-12
+ *
+ */
+public interface IRecordWriter extends Closeable, Flushable {
+
+    /**
+     * Writes processed sample
+     *
+     * @param bssid - access point bssid
+     * @param rssi - input rssi value
+     * @param filteredRssi - filtered rssi value
+     * @param distance - distance to access point
+     * @param timestamp - sample timestamp (or NetworkRecordParser.NO_TIMESTAMP)
+     */
+    void write(final String bssid, double rssi, double filteredRssi, double distance, long timestamp);
+
+    /**
+     * Flushes writer and returns error status
+     *
+     * @return true - if any write operation has failed, false - otherwise
+     */
+    boolean checkError();
+
+    @Override
+    void flush();
+
+    @Override
+    void close();
+}
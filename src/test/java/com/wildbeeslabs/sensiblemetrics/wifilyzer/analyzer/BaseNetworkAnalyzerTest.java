@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.CsvRecordWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.RowWriter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.utils.interfaces.IRecordWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for BaseNetworkAnalyzer class (pipe and stream mode)
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class BaseNetworkAnalyzerTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(BaseNetworkAnalyzerTest.class);
+    /**
+     * Default access point bssid
+     */
+    private static final String BSSID = "46:0a64:b1:df:51";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InputStream standardInput;
+    private String input;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing pipe mode input...");
+        this.standardInput = System.in;
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append(-60 - i % 30).append((0 == i % 7) ? "\n" : ", ");
+        }
+        this.input = builder.toString();
+    }
+
+    @After
+    public void tearDown() {
+        System.setIn(this.standardInput);
+    }
+
+    @Test
+    public void testPipeMatchesFileInput() throws IOException {
+        final File inputFile = this.folder.newFile("input.txt");
+        Files.write(inputFile.toPath(), this.input.getBytes(StandardCharsets.US_ASCII));
+        final File expected = this.folder.newFile("expected.txt");
+        new BaseNetworkAnalyzer(new CmdLineProcessor("-b", BSSID, "-in", inputFile.getPath(), "-out", expected.getPath())).process(-59);
+
+        final File actual = this.folder.newFile("actual.txt");
+        System.setIn(new ByteArrayInputStream(this.input.getBytes(StandardCharsets.US_ASCII)));
+        final BaseNetworkAnalyzer analyzer = new BaseNetworkAnalyzer(new CmdLineProcessor("-b", BSSID, "-in", "-", "-out", actual.getPath()));
+        Assert.assertTrue(analyzer.isPipeInput());
+        analyzer.process(-59);
+        Assert.assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    @Test
+    public void testStreamModeMatchesBatchMode() throws IOException {
+        final File inputFile = this.folder.newFile("input.txt");
+        Files.write(inputFile.toPath(), this.input.getBytes(StandardCharsets.US_ASCII));
+        final String[][] options = {{}, {"--filter", "ARMA", "--ar-coefficients", "0.5,0.2", "--ma-coefficients", "0.2,0.1"}};
+        for (int i = 0; i < options.length; i++) {
+            final File expected = this.folder.newFile("expected" + i + ".txt");
+            new BaseNetworkAnalyzer(new CmdLineProcessor(this.arguments(inputFile, expected, "false", options[i]))).process(-59);
+
+            final File actual = this.folder.newFile("actual" + i + ".txt");
+            new BaseNetworkAnalyzer(new CmdLineProcessor(this.arguments(inputFile, actual, "true", options[i]))).process(-59);
+            Assert.assertEquals(20000, Files.readAllLines(actual.toPath()).size());
+            Assert.assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+        }
+    }
+
+    @Test
+    public void testPipeSkipsInvalidTokens() throws IOException {
+        final File expected = this.folder.newFile("expected.txt");
+        System.setIn(new ByteArrayInputStream("-76, -77, -80, -81".getBytes(StandardCharsets.US_ASCII)));
+        new BaseNetworkAnalyzer(new CmdLineProcessor("-b", BSSID, "-in", "-", "-out", expected.getPath())).process(-59);
+
+        final File actual = this.folder.newFile("actual.txt");
+        System.setIn(new ByteArrayInputStream("-76, -77, x9, -80, -8x, -81".getBytes(StandardCharsets.US_ASCII)));
+        new BaseNetworkAnalyzer(new CmdLineProcessor("-b", BSSID, "-in", "-", "-out", actual.getPath())).process(-59);
+        Assert.assertEquals(4, Files.readAllLines(actual.toPath()).size());
+        Assert.assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    @Test(timeout = 10000)
+    public void testPipeStopsOnOutputError() {
+        final AtomicLong bytesRead = new AtomicLong();
+        final byte[] sample = "-76,".getBytes(StandardCharsets.US_ASCII);
+        System.setIn(new InputStream() {
+            @Override
+            public int read() {
+                return sample[(int) (bytesRead.getAndIncrement() % sample.length)];
+            }
+        });
+        final CmdLineProcessor processor = new CmdLineProcessor("-b", BSSID, "-in", "-", "-out", "-");
+        new BaseNetworkAnalyzer(processor) {
+            @Override
+            protected IRecordWriter createRecordWriter(int txPower) {
+                return new CsvRecordWriter(new RowWriter(new ClosedWriter()), false);
+            }
+        }.process(-59);
+        Assert.assertTrue(bytesRead.get() <= 2 * BaseNetworkAnalyzer.DEFAULT_BUFFER_SIZE);
+    }
+
+    private String[] arguments(final File input, final File output, final String streamMode, final String... options) {
+        final String[] arguments = {"-b", BSSID, "-in", input.getPath(), "-out", output.getPath(), "-s", streamMode};
+        final String[] result = Arrays.copyOf(arguments, arguments.length + options.length);
+        System.arraycopy(options, 0, result, arguments.length, options.length);
+        return result;
+    }
+
+    /**
+     * Writer of closed output (e.g. broken pipe)
+     */
+    private static final class ClosedWriter extends Writer {
+
+        @Override
+        public void write(final char[] buffer, int offset, int length) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for MultiNetworkAnalyzer class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class MultiNetworkAnalyzerTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MultiNetworkAnalyzerTest.class);
+    /**
+     * Default access point bssids
+     */
+    private static final String[] BSSIDS = {"46:0a64:b1:df:51", "02:00:00:00:00:01", "02:00:00:00:00:02"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing multi bssid input...");
+        this.random = new Random(42);
+    }
+
+    @Test
+    public void testNetworksAreFilteredIndependently() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        final Map<String, StringBuilder> samples = new LinkedHashMap<>();
+        final List<String> bssids = new ArrayList<>();
+        final List<Long> timestamps = new ArrayList<>();
+        for (final String bssid : BSSIDS) {
+            samples.put(bssid, new StringBuilder());
+        }
+        for (int i = 0; i < 3000; i++) {
+            final String bssid = BSSIDS[this.random.nextInt(BSSIDS.length)];
+            final double rssi = -40 - Math.round(500 * this.random.nextDouble()) / 10.0;
+            switch (this.random.nextInt(20)) {
+                case 0:
+                    input.append('\n');
+                    continue;
+                case 1:
+                    input.append(bssid).append(",-7x\n");
+                    continue;
+                case 2:
+                    input.append(bssid).append('\n');
+                    continue;
+                default:
+                    break;
+            }
+            final long timestamp = (0 == i % 2) ? 1_000L + i : -1;
+            input.append(bssid).append(',').append(rssi);
+            if (timestamp >= 0) {
+                input.append(',').append(timestamp);
+            }
+            input.append('\n');
+            samples.get(bssid).append(rssi).append('\n');
+            bssids.add(bssid);
+            timestamps.add(timestamp);
+        }
+        final File inputFile = this.folder.newFile("input.csv");
+        Files.write(inputFile.toPath(), input.toString().getBytes(StandardCharsets.US_ASCII));
+        final File outputFile = this.folder.newFile("output.csv");
+        new MultiNetworkAnalyzer(new CmdLineProcessor("-m", "true", "-in", inputFile.getPath(), "-out", outputFile.getPath())).process(-59);
+        final List<String> actual = Files.readAllLines(outputFile.toPath(), StandardCharsets.US_ASCII);
+        Assert.assertEquals(bssids.size(), actual.size());
+
+        final Map<String, List<String>> expected = new LinkedHashMap<>();
+        for (final String bssid : BSSIDS) {
+            final File sampleFile = this.folder.newFile(bssid.replace(':', '_') + ".txt");
+            Files.write(sampleFile.toPath(), samples.get(bssid).toString().getBytes(StandardCharsets.US_ASCII));
+            final File expectedFile = this.folder.newFile(bssid.replace(':', '_') + ".csv");
+            new BaseNetworkAnalyzer(new CmdLineProcessor("-b", bssid, "-in", sampleFile.getPath(), "-out", expectedFile.getPath())).process(-59);
+            expected.put(bssid, Files.readAllLines(expectedFile.toPath(), StandardCharsets.US_ASCII));
+        }
+        final Map<String, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < actual.size(); i++) {
+            final String bssid = bssids.get(i);
+            final int position = positions.merge(bssid, 1, Integer::sum) - 1;
+            final String row = bssid + "," + expected.get(bssid).get(position) + ((timestamps.get(i) >= 0) ? "," + timestamps.get(i) : "");
+            Assert.assertEquals(String.format("row=%d", i), row, actual.get(i));
+        }
+        for (final String bssid : BSSIDS) {
+            Assert.assertEquals(expected.get(bssid).size(), positions.get(bssid).intValue());
+        }
+    }
+}
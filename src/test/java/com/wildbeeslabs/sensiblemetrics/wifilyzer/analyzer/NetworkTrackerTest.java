@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.filter.KalmanFilter;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.PathLossDistanceModel;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for NetworkTracker class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class NetworkTrackerTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(NetworkTrackerTest.class);
+
+    private NetworkTracker tracker;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing network tracker...");
+        this.tracker = new NetworkTracker(-59);
+    }
+
+    @Test
+    public void testUpdateMatchesFilterAndDistanceModel() {
+        final double[] rssi = {-76, -81.5, -79, -90, -72.25};
+        final KalmanFilter filter = new KalmanFilter();
+        final EmbeddedAntennaMetrics metrics = new EmbeddedAntennaMetrics();
+        final NetworkSample sample = new NetworkSample();
+        for (int i = 0; i < rssi.length; i++) {
+            final NetworkSample result = this.tracker.update("aa:bb", rssi[i], 1000 + i, sample);
+            final double expected = filter.applyAsDouble(rssi[i]);
+            Assert.assertSame(sample, result);
+            Assert.assertEquals("aa:bb", result.getBssid());
+            Assert.assertEquals(rssi[i], result.getRssi(), 0);
+            Assert.assertEquals(expected, result.getFilteredRssi(), 0);
+            Assert.assertEquals(PathLossDistanceModel.calculateDistance(metrics, -59, expected), result.getDistance(), 0);
+            Assert.assertEquals(1000 + i, result.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testChannelsAreKeptPerBssid() {
+        final NetworkChannel channel = this.tracker.getChannel("aa:bb");
+        Assert.assertTrue(Double.isNaN(channel.getFilteredRssi()));
+        Assert.assertSame(channel, this.tracker.getChannel("aa:bb"));
+
+        channel.update(-60, 1);
+        this.tracker.update("cc:dd", -90, 2, new NetworkSample());
+        Assert.assertEquals(2, this.tracker.size());
+        Assert.assertEquals(-60, channel.getFilteredRssi(), 0);
+        Assert.assertEquals(-90, this.tracker.getChannel("cc:dd").getFilteredRssi(), 0);
+        Assert.assertEquals(1, channel.getCount());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for ParallelNetworkAnalyzer class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class ParallelNetworkAnalyzerTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ParallelNetworkAnalyzerTest.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File input;
+
+    @Before
+    public void setUp() throws IOException {
+        LOGGER.info("Initializing parallel network analyzer input...");
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder();
+        final int rows = ParallelNetworkAnalyzer.DEFAULT_CHUNK_SIZE * 2 + 1000;
+        for (int i = 0; i < rows; i++) {
+            final int bssid = (random.nextInt(10) < 7) ? 0 : 1 + random.nextInt(40);
+            final double rssi = -40 - Math.round(500 * random.nextDouble()) / 10.0;
+            switch (random.nextInt(200)) {
+                case 0:
+                    builder.append('\n');
+                    continue;
+                case 1:
+                    builder.append(String.format("02:00:00:00:00:%02x,x%s\n", bssid, rssi));
+                    continue;
+                case 2:
+                    builder.append("garbage\n");
+                    continue;
+                default:
+                    break;
+            }
+            builder.append(String.format("02:00:00:00:00:%02x,%s", bssid, rssi));
+            if (0 == i % 3) {
+                builder.append(',').append(1_000_000L + i);
+            }
+            builder.append((0 == i % 5) ? "\r\n" : "\n");
+        }
+        this.input = this.folder.newFile("input.csv");
+        Files.write(this.input.toPath(), builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testOutputMatchesSequential() throws IOException {
+        this.assertOutputMatchesSequential();
+    }
+
+    @Test
+    public void testWindowStatisticsMatchSequential() throws IOException {
+        this.assertOutputMatchesSequential("-ws", "50", "-wd", "2000", "-wp", "50,90,99");
+    }
+
+    private void assertOutputMatchesSequential(final String... options) throws IOException {
+        final byte[] expected = this.process(new MultiNetworkAnalyzer(this.createProcessor("expected.csv", 1, options)), "expected.csv");
+        Assert.assertTrue(expected.length > 0);
+        for (final int threads : new int[]{2, 3, 8, 33}) {
+            final String name = String.format("actual-%d.csv", threads);
+            final byte[] actual = this.process(new ParallelNetworkAnalyzer(this.createProcessor(name, threads, options)), name);
+            Assert.assertArrayEquals(String.format("threads=%d", threads), expected, actual);
+        }
+    }
+
+    private CmdLineProcessor createProcessor(final String output, int threads, final String... options) {
+        final String[] args = new String[8 + options.length];
+        System.arraycopy(new String[]{"-m", "true", "-t", String.valueOf(threads), "-in", this.input.getPath(), "-out", new File(this.folder.getRoot(), output).getPath()}, 0, args, 0, 8);
+        System.arraycopy(options, 0, args, 8, options.length);
+        final CmdLineProcessor processor = new CmdLineProcessor(args);
+        Assert.assertFalse(processor.isErrorFlag());
+        return processor;
+    }
+
+    private byte[] process(final MultiNetworkAnalyzer analyzer, final String output) throws IOException {
+        analyzer.process(-59);
+        return Files.readAllBytes(new File(this.folder.getRoot(), output).toPath());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.calibration;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsProfile;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.DeviceMetricsRegistry;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.PathLossDistanceModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for DeviceCalibrator class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class DeviceCalibratorTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(DeviceCalibratorTest.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DeviceMetricsProfile expected;
+    private DeviceCalibrator calibrator;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing device calibrator...");
+        this.expected = new DeviceMetricsProfile(0.9, 7.5, 0.1, -62);
+        this.calibrator = new DeviceCalibrator();
+        final Random random = new Random(19);
+        for (int i = 0; i < 500; i++) {
+            final double distance = 0.5 + 14.5 * random.nextDouble();
+            final double ratio = Math.pow(Math.max(distance - this.expected.getCoefficientC(), 1e-3) / this.expected.getCoefficientA(), 1 / this.expected.getCoefficientB());
+            final double rssi = this.expected.getTxPower() * Math.max(ratio, 1.0) + 0.2 * random.nextGaussian();
+            this.calibrator.add(distance, Math.min(rssi, -1));
+        }
+    }
+
+    @Test
+    public void testCalibrateWithKnownTxPower() {
+        final CalibrationResult result = this.calibrator.calibrate(this.expected.getTxPower());
+        Assert.assertTrue(result.isConverged());
+        Assert.assertEquals(this.expected.getTxPower(), result.getProfile().getTxPower());
+        for (double rssi = -63; rssi >= -90; rssi -= 3) {
+            final double expectedDistance = PathLossDistanceModel.calculateDistance(this.expected, this.expected.getTxPower(), rssi);
+            final double distance = PathLossDistanceModel.calculateDistance(result.getProfile(), result.getProfile().getTxPower(), rssi);
+            Assert.assertEquals(expectedDistance, distance, 0.05 * expectedDistance + 0.1);
+        }
+        Assert.assertTrue(result.getRmse() < 1.0);
+    }
+
+    @Test
+    public void testCalibrateWithFittedTxPower() {
+        Assert.assertEquals(this.expected.getTxPower(), this.calibrator.fitTxPower(), 3);
+        final CalibrationResult result = this.calibrator.calibrate();
+        Assert.assertTrue(result.getRmse() < 1.0);
+        Assert.assertTrue(result.getSamples() > 400);
+    }
+
+    @Test
+    public void testRegistryRoundTrip() throws IOException {
+        final DeviceMetricsRegistry registry = new DeviceMetricsRegistry();
+        registry.put("device", this.calibrator.calibrate(this.expected.getTxPower()).getProfile());
+        final File profiles = this.folder.newFile("profiles.csv");
+        registry.save(profiles);
+        final DeviceMetricsRegistry loaded = DeviceMetricsRegistry.load(profiles);
+        Assert.assertEquals(registry.get("device"), loaded.get("device"));
+        Assert.assertEquals(new DeviceMetricsProfile(), loaded.getOrDefault("unknown"));
+    }
+}
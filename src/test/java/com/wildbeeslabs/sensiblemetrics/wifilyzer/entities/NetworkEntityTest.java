@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.entities;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.EmbeddedAntennaMetrics;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.PathLossDistanceModel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for NetworkEntity class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class NetworkEntityTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(NetworkEntityTest.class);
+
+    private AtomicInteger filterCalls;
+    private NetworkEntity networkEntity;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing network entity...");
+        this.filterCalls = new AtomicInteger();
+        this.networkEntity = new NetworkEntity("46:0a64:b1:df:51", -59);
+        this.networkEntity.setDeviceMetrics(new EmbeddedAntennaMetrics());
+        this.networkEntity.setRssiFilter(rssi -> {
+            this.filterCalls.incrementAndGet();
+            return rssi + 1;
+        });
+    }
+
+    @Test
+    public void testFilterIsAppliedOncePerSample() {
+        this.networkEntity.setRssi(-80);
+        final double distance = this.networkEntity.getDistance();
+        Assert.assertEquals(-79, this.networkEntity.getRssi(), 0);
+        Assert.assertEquals(PathLossDistanceModel.calculateDistance(this.networkEntity.getDeviceMetrics(), -59, -79), distance, 0);
+        Assert.assertEquals(distance, this.networkEntity.getDistance(), 0);
+        Assert.assertEquals(1, this.filterCalls.get());
+
+        this.networkEntity.setFilteredRssi(-70);
+        Assert.assertEquals(-70, this.networkEntity.getRssi(), 0);
+        Assert.assertEquals(PathLossDistanceModel.calculateDistance(this.networkEntity.getDeviceMetrics(), -59, -70), this.networkEntity.getDistance(), 0);
+        Assert.assertEquals(1, this.filterCalls.get());
+    }
+}
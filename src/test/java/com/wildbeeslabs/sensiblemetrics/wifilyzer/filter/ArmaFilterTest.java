@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.filter;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.CmdLineProcessor;
+
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for ArmaFilter class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class ArmaFilterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ArmaFilterTest.class);
+    /**
+     * Default ARMA(3,4) filter coefficients
+     */
+    private static final double[] AR_COEFFICIENTS = {0.4, 0.2, 0.1};
+    private static final double[] MA_COEFFICIENTS = {0.1, 0.08, 0.06, 0.04, 0.02};
+
+    private double[] rssi;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing arma filter input...");
+        final Random random = new Random(42);
+        this.rssi = new double[1000];
+        for (int i = 0; i < this.rssi.length; i++) {
+            this.rssi[i] = Math.round(-60 - 20 * random.nextDouble());
+        }
+    }
+
+    @Test
+    public void testMatchesDirectFormula() {
+        final double[] expected = this.getExpected(AR_COEFFICIENTS, MA_COEFFICIENTS);
+        final ArmaFilter filter = ArmaFilter.getInstance(AR_COEFFICIENTS, MA_COEFFICIENTS);
+        Assert.assertEquals(3, filter.getArOrder());
+        Assert.assertEquals(4, filter.getMaOrder());
+        for (int i = 0; i < this.rssi.length; i++) {
+            Assert.assertEquals(expected[i], filter.applyAsDouble(this.rssi[i]), 1e-9);
+        }
+    }
+
+    @Test
+    public void testBulkMatchesDirectFormula() {
+        final double[] expected = this.getExpected(AR_COEFFICIENTS, MA_COEFFICIENTS);
+        final double[] single = ArmaFilter.getInstance(AR_COEFFICIENTS, MA_COEFFICIENTS).applyAsDouble(this.rssi);
+        Assert.assertArrayEquals(expected, single, 1e-9);
+
+        final Random random = new Random(7);
+        final ArmaFilter filter = ArmaFilter.getInstance(AR_COEFFICIENTS, MA_COEFFICIENTS);
+        final double[] split = new double[this.rssi.length];
+        for (int offset = 0, length; offset < this.rssi.length; offset += length) {
+            length = Math.min(1 + random.nextInt(11), this.rssi.length - offset);
+            filter.applyAsDouble(this.rssi, offset, split, offset, length);
+        }
+        Assert.assertArrayEquals(single, split, 0);
+    }
+
+    @Test
+    public void testCmdLineCoefficients() {
+        final CmdLineProcessor processor = new CmdLineProcessor("-b", "46:0a64:b1:df:51", "-in", "input.txt", "-out", "output.txt", "-f", "ARMA", "-ar", "0.4, 0.2, 0.1", "-ma", "0.1,0.08,0.06,0.04,0.02");
+        Assert.assertFalse(processor.isErrorFlag());
+        Assert.assertArrayEquals(AR_COEFFICIENTS, processor.getArCoefficientValues(), 0);
+        Assert.assertArrayEquals(MA_COEFFICIENTS, processor.getMaCoefficientValues(), 0);
+        Assert.assertTrue(new CmdLineProcessor("-b", "46:0a64:b1:df:51", "-in", "input.txt", "-out", "output.txt", "-ar", "0.5", "-ma", "0.5").isErrorFlag());
+        Assert.assertTrue(new CmdLineProcessor("-b", "46:0a64:b1:df:51", "-in", "input.txt", "-out", "output.txt", "-f", "ARMA", "-ar", "0.5").isErrorFlag());
+    }
+
+    /**
+     * Returns filtered rssi by direct ARMA(p,q) formula, past values before
+     * the first sample are equal to the first sample
+     */
+    private double[] getExpected(final double[] ar, final double[] ma) {
+        final double[] result = new double[this.rssi.length];
+        for (int t = 0; t < this.rssi.length; t++) {
+            double value = ma[0] * this.rssi[t];
+            for (int i = 1; i < ma.length; i++) {
+                value += ma[i] * this.rssi[Math.max(t - i, 0)];
+            }
+            for (int i = 1; i <= ar.length; i++) {
+                value += ar[i - 1] * ((t - i < 0) ? this.rssi[0] : result[t - i]);
+            }
+            result[t] = value;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.filter;
+
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for KalmanFilter class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class KalmanFilterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(KalmanFilterTest.class);
+
+    private Random random;
+    private double[] rssi;
+    private double[] expected;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing kalman filter input...");
+        this.random = new Random(42);
+        this.rssi = new double[2000];
+        for (int i = 0; i < this.rssi.length; i++) {
+            this.rssi[i] = Math.round((-60 - 20 * this.random.nextDouble()) * 100) / 100.0;
+        }
+        final KalmanFilter filter = new KalmanFilter();
+        this.expected = new double[this.rssi.length];
+        for (int i = 0; i < this.rssi.length; i++) {
+            this.expected[i] = filter.applyAsDouble(this.rssi[i]);
+        }
+    }
+
+    @Test
+    public void testBulkMatchesSingle() {
+        final KalmanFilter filter = new KalmanFilter();
+        this.assertIdentical(this.expected, filter.applyAsDouble(this.rssi));
+
+        final double[] values = this.rssi.clone();
+        new KalmanFilter().applyAsDouble(values, 0, values, 0, values.length);
+        this.assertIdentical(this.expected, values);
+    }
+
+    @Test
+    public void testSplitBulkMatchesSingle() {
+        for (int run = 0; run < 100; run++) {
+            final KalmanFilter filter = new KalmanFilter();
+            final double[] actual = new double[this.rssi.length];
+            for (int offset = 0, length; offset < this.rssi.length; offset += length) {
+                length = Math.min((run < 50) ? this.random.nextInt(4) : this.random.nextInt(200), this.rssi.length - offset);
+                filter.applyAsDouble(this.rssi, offset, actual, offset, length);
+            }
+            this.assertIdentical(this.expected, actual);
+        }
+    }
+
+    @Test
+    public void testMixedCallsMatchSingle() {
+        final KalmanFilter filter = new KalmanFilter(0.05, 2.5);
+        final KalmanFilter reference = new KalmanFilter(0.05, 2.5);
+        final double[] actual = new double[1];
+        for (int i = 0; i < this.rssi.length; i++) {
+            final double expected = reference.applyAsDouble(this.rssi[i]);
+            if (this.random.nextBoolean()) {
+                filter.applyAsDouble(this.rssi, i, actual, 0, 1);
+            } else {
+                actual[0] = filter.applyAsDouble(this.rssi[i]);
+            }
+            Assert.assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual[0]));
+        }
+        Assert.assertEquals(Double.doubleToRawLongBits(reference.getErrorCovarianceRSSI()), Double.doubleToRawLongBits(filter.getErrorCovarianceRSSI()));
+    }
+
+    private void assertIdentical(final double[] expected, final double[] actual) {
+        Assert.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("sample " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for AccessPointIndex class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class AccessPointIndexTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(AccessPointIndexTest.class);
+    /**
+     * Number of access points
+     */
+    private static final int SIZE = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File surveyFile;
+    private AccessPointIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        LOGGER.info("Initializing access point index...");
+        final Random random = new Random(5);
+        final StringBuilder survey = new StringBuilder("# bssid,latitude,longitude,altitude\n");
+        for (int i = 0; i < SIZE; i++) {
+            survey.append(String.format("46:0a:64:%02x:%02x:%02x", i >> 16, (i >> 8) & 0xff, i & 0xff))
+                    .append(',').append(55.75 + 0.01 * random.nextDouble())
+                    .append(',').append(37.61 + 0.01 * random.nextDouble())
+                    .append(",3\n");
+        }
+        survey.append("invalid\n");
+        this.surveyFile = this.folder.newFile("survey.csv");
+        Files.write(this.surveyFile.toPath(), survey.toString().getBytes(StandardCharsets.US_ASCII));
+        this.index = AccessPointIndex.load(this.surveyFile);
+    }
+
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Assert.assertEquals(SIZE, this.index.size());
+        final Random random = new Random(9);
+        final int[] result = new int[8];
+        final double[] distances = new double[8];
+        for (int q = 0; q < 200; q++) {
+            final double x = 400 * random.nextDouble() - 400;
+            final double y = 1200 * random.nextDouble() - 600;
+            Assert.assertEquals(8, this.index.nearest(x, y, 8, result, distances));
+            final double[] expected = this.scan(x, y);
+            for (int i = 0; i < 8; i++) {
+                Assert.assertEquals(expected[i], distances[i], 1e-9);
+                Assert.assertEquals(distances[i], Math.hypot(x - this.index.getEast(result[i]), y - this.index.getNorth(result[i])), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testWithinMatchesLinearScan() {
+        final Random random = new Random(13);
+        final int[] result = new int[SIZE];
+        for (int q = 0; q < 200; q++) {
+            final double x = 400 * random.nextDouble() - 400;
+            final double y = 1200 * random.nextDouble() - 600;
+            final double[] expected = this.scan(x, y);
+            final double radius = 10 + 40 * random.nextDouble();
+            final int count = this.index.within(x, y, radius, result);
+            Assert.assertEquals(Arrays.stream(expected).filter(d -> d <= radius).count(), count);
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(Math.hypot(x - this.index.getEast(result[i]), y - this.index.getNorth(result[i])) <= radius);
+            }
+        }
+    }
+
+    @Test
+    public void testSkipInvalidLocations() throws IOException {
+        final File survey = this.folder.newFile("invalid.csv");
+        final String rows = "02:00:00:00:00:01,NaN,37.61\n"
+                + "02:00:00:00:00:02,55.75,Infinity\n"
+                + "02:00:00:00:00:03,-Infinity,37.61\n"
+                + "02:00:00:00:00:04,90.5,37.61\n"
+                + "02:00:00:00:00:05,55.75,-180.5\n"
+                + "02:00:00:00:00:06,55.75,37.61,NaN\n"
+                + "02:00:00:00:00:07,-90,180\n";
+        Files.write(survey.toPath(), rows.getBytes(StandardCharsets.US_ASCII));
+        final AccessPointIndex result = AccessPointIndex.load(survey, new LocalProjection(55.75, 37.61));
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(-1, result.indexOf("02:00:00:00:00:01"));
+        Assert.assertEquals(-1, result.indexOf("02:00:00:00:00:05"));
+        Assert.assertEquals(-1, result.indexOf("02:00:00:00:00:06"));
+        Assert.assertTrue(result.indexOf("02:00:00:00:00:07") >= 0);
+    }
+
+    @Test
+    public void testLookupByBssid() {
+        final int i = this.index.indexOf("46:0a:64:00:01:2c");
+        Assert.assertTrue(i >= 0);
+        Assert.assertEquals("46:0a:64:00:01:2c", this.index.getBssid(i));
+        Assert.assertEquals(-1, this.index.indexOf("invalid"));
+        final MultilaterationEngine engine = new MultilaterationEngine(this.index);
+        Assert.assertEquals(0, engine.getAccessPointIndex("46:0a:64:00:01:2c"));
+        Assert.assertEquals(1, engine.size());
+    }
+
+    private double[] scan(double x, double y) {
+        final double[] result = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = Math.hypot(x - this.index.getEast(i), y - this.index.getNorth(i));
+        }
+        Arrays.sort(result);
+        return result;
+    }
+}
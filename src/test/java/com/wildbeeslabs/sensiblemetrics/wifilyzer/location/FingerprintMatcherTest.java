@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for FingerprintMatcher class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class FingerprintMatcherTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(FingerprintMatcherTest.class);
+    /**
+     * Number of access points
+     */
+    private static final int ACCESS_POINTS = 40;
+    /**
+     * Grid size of radio map (fingerprints per side)
+     */
+    private static final int GRID = 40;
+    /**
+     * Grid step (meters)
+     */
+    private static final double STEP = 2.0;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalProjection projection;
+    private double[][] accessPoints;
+    private double[][] radioMap;
+    private FingerprintIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        LOGGER.info("Initializing fingerprint index...");
+        final Random random = new Random(3);
+        this.projection = new LocalProjection(55.75, 37.61);
+        this.accessPoints = new double[ACCESS_POINTS][];
+        for (int j = 0; j < ACCESS_POINTS; j++) {
+            this.accessPoints[j] = new double[]{GRID * STEP * random.nextDouble(), GRID * STEP * random.nextDouble()};
+        }
+        final StringBuilder map = new StringBuilder("# latitude,longitude,bssid,rssi...\n");
+        this.radioMap = new double[GRID * GRID][];
+        for (int f = 0; f < this.radioMap.length; f++) {
+            final double x = STEP * (f % GRID);
+            final double y = STEP * (f / GRID);
+            this.radioMap[f] = this.rssi(x, y, 0, random);
+            map.append(this.projection.toLatitude(y)).append(',').append(this.projection.toLongitude(x));
+            for (int j = 0; j < ACCESS_POINTS; j++) {
+                if (this.radioMap[f][j] > FingerprintIndex.DEFAULT_MISSING_RSSI) {
+                    map.append(',').append(this.bssid(j)).append(',').append(this.radioMap[f][j]);
+                }
+            }
+            map.append('\n');
+        }
+        map.append("55.75,37.61\n");
+        map.append("NaN,37.61,46:0a:64:b1:df:00,-60\n");
+        map.append("55.75,180.5,46:0a:64:b1:df:00,-60\n");
+        final File radioMapFile = this.folder.newFile("radiomap.csv");
+        Files.write(radioMapFile.toPath(), map.toString().getBytes(StandardCharsets.US_ASCII));
+        this.index = FingerprintIndex.load(radioMapFile, this.projection, FingerprintIndex.DEFAULT_MISSING_RSSI);
+    }
+
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Assert.assertEquals(GRID * GRID, this.index.size());
+        final Random random = new Random(21);
+        final FingerprintMatcher matcher = new FingerprintMatcher(this.index, 5);
+        final int[] result = new int[5];
+        final double[] distances = new double[5];
+        for (int q = 0; q < 100; q++) {
+            final double[] query = this.rssi(GRID * STEP * random.nextDouble(), GRID * STEP * random.nextDouble(), 3, random);
+            matcher.reset();
+            for (int j = 0; j < ACCESS_POINTS; j++) {
+                if (query[j] > FingerprintIndex.DEFAULT_MISSING_RSSI) {
+                    matcher.add(this.bssid(j), query[j]);
+                }
+            }
+            matcher.add("unknown", -70);
+            Assert.assertEquals(5, matcher.nearest(result, distances));
+            final double[] expected = new double[this.radioMap.length];
+            for (int f = 0; f < this.radioMap.length; f++) {
+                double sum = 30 * 30;
+                for (int j = 0; j < ACCESS_POINTS; j++) {
+                    sum += (query[j] - this.radioMap[f][j]) * (query[j] - this.radioMap[f][j]);
+                }
+                expected[f] = Math.sqrt(sum);
+            }
+            Arrays.sort(expected);
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals(expected[i], distances[i], 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testLocate() {
+        final FingerprintMatcher matcher = new FingerprintMatcher(this.index);
+        final double[] query = this.rssi(31, 47, 0, null);
+        for (int j = 0; j < ACCESS_POINTS; j++) {
+            matcher.add(this.bssid(j), query[j]);
+        }
+        final PositionFix fix = matcher.locate(new PositionFix());
+        Assert.assertTrue(fix.isValid());
+        Assert.assertEquals(31, fix.getEast(), STEP);
+        Assert.assertEquals(47, fix.getNorth(), STEP);
+        matcher.reset();
+        matcher.add("unknown", -60);
+        Assert.assertFalse(matcher.locate(fix).isValid());
+    }
+
+    private String bssid(int j) {
+        return String.format("46:0a:64:b1:df:%02x", j);
+    }
+
+    private double[] rssi(double x, double y, double noise, final Random random) {
+        final double[] result = new double[ACCESS_POINTS];
+        for (int j = 0; j < ACCESS_POINTS; j++) {
+            final double d = Math.max(1, Math.hypot(x - this.accessPoints[j][0], y - this.accessPoints[j][1]));
+            final double value = -40 - 25 * Math.log10(d) + (noise > 0 ? noise * random.nextGaussian() : 0);
+            result[j] = value < -85 ? FingerprintIndex.DEFAULT_MISSING_RSSI : Math.round(value * 10) / 10.0;
+        }
+        return result;
+    }
+}
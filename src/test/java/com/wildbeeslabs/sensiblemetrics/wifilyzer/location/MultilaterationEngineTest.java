@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.location;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.entities.NetworkLocationEntity;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for MultilaterationEngine class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class MultilaterationEngineTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MultilaterationEngineTest.class);
+
+    private MultilaterationEngine engine;
+    private int[] accessPoints;
+    private double[] distances;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing multilateration engine...");
+        this.engine = new MultilaterationEngine(new LocalProjection(55.75, 37.61));
+        this.accessPoints = new int[]{
+            this.engine.addAccessPoint("ap0", 0, 0),
+            this.engine.addAccessPoint("ap1", 30, 0),
+            this.engine.addAccessPoint("ap2", 30, 20),
+            this.engine.addAccessPoint("ap3", 0, 20)
+        };
+        this.distances = new double[this.accessPoints.length];
+    }
+
+    @Test
+    public void testExactDistances() {
+        this.setDistances(12, 7, 0, null);
+        final PositionFix fix = this.engine.locate(this.accessPoints, this.distances, this.distances.length, new PositionFix());
+        Assert.assertTrue(fix.isValid());
+        Assert.assertEquals(12, fix.getEast(), 1e-3);
+        Assert.assertEquals(7, fix.getNorth(), 1e-3);
+        Assert.assertEquals(0, fix.getResidual(), 1e-3);
+        Assert.assertEquals(55.75, fix.getLatitude(), 1e-3);
+    }
+
+    @Test
+    public void testWarmStartTracksMovingClient() {
+        final Random random = new Random(11);
+        final PositionFix fix = new PositionFix();
+        int iterations = 0;
+        for (int step = 0; step < 100; step++) {
+            final double x = 5 + 0.2 * step;
+            final double y = 10 + 0.05 * step;
+            this.setDistances(x, y, 0.3, random);
+            this.engine.locate(this.accessPoints, this.distances, this.distances.length, fix);
+            Assert.assertTrue(fix.isValid());
+            Assert.assertEquals(x, fix.getEast(), 1.0);
+            Assert.assertEquals(y, fix.getNorth(), 1.0);
+            iterations += fix.getIterations();
+        }
+        Assert.assertTrue(iterations < 100 * 5);
+    }
+
+    @Test
+    public void testNotEnoughAccessPoints() {
+        this.setDistances(12, 7, 0, null);
+        this.distances[1] = Double.NaN;
+        this.distances[2] = Double.NaN;
+        final PositionFix fix = this.engine.locate(this.accessPoints, this.distances, this.distances.length, new PositionFix());
+        Assert.assertFalse(fix.isValid());
+        Assert.assertEquals(2, fix.getAccessPoints());
+    }
+
+    @Test
+    public void testGeographicAccessPoint() {
+        final LocalProjection projection = this.engine.getProjection();
+        final int i = this.engine.addAccessPoint("ap4", new NetworkLocationEntity(
+                BigDecimal.valueOf(projection.toLatitude(10)), BigDecimal.valueOf(projection.toLongitude(-5))));
+        Assert.assertEquals(4, i);
+        Assert.assertEquals(5, this.engine.size());
+        Assert.assertEquals(i, this.engine.getAccessPointIndex("ap4"));
+        Assert.assertEquals(-1, this.engine.getAccessPointIndex("ap5"));
+    }
+
+    private void setDistances(double x, double y, double noise, final Random random) {
+        final double[][] positions = {{0, 0}, {30, 0}, {30, 20}, {0, 20}};
+        for (int i = 0; i < positions.length; i++) {
+            final double d = Math.hypot(x - positions[i][0], y - positions[i][1]);
+            this.distances[i] = d + (noise > 0 ? noise * random.nextGaussian() : 0);
+        }
+    }
+}
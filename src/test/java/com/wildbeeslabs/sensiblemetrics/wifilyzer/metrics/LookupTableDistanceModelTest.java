@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics.interfaces.IBaseDeviceMetrics;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for LookupTableDistanceModel class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class LookupTableDistanceModelTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(LookupTableDistanceModelTest.class);
+    /**
+     * Default transmission power
+     */
+    private static final int TX_POWER = -59;
+    /**
+     * Interpolation error bound of default metrics (in meters)
+     */
+    private static final double MAX_ERROR = 3.2e-6;
+
+    private IBaseDeviceMetrics deviceMetrics;
+    private LookupTableDistanceModel model;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing lookup table distance model...");
+        this.deviceMetrics = new EmbeddedAntennaMetrics();
+        this.model = new LookupTableDistanceModel(this.deviceMetrics, TX_POWER);
+    }
+
+    @Test
+    public void testMaxAbsoluteError() {
+        Assert.assertTrue(this.model.getMaxAbsoluteError() > 0);
+        Assert.assertTrue(this.model.getMaxAbsoluteError() < MAX_ERROR);
+    }
+
+    @Test
+    public void testBreakPoint() {
+        final double breakRssi = this.model.getMinRssi() + this.model.getBreakIndex() * this.model.getStep();
+        for (double rssi = breakRssi - 3 * this.model.getStep(); rssi <= breakRssi + 3 * this.model.getStep(); rssi += this.model.getStep() / 64) {
+            Assert.assertEquals(this.getExpected(rssi), this.model.calculateDistance(rssi), MAX_ERROR);
+        }
+        Assert.assertEquals(this.getExpected(TX_POWER), this.model.calculateDistance(TX_POWER), 0);
+        Assert.assertEquals(this.getExpected(TX_POWER - 1e-9), this.model.calculateDistance(TX_POWER - 1e-9), 0);
+        Assert.assertEquals(this.getExpected(TX_POWER + 1e-9), this.model.calculateDistance(TX_POWER + 1e-9), 0);
+    }
+
+    @Test
+    public void testOutsideOfRange() {
+        for (double rssi : new double[]{-1000, -131, -130.001, LookupTableDistanceModel.DEFAULT_MAX_RSSI, 0.001, 5, 100}) {
+            Assert.assertEquals(this.getExpected(rssi), this.model.calculateDistance(rssi), 0);
+        }
+        Assert.assertEquals(this.getExpected(LookupTableDistanceModel.DEFAULT_MIN_RSSI), this.model.calculateDistance(LookupTableDistanceModel.DEFAULT_MIN_RSSI), MAX_ERROR);
+    }
+
+    @Test
+    public void testSharedTablesAreBounded() {
+        final LookupTableDistanceModel shared = LookupTableDistanceModel.getInstance(this.deviceMetrics, TX_POWER);
+        Assert.assertSame(shared, LookupTableDistanceModel.getInstance(new EmbeddedAntennaMetrics(), TX_POWER));
+        for (int i = 0; i <= LookupTableDistanceModel.DEFAULT_MAX_TABLES; i++) {
+            LookupTableDistanceModel.getInstance(new EmbeddedAntennaMetrics(0.9, 7.5, 0.1), -30 - i);
+        }
+        Assert.assertEquals(LookupTableDistanceModel.DEFAULT_MAX_TABLES, LookupTableDistanceModel.getTableCount());
+        Assert.assertNotSame(shared, LookupTableDistanceModel.getInstance(this.deviceMetrics, TX_POWER));
+    }
+
+    private double getExpected(double rssi) {
+        return PathLossDistanceModel.calculateDistance(this.deviceMetrics, TX_POWER, rssi);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.metrics;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for OuiProfileRegistry class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class OuiProfileRegistryTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(OuiProfileRegistryTest.class);
+
+    private DeviceMetricsProfile vendor;
+    private DeviceMetricsProfile block;
+    private OuiProfileRegistry registry;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing vendor prefix registry...");
+        this.vendor = new DeviceMetricsProfile(0.5, 7.0, 0.5, -60);
+        this.block = new DeviceMetricsProfile(0.6, 6.5, 0.4, -65);
+        final DeviceMetricsRegistry prefixes = new DeviceMetricsRegistry();
+        prefixes.put("00:1A:2B", this.vendor);
+        prefixes.put("00-1a-2b-c", this.block);
+        prefixes.put("zz:00", new DeviceMetricsProfile());
+        this.registry = new OuiProfileRegistry(prefixes);
+    }
+
+    @Test
+    public void testLongestPrefixMatch() {
+        Assert.assertEquals(2, this.registry.size());
+        Assert.assertSame(this.vendor, this.registry.get("00:1a:2b:01:02:03"));
+        Assert.assertSame(this.block, this.registry.get("00:1A:2B:C1:02:03"));
+        Assert.assertSame(this.vendor, this.registry.lookup("001a.2bd1.0203"));
+        Assert.assertNull(this.registry.get("46:0a64:b1:df:51"));
+        Assert.assertNull(this.registry.get("00:1a"));
+    }
+
+    @Test
+    public void testSkipEmptyPrefix() {
+        final DeviceMetricsRegistry prefixes = new DeviceMetricsRegistry();
+        prefixes.put("00:1A:2B", this.vendor);
+        prefixes.put("::", this.block);
+        prefixes.put("", this.block);
+        final OuiProfileRegistry result = new OuiProfileRegistry(prefixes);
+        Assert.assertEquals(1, result.size());
+        Assert.assertSame(this.vendor, result.get("00:1a:2b:01:02:03"));
+        Assert.assertNull(result.get("46:0a64:b1:df:51"));
+        Assert.assertNull(result.lookup(""));
+    }
+
+    @Test
+    public void testCachedLookup() {
+        Assert.assertSame(this.vendor, this.registry.get("00:1a:2b:01:02:03"));
+        Assert.assertNull(this.registry.get("46:0a64:b1:df:51"));
+        Assert.assertEquals(2, this.registry.getCacheSize());
+        Assert.assertSame(this.vendor, this.registry.get("00:1a:2b:01:02:03"));
+        Assert.assertNull(this.registry.get("46:0a64:b1:df:51"));
+        Assert.assertEquals(2, this.registry.getCacheSize());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.stream.DoubleStream;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for MappedRssiReader class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class MappedRssiReaderTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MappedRssiReaderTest.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File inputFile;
+    private double[] expected;
+
+    @Before
+    public void setUp() throws IOException {
+        LOGGER.info("Initializing mapped rssi reader input...");
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append(-30 - i % 70).append((0 == i % 3) ? ".25, " : "\n");
+        }
+        this.inputFile = this.folder.newFile("input.txt");
+        Files.write(this.inputFile.toPath(), input.toString().getBytes(StandardCharsets.US_ASCII));
+        final DoubleStream.Builder builder = DoubleStream.builder();
+        new RssiTokenizer().tokenize(input, builder);
+        this.expected = builder.build().toArray();
+    }
+
+    @Test
+    public void testReadSequential() throws IOException {
+        Assert.assertArrayEquals(this.expected, this.read(new MappedRssiReader(RssiTokenizer::new, 1, 7)), 0);
+    }
+
+    @Test
+    public void testReadParallel() throws IOException {
+        Assert.assertArrayEquals(this.expected, this.read(new MappedRssiReader(RssiTokenizer::new, 3, 7)), 0);
+        Assert.assertArrayEquals(this.expected, this.read(new MappedRssiReader(RssiTokenizer::new, 4, 1)), 0);
+    }
+
+    private double[] read(final MappedRssiReader reader) throws IOException {
+        final DoubleStream.Builder builder = DoubleStream.builder();
+        reader.read(this.inputFile, builder);
+        return builder.build().toArray();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for NetworkRecordChunkParser class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class NetworkRecordChunkParserTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(NetworkRecordChunkParserTest.class);
+
+    private List<String> records;
+    private NetworkRecordChunkParser parser;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing network record chunk parser...");
+        this.records = new ArrayList<>();
+        this.parser = new NetworkRecordChunkParser(new NetworkRecordParser(), (bssid, rssi, timestamp) -> this.records.add(bssid + "|" + rssi + "|" + timestamp));
+    }
+
+    @Test
+    public void testParseChunks() {
+        final byte[] input = "aa:bb,-76,1000\r\ncc:dd, -81.5\ninvalid\n\naa:bb,-77,1001".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < input.length; i += 4) {
+            this.parser.parse(ByteBuffer.wrap(input, i, Math.min(4, input.length - i)));
+        }
+        Assert.assertEquals(2, this.records.size());
+        this.parser.flush();
+        Assert.assertEquals(3, this.records.size());
+        Assert.assertEquals("aa:bb|-76.0|1000", this.records.get(0));
+        Assert.assertEquals("cc:dd|-81.5|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(1));
+        Assert.assertEquals("aa:bb|-77.0|1001", this.records.get(2));
+    }
+
+    @Test
+    public void testResetDiscardsPendingRow() {
+        this.parser.parse(ByteBuffer.wrap("aa:bb,-7".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.reset();
+        this.parser.parse(ByteBuffer.wrap("cc:dd,-60\n".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        Assert.assertEquals(1, this.records.size());
+        Assert.assertEquals("cc:dd|-60.0|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(0));
+    }
+
+    @Test
+    public void testSkipOversizeRow() {
+        this.parser = new NetworkRecordChunkParser(new NetworkRecordParser(), (bssid, rssi, timestamp) -> this.records.add(bssid + "|" + rssi + "|" + timestamp), 16);
+        final byte[] garbage = new byte[100_000];
+        Arrays.fill(garbage, (byte) 'x');
+        this.parser.parse(ByteBuffer.wrap("aa:bb,-76\n".getBytes(StandardCharsets.US_ASCII)));
+        for (int i = 0; i < 10; i++) {
+            this.parser.parse(ByteBuffer.wrap(garbage));
+        }
+        this.parser.parse(ByteBuffer.wrap("\naa:bb,-77,1001\r\n0123456789abcdef,-1".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        Assert.assertEquals(2, this.records.size());
+        Assert.assertEquals("aa:bb|-76.0|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(0));
+        Assert.assertEquals("aa:bb|-77.0|1001", this.records.get(1));
+    }
+
+    @Test
+    public void testDecodeUtf8Rows() {
+        final byte[] input = "\u00e9t\u00e9:bb,-76\n\u4e2d:cc,-81\n".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < input.length; i++) {
+            this.parser.parse(ByteBuffer.wrap(input, i, 1));
+        }
+        this.parser.parse(ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, ',', '-', '6', '0', '\n'}));
+        this.parser.parse(ByteBuffer.wrap("aa:bb,-77".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        Assert.assertEquals(3, this.records.size());
+        Assert.assertEquals("\u00e9t\u00e9:bb|-76.0|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(0));
+        Assert.assertEquals("\u4e2d:cc|-81.0|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(1));
+        Assert.assertEquals("aa:bb|-77.0|" + NetworkRecordParser.NO_TIMESTAMP, this.records.get(2));
+    }
+}
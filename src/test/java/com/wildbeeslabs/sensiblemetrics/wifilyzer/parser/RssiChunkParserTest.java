@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for RssiChunkParser class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class RssiChunkParserTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RssiChunkParserTest.class);
+
+    private List<Double> values;
+    private RssiChunkParser parser;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing rssi chunk parser...");
+        this.values = new ArrayList<>();
+        this.parser = new RssiChunkParser(new RssiTokenizer(), this.values::add);
+    }
+
+    @Test
+    public void testSkipInvalidToken() {
+        this.parser.parse(ByteBuffer.wrap("-76, -77, x9, -80, -81".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        Assert.assertEquals(Arrays.asList(-76.0, -77.0, -80.0, -81.0), this.values);
+    }
+
+    @Test
+    public void testSkipInvalidTokenAcrossChunks() {
+        final byte[] input = "-76, -77, x9x9x9, -8y0\n-80, -, -81".getBytes(StandardCharsets.US_ASCII);
+        for (int size = 1; size <= input.length; size++) {
+            this.values.clear();
+            for (int i = 0; i < input.length; i += size) {
+                this.parser.parse(ByteBuffer.wrap(input, i, Math.min(size, input.length - i)));
+            }
+            this.parser.flush();
+            Assert.assertEquals(Arrays.asList(-76.0, -77.0, -80.0, -81.0), this.values);
+        }
+    }
+
+    @Test
+    public void testSkipInvalidTrailingToken() {
+        this.parser.parse(ByteBuffer.wrap("-76, -7x".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        this.parser.parse(ByteBuffer.wrap("-80".getBytes(StandardCharsets.US_ASCII)));
+        this.parser.flush();
+        Assert.assertEquals(Arrays.asList(-76.0, -80.0), this.values);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.parser;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.analyzer.BaseNetworkAnalyzer;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for RssiTokenizer class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class RssiTokenizerTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RssiTokenizerTest.class);
+
+    private RssiTokenizer tokenizer;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing rssi tokenizer...");
+        this.tokenizer = new RssiTokenizer();
+    }
+
+    @Test
+    public void testTokenizeAsRegexSplit() {
+        final String input = "-76, -76, -78;-81 -74\t-80 ,, -81: \"-78\"!-88/-76?-88 -90\r\n";
+        final double[] expected = Arrays.stream(input.trim().split(BaseNetworkAnalyzer.DEFAULT_TOKEN_DELIMITER))
+                .filter(StringUtils::isNotBlank)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        Assert.assertArrayEquals(expected, this.tokenize(input), 0);
+    }
+
+    @Test
+    public void testTokenizeDecimals() {
+        Assert.assertArrayEquals(new double[]{-76.73, 0.1, -0.0, 1.5e3, 123456789.125, 3}, this.tokenize("-76.73,0.1 -0 +1.5e3 123456789.125. 3"), 0);
+    }
+
+    @Test
+    public void testTokenizeChunks() {
+        final String input = "-76.25, -78, -81.5, -74";
+        final DoubleStream.Builder builder = DoubleStream.builder();
+        final char[] chars = input.toCharArray();
+        for (int i = 0; i < chars.length; i += 3) {
+            this.tokenizer.tokenize(chars, i, Math.min(3, chars.length - i), builder);
+        }
+        this.tokenizer.flush(builder);
+        Assert.assertArrayEquals(new double[]{-76.25, -78, -81.5, -74}, builder.build().toArray(), 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testTokenizeInvalid() {
+        this.tokenize("-76, -7a");
+    }
+
+    private double[] tokenize(final CharSequence value) {
+        final DoubleStream.Builder builder = DoubleStream.builder();
+        this.tokenizer.tokenize(value, builder);
+        return builder.build().toArray();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for SamplePipeline class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class SamplePipelineTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(SamplePipelineTest.class);
+
+    private List<String> records;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing sample pipeline...");
+        this.records = new ArrayList<>();
+    }
+
+    @Test
+    public void testSamplesPassStagesInOrder() throws IOException {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        try (final SamplePipeline pipeline = new SamplePipeline(3, 2,
+                batch -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.getFilteredRssi()[i] = batch.getRssi()[i] / 2;
+                    }
+                },
+                batch -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        this.records.add(batch.getBssid()[i] + "|" + batch.getFilteredRssi()[i] + "|" + batch.getTimestamp()[i]);
+                    }
+                    inFlight.decrementAndGet();
+                })) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.offer("aa:bb", -i, i);
+            }
+        }
+        Assert.assertEquals(100, this.records.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("aa:bb|" + (-i / 2.0) + "|" + i, this.records.get(i));
+        }
+        Assert.assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void testStageFailureIsReported() {
+        try (final SamplePipeline pipeline = new SamplePipeline(2, 1, batch -> {
+            throw new IllegalStateException("stage failed");
+        })) {
+            for (int i = 0; i < 10; i++) {
+                pipeline.offer("aa:bb", -60, i);
+            }
+            Assert.fail("pipeline failure is not reported");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testStageErrorDoesNotBlockClose() {
+        final AtomicInteger processed = new AtomicInteger();
+        try (final SamplePipeline pipeline = new SamplePipeline(2, 2,
+                batch -> {
+                    throw new AssertionError("stage error");
+                },
+                batch -> processed.incrementAndGet())) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.offer("aa:bb", -60, i);
+            }
+            Assert.fail("pipeline failure is not reported");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof AssertionError);
+        }
+        Assert.assertEquals(0, processed.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptedStageDoesNotBlockClose() {
+        final AtomicInteger processed = new AtomicInteger();
+        try (final SamplePipeline pipeline = new SamplePipeline(2, 2,
+                batch -> {
+                    if (0 == processed.getAndIncrement()) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                batch -> {
+                })) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.offer("aa:bb", -60, i);
+            }
+            pipeline.close();
+            Assert.fail("pipeline failure is not reported");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof InterruptedException);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for KllSketch class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class KllSketchTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(KllSketchTest.class);
+    /**
+     * Maximum rank error of estimated quantiles
+     */
+    private static final double MAX_RANK_ERROR = 0.02;
+
+    private double[] values;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing quantile sketch...");
+        final Random random = new Random(7);
+        this.values = new double[200000];
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = -60 + 8 * random.nextGaussian();
+        }
+    }
+
+    @Test
+    public void testQuantilesInBoundedMemory() {
+        final KllSketch sketch = new KllSketch();
+        for (final double value : this.values) {
+            sketch.add(value);
+        }
+        Assert.assertEquals(this.values.length, sketch.getCount());
+        Assert.assertTrue(sketch.getRetainedItems() < 4 * KllSketch.DEFAULT_K);
+        this.assertQuantiles(sketch);
+    }
+
+    @Test
+    public void testMergedShards() {
+        final KllSketch[] shards = new KllSketch[4];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new KllSketch();
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            shards[i % shards.length].add(this.values[i]);
+        }
+        final KllSketch sketch = new KllSketch();
+        for (final KllSketch shard : shards) {
+            sketch.merge(shard);
+        }
+        Assert.assertEquals(this.values.length, sketch.getCount());
+        Assert.assertTrue(sketch.getRetainedItems() < 4 * KllSketch.DEFAULT_K);
+        this.assertQuantiles(sketch);
+    }
+
+    private void assertQuantiles(final KllSketch sketch) {
+        final double[] sorted = this.values.clone();
+        Arrays.sort(sorted);
+        final double[] quantiles = {0.99, 0.5, 0.9, 0, 1};
+        final double[] estimates = sketch.getQuantiles(quantiles);
+        for (int i = 0; i < quantiles.length; i++) {
+            final int rank = Arrays.binarySearch(sorted, estimates[i]);
+            Assert.assertTrue(rank >= 0);
+            Assert.assertEquals(quantiles[i], (double) rank / sorted.length, MAX_RANK_ERROR);
+        }
+        Assert.assertEquals(sorted[0], sketch.getMin(), 0);
+        Assert.assertEquals(sorted[sorted.length - 1], sketch.getMax(), 0);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for SlidingWindowStatistics class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class SlidingWindowStatisticsTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(SlidingWindowStatisticsTest.class);
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing sliding window statistics...");
+        this.random = new Random(42);
+    }
+
+    @Test
+    public void testCountWindowMatchesBruteForce() {
+        this.testWindow(new SlidingWindowStatistics(37, 0, true), 37, 0);
+    }
+
+    @Test
+    public void testTimeWindowMatchesBruteForce() {
+        this.testWindow(new SlidingWindowStatistics(0, 500, true), 0, 500);
+    }
+
+    @Test
+    public void testTimeAndCountWindowMatchesBruteForce() {
+        this.testWindow(new SlidingWindowStatistics(20, 300, true), 20, 300);
+    }
+
+    @Test
+    public void testLongTimeWindowPercentilesMatchSort() {
+        final SlidingWindowStatistics window = new SlidingWindowStatistics(0, 200_000, true);
+        final int samples = 100_000;
+        final double[] values = new double[samples];
+        final long[] timestamps = new long[samples];
+        final double[] percentiles = {0.1, 1, 25, 50, 90, 99, 99.9, 100};
+        long timestamp = 0;
+        int from = 0;
+        for (int i = 0; i < samples; i++) {
+            values[i] = (i % 3 == 0) ? Math.round((-30 - 70 * this.random.nextDouble()) * 100) / 100.0 : 20 * this.random.nextDouble();
+            timestamp += this.random.nextInt(2 + (i / 10_000) * 3);
+            timestamps[i] = timestamp;
+            window.add(values[i], timestamp);
+            while (timestamps[from] <= timestamp - 200_000) {
+                from++;
+            }
+            if (0 == i % 997 || i == samples - 1) {
+                final double[] expected = Arrays.copyOfRange(values, from, i + 1);
+                Arrays.sort(expected);
+                Assert.assertEquals(expected.length, window.getCount());
+                for (final double percentile : percentiles) {
+                    Assert.assertEquals(expected[Math.max((int) Math.ceil(percentile / 100 * expected.length), 1) - 1], window.getPercentile(percentile), 0);
+                }
+            }
+        }
+        window.clear();
+        window.add(-50, timestamp);
+        Assert.assertEquals(-50, window.getPercentile(50), 0);
+    }
+
+    private void testWindow(final SlidingWindowStatistics window, int maxSize, long maxAge) {
+        final int samples = 5000;
+        final double[] values = new double[samples];
+        final long[] timestamps = new long[samples];
+        long timestamp = 0;
+        for (int i = 0; i < samples; i++) {
+            values[i] = Math.round((-40 - 50 * this.random.nextDouble()) * 4) / 4.0;
+            timestamp += this.random.nextInt(20);
+            timestamps[i] = timestamp;
+            window.add(values[i], timestamp);
+
+            int from = 0;
+            while (from < i && ((maxSize > 0 && i + 1 - from > maxSize) || (maxAge > 0 && timestamps[from] <= timestamp - maxAge))) {
+                from++;
+            }
+            final double[] expected = Arrays.copyOfRange(values, from, i + 1);
+            Arrays.sort(expected);
+            double mean = 0;
+            for (final double value : expected) {
+                mean += value;
+            }
+            mean /= expected.length;
+            double variance = 0;
+            for (final double value : expected) {
+                variance += (value - mean) * (value - mean);
+            }
+            variance /= expected.length;
+
+            Assert.assertEquals(expected.length, window.getCount());
+            Assert.assertEquals(mean, window.getMean(), 1e-9);
+            Assert.assertEquals(variance, window.getVariance(), 1e-6);
+            Assert.assertEquals(expected[0], window.getMin(), 0);
+            Assert.assertEquals(expected[expected.length - 1], window.getMax(), 0);
+            Assert.assertEquals(expected[(int) Math.ceil(0.5 * expected.length) - 1], window.getPercentile(50), 0);
+            Assert.assertEquals(expected[(int) Math.ceil(0.9 * expected.length) - 1], window.getPercentile(90), 0);
+            Assert.assertEquals(expected[expected.length - 1], window.getPercentile(100), 0);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for AsyncOutputStream class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class AsyncOutputStreamTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(AsyncOutputStreamTest.class);
+
+    private ByteArrayOutputStream target;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing asynchronous output stream...");
+        this.target = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testWritesInOrder() throws IOException {
+        final Random random = new Random(17);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (final AsyncOutputStream output = new AsyncOutputStream(this.target, 64, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                final byte[] chunk = new byte[random.nextInt(200)];
+                random.nextBytes(chunk);
+                output.write(chunk);
+                output.write(i);
+                expected.write(chunk);
+                expected.write(i);
+            }
+        }
+        Assert.assertArrayEquals(expected.toByteArray(), this.target.toByteArray());
+    }
+
+    @Test
+    public void testFlushesOnTimeThreshold() throws Exception {
+        try (final AsyncOutputStream output = new AsyncOutputStream(this.target, 1024, 20)) {
+            output.write(new byte[]{1, 2, 3});
+            for (int i = 0; i < 100 && this.target.size() < 3; i++) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(3, this.target.size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailureIsReported() throws IOException {
+        final OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        try (final AsyncOutputStream output = new AsyncOutputStream(failing, 4, 0)) {
+            output.write(new byte[16]);
+            output.flush();
+        }
+    }
+}
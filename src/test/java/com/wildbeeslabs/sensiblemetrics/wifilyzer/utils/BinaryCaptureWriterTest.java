@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for BinaryCaptureWriter / BinaryCaptureReader classes
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class BinaryCaptureWriterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(BinaryCaptureWriterTest.class);
+
+    private static final String[] BSSIDS = {"aa:bb:cc:00:00:01", "aa:bb:cc:00:00:02", "aa:bb:cc:00:00:03"};
+
+    private ByteArrayOutputStream output;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing binary capture output...");
+        this.output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testWriteReadInputCapture() throws IOException {
+        try (final BinaryCaptureWriter writer = new BinaryCaptureWriter(this.output, -59, false, 7)) {
+            for (int i = 0; i < 100; i++) {
+                writer.write(BSSIDS[i % BSSIDS.length], -30 - i % 70 - 0.25 * (i % 4), (0 == i % 5) ? NetworkRecordParser.NO_TIMESTAMP : 1_000_000L + i * 1000);
+            }
+            Assert.assertFalse(writer.checkError());
+        }
+        try (final BinaryCaptureReader reader = new BinaryCaptureReader(new ByteArrayInputStream(this.output.toByteArray()))) {
+            Assert.assertEquals(-59, reader.getTxPower());
+            Assert.assertFalse(reader.hasOutputColumns());
+            for (int i = 0; i < 100; i++) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(BSSIDS[i % BSSIDS.length], reader.getBssid());
+                Assert.assertEquals(-30 - i % 70 - 0.25 * (i % 4), reader.getRssi(), 0);
+                Assert.assertEquals((0 == i % 5) ? NetworkRecordParser.NO_TIMESTAMP : 1_000_000L + i * 1000, reader.getTimestamp());
+                Assert.assertTrue(Double.isNaN(reader.getDistance()));
+            }
+            Assert.assertFalse(reader.next());
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testWriteReadOutputCapture() throws IOException {
+        try (final BinaryCaptureWriter writer = new BinaryCaptureWriter(this.output, -59, true)) {
+            writer.write(BSSIDS[0], -76, -76.734, 12.345, NetworkRecordParser.NO_TIMESTAMP);
+            writer.write(BSSIDS[1], -81.5, -80.1, -1, 42);
+        }
+        try (final BinaryCaptureReader reader = new BinaryCaptureReader(new ByteArrayInputStream(this.output.toByteArray()))) {
+            Assert.assertTrue(reader.hasOutputColumns());
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(-76.73, reader.getFilteredRssi(), 0);
+            Assert.assertEquals(12.35, reader.getDistance(), 0);
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(BSSIDS[1], reader.getBssid());
+            Assert.assertEquals(-81.5, reader.getRssi(), 0);
+            Assert.assertEquals(-80.1, reader.getFilteredRssi(), 0);
+            Assert.assertEquals(-1, reader.getDistance(), 0);
+            Assert.assertEquals(42, reader.getTimestamp());
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidCapture() throws IOException {
+        new BinaryCaptureReader(new ByteArrayInputStream("-76,-78,-81".getBytes("US-ASCII")));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.FingerprintIndex;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.FingerprintMatcher;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.location.LocalProjection;
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * Unit test case for LocationRecordWriter class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class LocationRecordWriterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(LocationRecordWriterTest.class);
+    /**
+     * Default access point bssids
+     */
+    private static final String[] BSSIDS = {"02:00:00:00:00:01", "02:00:00:00:00:02", "02:00:00:00:00:03", "02:00:00:00:00:04"};
+    /**
+     * Default access point positions (meters)
+     */
+    private static final double[][] ACCESS_POINTS = {{0, 0}, {40, 0}, {0, 40}, {40, 40}};
+    /**
+     * Grid size of radio map (fingerprints per side)
+     */
+    private static final int GRID = 21;
+    /**
+     * Grid step (meters)
+     */
+    private static final double STEP = 2.0;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalProjection projection;
+    private FingerprintIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        LOGGER.info("Initializing radio map...");
+        this.projection = new LocalProjection(55.75, 37.61);
+        final StringBuilder map = new StringBuilder();
+        for (int f = 0; f < GRID * GRID; f++) {
+            final double x = STEP * (f % GRID);
+            final double y = STEP * (f / GRID);
+            map.append(this.projection.toLatitude(y)).append(',').append(this.projection.toLongitude(x));
+            for (int j = 0; j < BSSIDS.length; j++) {
+                map.append(',').append(BSSIDS[j]).append(',').append(this.rssi(x, y, j));
+            }
+            map.append('\n');
+        }
+        final File radioMapFile = this.folder.newFile("radiomap.csv");
+        Files.write(radioMapFile.toPath(), map.toString().getBytes(StandardCharsets.US_ASCII));
+        this.index = FingerprintIndex.load(radioMapFile, this.projection, FingerprintIndex.DEFAULT_MISSING_RSSI);
+    }
+
+    @Test
+    public void testFixPerTimestampWindow() {
+        final double[][] positions = {{10, 30}, {26, 8}, {34, 34}};
+        final StringWriter records = new StringWriter();
+        final StringWriter locations = new StringWriter();
+        final LocationRecordWriter writer = new LocationRecordWriter(new CsvRecordWriter(new RowWriter(records), true), new FingerprintMatcher(this.index), new RowWriter(locations), 1000);
+        int samples = 0;
+        for (int w = 0; w < positions.length; w++) {
+            for (long timestamp = 1000 * w + 100; timestamp < 1000 * (w + 1); timestamp += 200) {
+                final int j = samples++ % BSSIDS.length;
+                final double rssi = this.rssi(positions[w][0], positions[w][1], j);
+                writer.write(BSSIDS[j], rssi, rssi, 1, 1000000 + timestamp);
+            }
+        }
+        writer.close();
+        Assert.assertEquals(samples, records.toString().split("\n").length);
+        Assert.assertEquals(3, writer.getFixes());
+        final String[] rows = locations.toString().split("\n");
+        Assert.assertEquals(positions.length, rows.length);
+        for (int w = 0; w < positions.length; w++) {
+            final String[] values = rows[w].split(",");
+            Assert.assertEquals(1000000 + 1000 * w, Long.parseLong(values[0]));
+            Assert.assertEquals(positions[w][1], this.projection.toNorth(Double.parseDouble(values[1])), STEP);
+            Assert.assertEquals(positions[w][0], this.projection.toEast(Double.parseDouble(values[2])), STEP);
+            Assert.assertEquals(BSSIDS.length, Integer.parseInt(values[3]));
+        }
+    }
+
+    @Test
+    public void testWindowWithoutTimestampCountsSamples() {
+        final StringWriter locations = new StringWriter();
+        final LocationRecordWriter writer = new LocationRecordWriter(new CsvRecordWriter(new RowWriter(new StringWriter()), true), new FingerprintMatcher(this.index), new RowWriter(locations), BSSIDS.length);
+        for (int i = 0; i < 5 * BSSIDS.length; i++) {
+            final int j = i % BSSIDS.length;
+            final double rssi = this.rssi(20, 20, j);
+            writer.write(BSSIDS[j], rssi, rssi, 1, NetworkRecordParser.NO_TIMESTAMP);
+        }
+        writer.write("02:00:00:00:00:ff", -60, -60, 1, NetworkRecordParser.NO_TIMESTAMP);
+        writer.close();
+        Assert.assertEquals(5, writer.getFixes());
+        Assert.assertEquals(5, locations.toString().split("\n").length);
+    }
+
+    private double rssi(double x, double y, int j) {
+        final double d = Math.max(1, Math.hypot(x - ACCESS_POINTS[j][0], y - ACCESS_POINTS[j][1]));
+        return Math.round((-40 - 25 * Math.log10(d)) * 10) / 10.0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for RowWriter class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class RowWriterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RowWriterTest.class);
+
+    private static final double[] SPECIAL_VALUES = {
+        0, -0.0, 0.5, -0.5, 0.001, -0.001, 0.005, 0.015, 0.125, 0.135, 1.005, 2.675, -76.735, 76.0, 1e7, 1.5e15, 1e20,
+        Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing row writer...");
+        this.random = new Random(42);
+    }
+
+    @Test
+    public void testAppendDecimalAsDecimalFormat() {
+        final DecimalFormat format = new DecimalFormat(NumberUtils.DEFAULT_NUMBER_FORMAT_PATTERN);
+        for (final double value : SPECIAL_VALUES) {
+            Assert.assertEquals(format.format(value), new RowWriter().appendDecimal(value).toString());
+        }
+        for (int i = 0; i < 100_000; i++) {
+            final double value = this.nextValue();
+            Assert.assertEquals(format.format(value), new RowWriter().appendDecimal(value).toString());
+        }
+    }
+
+    @Test
+    public void testAppendDoubleAsToString() {
+        for (final double value : SPECIAL_VALUES) {
+            Assert.assertEquals(Double.toString(value), new RowWriter().appendDouble(value).toString());
+        }
+        for (int i = 0; i < 100_000; i++) {
+            final double value = this.nextValue();
+            Assert.assertEquals(Double.toString(value), new RowWriter().appendDouble(value).toString());
+        }
+    }
+
+    @Test
+    public void testWriteRows() {
+        final StringWriter output = new StringWriter();
+        try (final RowWriter writer = new RowWriter(output, NumberUtils.MAX_FAST_FORMAT_LENGTH)) {
+            for (int i = 0; i < 10; i++) {
+                writer.append("00:11:22:33:44:55").separator().appendDouble(76).separator().appendDecimal(76.735).separator().appendLong(-i).endRow();
+            }
+            Assert.assertFalse(writer.checkError());
+        }
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            expected.append("00:11:22:33:44:55,76.0,76.73,").append(-i).append(System.lineSeparator());
+        }
+        Assert.assertEquals(expected.toString(), output.toString());
+    }
+
+    private double nextValue() {
+        switch (this.random.nextInt(4)) {
+            case 0:
+                return Math.round(this.random.nextGaussian() * 100_000) / 1000.0;
+            case 1:
+                return (this.random.nextInt(2_000_000) - 1_000_000) / 200.0;
+            case 2:
+                return -this.random.nextInt(130);
+            default:
+                return (this.random.nextDouble() - 0.5) * Math.pow(10, this.random.nextInt(24) - 8);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 WildBees Labs.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.wifilyzer.utils;
+
+import com.wildbeeslabs.sensiblemetrics.wifilyzer.parser.NetworkRecordParser;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * Unit test case for WindowStatisticsRecordWriter class
+ *
+ * @author Alex
+ * @version 1.0.0
+ * @since 2017-12-12
+ */
+public class WindowStatisticsRecordWriterTest {
+
+    /**
+     * Default logger instance
+     */
+    private static final Logger LOGGER = LogManager.getLogger(WindowStatisticsRecordWriterTest.class);
+    /**
+     * Default access point bssids
+     */
+    private static final String[] BSSIDS = {"02:00:00:00:00:01", "02:00:00:00:00:02", "02:00:00:00:00:03"};
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        LOGGER.info("Initializing window statistics record writer...");
+        this.random = new Random(42);
+    }
+
+    @Test
+    public void testDurationWithoutTimestampCountsSamples() {
+        final long seed = this.random.nextLong();
+        final String byDuration = this.write(0, 5, seed);
+        Assert.assertEquals(this.write(5, 0, seed), byDuration);
+        Assert.assertEquals(byDuration, this.write(0, 5, seed));
+    }
+
+    private String write(int windowSize, long windowDuration, long seed) {
+        final Random samples = new Random(seed);
+        final StringWriter output = new StringWriter();
+        final WindowStatisticsRecordWriter writer = new WindowStatisticsRecordWriter(new RowWriter(output), true, windowSize, windowDuration, 50, 90);
+        for (int i = 0; i < 1000; i++) {
+            final double rssi = -40 - Math.round(50 * samples.nextDouble());
+            writer.write(BSSIDS[samples.nextInt(BSSIDS.length)], rssi, rssi, 10 * samples.nextDouble(), NetworkRecordParser.NO_TIMESTAMP);
+        }
+        writer.flush();
+        return output.toString();
+    }
+}